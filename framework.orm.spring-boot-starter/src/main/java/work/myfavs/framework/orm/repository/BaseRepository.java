@@ -3,9 +3,12 @@ package work.myfavs.framework.orm.repository;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import work.myfavs.framework.orm.DB;
 import work.myfavs.framework.orm.DBTemplate;
 import work.myfavs.framework.orm.meta.clause.Sql;
+import work.myfavs.framework.orm.util.common.CloseableIterator;
+import work.myfavs.framework.orm.util.common.LongKeyMap;
 
 /**
  * 仓储基类
@@ -55,6 +58,66 @@ abstract public class BaseRepository {
     return DB.conn(this.dbTemplate).find(viewClass, sql);
   }
 
+  /**
+   * 执行SQL，返回逐行读取结果集的迭代器，读取完毕或不再使用时必须关闭
+   *
+   * @param viewClass 结果集类型
+   * @param sql       SQL语句
+   * @param params    参数
+   * @param <TView>   结果集类型泛型
+   * @return 迭代器
+   */
+  protected <TView> CloseableIterator<TView> iterate(Class<TView> viewClass,
+      String sql,
+      Collection params) {
+
+    return DB.conn(this.dbTemplate).iterate(viewClass, sql, params);
+  }
+
+  /**
+   * 执行SQL，返回逐行读取结果集的迭代器，读取完毕或不再使用时必须关闭
+   *
+   * @param viewClass 结果集类型
+   * @param sql       SQL
+   * @param <TView>   结果集类型泛型
+   * @return 迭代器
+   */
+  protected <TView> CloseableIterator<TView> iterate(Class<TView> viewClass,
+      Sql sql) {
+
+    return DB.conn(this.dbTemplate).iterate(viewClass, sql);
+  }
+
+  /**
+   * 执行SQL，返回逐行读取结果集的 Stream，使用完毕必须关闭
+   *
+   * @param viewClass 结果集类型
+   * @param sql       SQL语句
+   * @param params    参数
+   * @param <TView>   结果集类型泛型
+   * @return Stream
+   */
+  protected <TView> Stream<TView> stream(Class<TView> viewClass,
+      String sql,
+      Collection params) {
+
+    return DB.conn(this.dbTemplate).stream(viewClass, sql, params);
+  }
+
+  /**
+   * 执行SQL，返回逐行读取结果集的 Stream，使用完毕必须关闭
+   *
+   * @param viewClass 结果集类型
+   * @param sql       SQL
+   * @param <TView>   结果集类型泛型
+   * @return Stream
+   */
+  protected <TView> Stream<TView> stream(Class<TView> viewClass,
+      Sql sql) {
+
+    return DB.conn(this.dbTemplate).stream(viewClass, sql);
+  }
+
   /**
    * 根据SQL查询实体集合
    *
@@ -87,6 +150,70 @@ abstract public class BaseRepository {
     return DB.conn(this.dbTemplate).findMap(viewClass, keyField, sql);
   }
 
+  /**
+   * 执行SQL，并返回以 long 为 Key 的Map
+   *
+   * @param viewClass 结果集类型
+   * @param keyField  返回Map的Key的字段，必须是viewClass中存在的数值字段
+   * @param sql       SQL语句
+   * @param params    SQL参数
+   * @param <TView>   结果集类型泛型
+   * @return Map
+   */
+  protected <TView> LongKeyMap<TView> findLongMap(Class<TView> viewClass,
+      String keyField,
+      String sql,
+      Collection params) {
+    return DB.conn(this.dbTemplate).findLongMap(viewClass, keyField, sql, params);
+  }
+
+  /**
+   * 执行SQL，并返回以 long 为 Key 的Map
+   *
+   * @param viewClass 结果集类型
+   * @param keyField  返回Map的Key的字段，必须是viewClass中存在的数值字段
+   * @param sql       SQL
+   * @param <TView>   结果集类型泛型
+   * @return Map
+   */
+  protected <TView> LongKeyMap<TView> findLongMap(Class<TView> viewClass,
+      String keyField,
+      Sql sql) {
+    return DB.conn(this.dbTemplate).findLongMap(viewClass, keyField, sql);
+  }
+
+  /**
+   * 执行SQL，并按指定字段分组
+   *
+   * @param viewClass 结果集类型
+   * @param keyField  分组字段，必须是viewClass中存在的字段
+   * @param sql       SQL语句
+   * @param params    SQL参数
+   * @param <TView>   结果集类型泛型
+   * @return Map
+   */
+  protected <TKey, TView> Map<TKey, List<TView>> findGroup(Class<TView> viewClass,
+      String keyField,
+      String sql,
+      Collection params) {
+    return DB.conn(this.dbTemplate).findGroup(viewClass, keyField, sql, params);
+  }
+
+  /**
+   * 执行SQL，并按指定字段分组
+   *
+   * @param viewClass 结果集类型
+   * @param keyField  分组字段，必须是viewClass中存在的字段
+   * @param sql       SQL
+   * @param <TView>   结果集类型泛型
+   * @return Map
+   */
+  protected <TKey, TView> Map<TKey, List<TView>> findGroup(Class<TView> viewClass,
+      String keyField,
+      Sql sql) {
+    return DB.conn(this.dbTemplate).findGroup(viewClass, keyField, sql);
+  }
+
   /**
    * 执行SQL，返回指定行数的结果集
    *
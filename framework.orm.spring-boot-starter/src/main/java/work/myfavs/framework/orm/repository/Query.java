@@ -2,6 +2,7 @@ package work.myfavs.framework.orm.repository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import work.myfavs.framework.orm.DB;
 import work.myfavs.framework.orm.DBTemplate;
 import work.myfavs.framework.orm.meta.Record;
@@ -9,6 +10,8 @@ import work.myfavs.framework.orm.meta.clause.Sql;
 import work.myfavs.framework.orm.meta.pagination.IPageable;
 import work.myfavs.framework.orm.meta.pagination.Page;
 import work.myfavs.framework.orm.meta.pagination.PageLite;
+import work.myfavs.framework.orm.meta.pagination.Slice;
+import work.myfavs.framework.orm.util.common.CloseableIterator;
 
 /**
  * 查询器基类
@@ -97,6 +100,100 @@ public class Query
     return this.find(Record.class, sql);
   }
 
+  /**
+   * 执行SQL，返回逐行读取结果集的迭代器，读取完毕或不再使用时必须关闭；
+   * 关闭前同一线程不能执行其他语句（MySQL 流式读取），见 {@link DB#iterate(Class, String, Collection)}
+   *
+   * @param viewClass 结果集类型
+   * @param sql       SQL语句
+   * @param params    参数
+   * @param <TView>   结果集类型泛型
+   * @return 迭代器
+   */
+  @Override
+  public <TView> CloseableIterator<TView> iterate(Class<TView> viewClass,
+      String sql,
+      Collection params) {
+
+    return super.iterate(viewClass, sql, params);
+  }
+
+  /**
+   * 执行SQL，返回逐行读取结果集的迭代器，读取完毕或不再使用时必须关闭；
+   * 关闭前同一线程不能执行其他语句（MySQL 流式读取），见 {@link DB#iterate(Class, String, Collection)}
+   *
+   * @param viewClass 结果集类型
+   * @param sql       SQL
+   * @param <TView>   结果集类型泛型
+   * @return 迭代器
+   */
+  @Override
+  public <TView> CloseableIterator<TView> iterate(Class<TView> viewClass,
+      Sql sql) {
+
+    return super.iterate(viewClass, sql);
+  }
+
+  /**
+   * 执行SQL，返回逐行读取结果集的 Stream，使用完毕必须关闭；
+   * 关闭前同一线程不能执行其他语句（MySQL 流式读取），见 {@link DB#iterate(Class, String, Collection)}
+   *
+   * @param viewClass 结果集类型
+   * @param sql       SQL语句
+   * @param params    参数
+   * @param <TView>   结果集类型泛型
+   * @return Stream
+   */
+  @Override
+  public <TView> Stream<TView> stream(Class<TView> viewClass,
+      String sql,
+      Collection params) {
+
+    return super.stream(viewClass, sql, params);
+  }
+
+  /**
+   * 执行SQL，返回逐行读取结果集的 Stream，使用完毕必须关闭；
+   * 关闭前同一线程不能执行其他语句（MySQL 流式读取），见 {@link DB#iterate(Class, String, Collection)}
+   *
+   * @param viewClass 结果集类型
+   * @param sql       SQL
+   * @param <TView>   结果集类型泛型
+   * @return Stream
+   */
+  @Override
+  public <TView> Stream<TView> stream(Class<TView> viewClass,
+      Sql sql) {
+
+    return super.stream(viewClass, sql);
+  }
+
+  /**
+   * 执行SQL，返回逐行读取结果集的 Stream，使用完毕必须关闭；
+   * 关闭前同一线程不能执行其他语句（MySQL 流式读取），见 {@link DB#iterate(Class, String, Collection)}
+   *
+   * @param sql    SQL语句
+   * @param params 参数
+   * @return Stream
+   */
+  public Stream<Record> streamRecord(String sql,
+      Collection params) {
+
+    return this.stream(Record.class, sql, params);
+  }
+
+  /**
+   * 执行SQL，返回逐行读取结果集的 Stream，使用完毕必须关闭；
+   * 关闭前同一线程不能执行其他语句（MySQL 流式读取），见 {@link DB#iterate(Class, String, Collection)}
+   *
+   * @param sql SQL
+   * @return Stream
+   */
+  public Stream<Record> streamRecord(Sql sql) {
+
+    return this.stream(Record.class, sql);
+  }
+
   /**
    * 执行SQL，返回指定行数的结果集
    *
@@ -542,5 +639,46 @@ public class Query
     return this.findPage(Record.class, sql, pageable);
   }
 
+  /**
+   * 执行 SQL 语句，返回键集分页（seek）结果
+   *
+   * @param viewClass   返回的数据类型
+   * @param sql         SQL语句
+   * @param params      参数
+   * @param orderKeys   排序字段，组合起来必须唯一
+   * @param afterCursor 上一页返回的游标，为空时返回第一页
+   * @param size        每页记录数
+   * @param <TView>     结果类型泛型
+   * @return 键集分页结果
+   */
+  public <TView> Slice<TView> findSlice(Class<TView> viewClass,
+      String sql,
+      Collection params,
+      String[] orderKeys,
+      String afterCursor,
+      int size) {
+
+    return DB.conn(this.dbTemplate).findSlice(viewClass, sql, params, orderKeys, afterCursor, size);
+  }
+
+  /**
+   * 执行 SQL 语句，返回键集分页（seek）结果
+   *
+   * @param viewClass   返回的数据类型
+   * @param sql         SQL
+   * @param orderKeys   排序字段，组合起来必须唯一
+   * @param afterCursor 上一页返回的游标，为空时返回第一页
+   * @param size        每页记录数
+   * @param <TView>     结果类型泛型
+   * @return 键集分页结果
+   */
+  public <TView> Slice<TView> findSlice(Class<TView> viewClass,
+      Sql sql,
+      String[] orderKeys,
+      String afterCursor,
+      int size) {
+
+    return DB.conn(this.dbTemplate).findSlice(viewClass, sql, orderKeys, afterCursor, size);
+  }
 
-}
\ No newline at end of file
+}
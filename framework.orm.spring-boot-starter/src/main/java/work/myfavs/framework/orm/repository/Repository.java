@@ -2,13 +2,21 @@ package work.myfavs.framework.orm.repository;
 
 import java.lang.reflect.ParameterizedType;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import work.myfavs.framework.orm.BulkResult;
 import work.myfavs.framework.orm.DB;
 import work.myfavs.framework.orm.DBTemplate;
 import work.myfavs.framework.orm.meta.clause.Cond;
 import work.myfavs.framework.orm.meta.clause.Sql;
+import work.myfavs.framework.orm.meta.pagination.Slice;
 import work.myfavs.framework.orm.meta.schema.Metadata;
+import work.myfavs.framework.orm.util.common.CloseableIterator;
+import work.myfavs.framework.orm.util.common.LongKeyMap;
+import work.myfavs.framework.orm.util.func.BatchListener;
 
 /**
  * 仓储基类
@@ -129,6 +137,94 @@ public class Repository<TModel>
     return super.find(modelClass, sql);
   }
 
+  /**
+   * 根据SQL返回逐行读取实体的迭代器，读取完毕或不再使用时必须关闭；
+   * 关闭前同一线程不能执行其他语句（MySQL 流式读取），见 {@link DB#iterate(Class, String, Collection)}
+   *
+   * @param sql    SQL语句
+   * @param params 参数
+   * @return 迭代器
+   */
+  public CloseableIterator<TModel> iterate(String sql,
+      Collection params) {
+
+    return super.iterate(modelClass, sql, params);
+  }
+
+  /**
+   * 根据SQL返回逐行读取实体的迭代器，读取完毕或不再使用时必须关闭；
+   * 关闭前同一线程不能执行其他语句（MySQL 流式读取），见 {@link DB#iterate(Class, String, Collection)}
+   *
+   * @param sql SQL
+   * @return 迭代器
+   */
+  public CloseableIterator<TModel> iterate(Sql sql) {
+
+    return super.iterate(modelClass, sql);
+  }
+
+  /**
+   * 根据SQL返回逐行读取实体的 Stream，使用完毕必须关闭；
+   * 关闭前同一线程不能执行其他语句（MySQL 流式读取），见 {@link DB#iterate(Class, String, Collection)}
+   *
+   * @param sql    SQL语句
+   * @param params 参数
+   * @return Stream
+   */
+  public Stream<TModel> stream(String sql,
+      Collection params) {
+
+    return super.stream(modelClass, sql, params);
+  }
+
+  /**
+   * 根据SQL返回逐行读取实体的 Stream，使用完毕必须关闭；
+   * 关闭前同一线程不能执行其他语句（MySQL 流式读取），见 {@link DB#iterate(Class, String, Collection)}
+   *
+   * @param sql SQL
+   * @return Stream
+   */
+  public Stream<TModel> stream(Sql sql) {
+
+    return super.stream(modelClass, sql);
+  }
+
+  /**
+   * 根据SQL返回键集分页（seek）结果
+   *
+   * @param sql         SQL语句
+   * @param params      参数
+   * @param orderKeys   排序字段，组合起来必须唯一
+   * @param afterCursor 上一页返回的游标，为空时返回第一页
+   * @param size        每页记录数
+   * @return 键集分页结果
+   */
+  public Slice<TModel> findSlice(String sql,
+      Collection params,
+      String[] orderKeys,
+      String afterCursor,
+      int size) {
+
+    return DB.conn(this.dbTemplate).findSlice(modelClass, sql, params, orderKeys, afterCursor, size);
+  }
+
+  /**
+   * 根据SQL返回键集分页（seek）结果
+   *
+   * @param sql         SQL
+   * @param orderKeys   排序字段，组合起来必须唯一
+   * @param afterCursor 上一页返回的游标，为空时返回第一页
+   * @param size        每页记录数
+   * @return 键集分页结果
+   */
+  public Slice<TModel> findSlice(Sql sql,
+      String[] orderKeys,
+      String afterCursor,
+      int size) {
+
+    return DB.conn(this.dbTemplate).findSlice(modelClass, sql, orderKeys, afterCursor, size);
+  }
+
   /**
    * 根据SQL查询实体集合
    *
@@ -152,6 +248,55 @@ public class Repository<TModel>
     return this.findMap(sql.getSqlString(), sql.getParams());
   }
 
+  /**
+   * 根据SQL查询实体集合，主键必须是数值类型
+   *
+   * @param sql    SQL
+   * @param params 参数
+   * @return Map，Key为主键值， Value为实体对象
+   */
+  public LongKeyMap<TModel> findLongMap(String sql,
+      Collection params) {
+    final String fieldName = Metadata.get(modelClass).getPrimaryKey().getFieldName();
+    return findLongMap(modelClass, fieldName, sql, params);
+  }
+
+  /**
+   * 根据SQL查询实体集合，主键必须是数值类型
+   *
+   * @param sql SQL
+   * @return Map，Key为主键值， Value为实体对象
+   */
+  public LongKeyMap<TModel> findLongMap(Sql sql) {
+    return this.findLongMap(sql.getSqlString(), sql.getParams());
+  }
+
+  /**
+   * 根据SQL查询实体集合，并按指定字段分组
+   *
+   * @param keyField 分组字段
+   * @param sql      SQL
+   * @param params   参数
+   * @return Map，Key为分组字段值， Value为实体集合
+   */
+  public <TKey> Map<TKey, List<TModel>> findGroup(String keyField,
+      String sql,
+      Collection params) {
+    return findGroup(modelClass, keyField, sql, params);
+  }
+
+  /**
+   * 根据SQL查询实体集合，并按指定字段分组
+   *
+   * @param keyField 分组字段
+   * @param sql      SQL
+   * @return Map，Key为分组字段值， Value为实体集合
+   */
+  public <TKey> Map<TKey, List<TModel>> findGroup(String keyField,
+      Sql sql) {
+    return this.findGroup(keyField, sql.getSqlString(), sql.getParams());
+  }
+
   /**
    * 根据字段查询实体集合
    *
@@ -211,6 +356,19 @@ public class Repository<TModel>
     return DB.conn(this.dbTemplate).findByIds(modelClass, ids);
   }
 
+  /**
+   * 根据多个主键ID查询实体集合
+   *
+   * @param ids       主键ID集合
+   * @param keepOrder 是否按主键ID集合的顺序返回实体
+   * @return 实体集合
+   */
+  public List<TModel> findByIds(Collection ids,
+      boolean keepOrder) {
+
+    return DB.conn(this.dbTemplate).findByIds(modelClass, ids, keepOrder);
+  }
+
   /**
    * 根据条件获取查询的行数
    *
@@ -290,6 +448,76 @@ public class Repository<TModel>
     return DB.conn(this.dbTemplate).create(modelClass, entities);
   }
 
+  /**
+   * 从迭代器中逐个读取实体并批量创建，内存占用与记录总数无关
+   *
+   * @param entities 实体迭代器
+   * @param listener 进度监听，每执行一批记录后调用，可以为 null
+   * @return 影响行数
+   */
+  public long createStream(Iterator<TModel> entities,
+      BatchListener listener) {
+
+    return DB.conn(this.dbTemplate).createStream(modelClass, entities, listener);
+  }
+
+  /**
+   * 从迭代器中逐个读取实体并批量创建，内存占用与记录总数无关
+   *
+   * @param entities 实体迭代器
+   * @return 影响行数
+   */
+  public long createStream(Iterator<TModel> entities) {
+
+    return DB.conn(this.dbTemplate).createStream(modelClass, entities);
+  }
+
+  /**
+   * 并行批量创建实体，每个分区使用单独的数据库连接与事务
+   *
+   * @param entities 实体集合
+   * @return 写入结果
+   */
+  public BulkResult createParallel(Collection<TModel> entities) {
+
+    return DB.conn(this.dbTemplate).createParallel(modelClass, entities);
+  }
+
+  /**
+   * 异步创建实体，由后台线程合并成批写入
+   *
+   * @param entity 实体
+   * @return 实体写入数据库后完成的 Future
+   */
+  public CompletableFuture<TModel> createAsync(TModel entity) {
+
+    return DB.conn(this.dbTemplate).createAsync(modelClass, entity);
+  }
+
+  /**
+   * 批量插入或更新实体：主键不存在时插入，已存在时更新指定字段
+   *
+   * @param entities 实体集合
+   * @param columns  主键已存在时需要更新的字段，为空时更新所有字段
+   * @return 影响行数
+   */
+  public int upsert(Collection<TModel> entities,
+      String[] columns) {
+
+    return DB.conn(this.dbTemplate).upsert(modelClass, entities, columns);
+  }
+
+  /**
+   * 批量创建主键不存在的实体，主键已存在的记录保持不变
+   *
+   * @param entities 实体集合
+   * @return 影响行数，MySQL 已存在的行是否计入取决于驱动设置，见 {@link DB#createIfAbsent(Class, Collection)}
+   */
+  public int createIfAbsent(Collection<TModel> entities) {
+
+    return DB.conn(this.dbTemplate).createIfAbsent(modelClass, entities);
+  }
+
   /**
    * 更新实体
    *
@@ -413,6 +641,15 @@ public class Repository<TModel>
     return this.dbTemplate.getPkGenerator().nextUUID();
   }
 
+  /**
+   * 创建一个按时间排序的 UUID（版本7）值
+   *
+   * @return UUID
+   */
+  public String uuidV7() {
+    return this.dbTemplate.getPkGenerator().nextUUIDv7().toString();
+  }
+
   /**
    * 创建一个雪花值
    *
@@ -0,0 +1,322 @@
+package work.myfavs.framework.orm;
+
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import work.myfavs.framework.orm.util.exception.DBException;
+
+/**
+ * 异步写入器（write-behind），每个 {@link DBTemplate} 一个，由 {@link DBTemplate#getAsyncWriter()} 创建
+ * <p>
+ * 多个线程提交的实体进入有界队列，由后台线程按 batchSize 或等待超时（{@link DBConfig#getAsyncLingerMillis()}）
+ * 凑成一批，按实体类分组调用 {@link DB#create(Class, java.util.Collection)} 写入，每批使用单独的事务并立即提交
+ * <p>
+ * 队列已满时提交方阻塞等待（背压）；某批因数据或约束错误写入失败时逐条重试，只有写入失败的实体的 Future 异常完成，
+ * 连接失败等其他错误不重试，整批实体的 Future 异常完成。
+ * Future 在后台线程中完成，耗时的回调应使用 *Async 方法交给其他线程执行
+ * <p>
+ * 关闭（{@link #close()} 或 JVM 退出）时停止接收新实体，并写入队列中剩余的实体；关闭后
+ * {@link DBTemplate#getAsyncWriter()} 会创建新的写入器
+ *
+ * @author tanqimin
+ */
+public class AsyncWriter
+    implements AutoCloseable {
+
+  private final static Logger log = LoggerFactory.getLogger(AsyncWriter.class);
+
+  /**
+   * 后台线程检查关闭状态的间隔（毫秒）
+   */
+  private final static long POLL_MILLIS = 100L;
+
+  private final DBTemplate          dbTemplate;
+  private final BlockingQueue<Item<?>> queue;
+  private final int                 batchSize;
+  private final long                lingerNanos;
+  private final Thread              flusher;
+  private final Thread              shutdownHook;
+  private volatile boolean          closed;
+
+  AsyncWriter(DBTemplate dbTemplate) {
+
+    final DBConfig dbConfig = dbTemplate.getDbConfig();
+    this.dbTemplate  = dbTemplate;
+    this.queue       = new ArrayBlockingQueue<>(dbConfig.getAsyncQueueCapacity());
+    this.batchSize   = dbConfig.getBatchSize();
+    this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(dbConfig.getAsyncLingerMillis());
+
+    this.flusher = new Thread(this::run, "myfavs-async-" + dbTemplate.getDsName());
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+
+    this.shutdownHook = new Thread(this::close, "myfavs-async-shutdown-" + dbTemplate.getDsName());
+    Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+  }
+
+  /**
+   * 提交实体，队列已满时阻塞等待
+   *
+   * @param modelClass 实体类型
+   * @param entity     实体
+   * @param <TModel>   实体类型泛型
+   * @return 实体写入数据库后完成的 Future，结果为实体本身（已设置主键）
+   */
+  public <TModel> CompletableFuture<TModel> submit(Class<TModel> modelClass,
+      TModel entity) {
+
+    final Item<TModel> item = new Item<>(modelClass, entity);
+    try {
+      while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+        checkOpen();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DBException(e, "Interrupted while waiting for the async write queue.");
+    }
+    //关闭期间入队且未被后台线程取走的实体不会再写入
+    if (closed && queue.remove(item)) {
+      checkOpen();
+    }
+    return item.future;
+  }
+
+  /**
+   * 提交实体，队列已满时最多等待指定时间
+   *
+   * @param modelClass 实体类型
+   * @param entity     实体
+   * @param timeout    等待时间
+   * @param unit       时间单位
+   * @param <TModel>   实体类型泛型
+   * @return 实体写入数据库后完成的 Future；等待超时返回 null
+   */
+  public <TModel> CompletableFuture<TModel> offer(Class<TModel> modelClass,
+      TModel entity,
+      long timeout,
+      TimeUnit unit) {
+
+    checkOpen();
+    final Item<TModel> item = new Item<>(modelClass, entity);
+    try {
+      if (!queue.offer(item, timeout, unit)) {
+        return null;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DBException(e, "Interrupted while waiting for the async write queue.");
+    }
+    if (closed && queue.remove(item)) {
+      checkOpen();
+    }
+    return item.future;
+  }
+
+  /**
+   * 获取队列中等待写入的实体数量
+   *
+   * @return 实体数量
+   */
+  public int pending() {
+
+    return queue.size();
+  }
+
+  /**
+   * 是否已关闭？
+   *
+   * @return 如果已关闭，返回true，否则返回false
+   */
+  public boolean isClosed() {
+
+    return closed;
+  }
+
+  /**
+   * 停止接收新实体，等待队列中剩余的实体写入完毕
+   */
+  @Override
+  public void close() {
+
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    //后台线程退出后入队的实体
+    final List<Item<?>> rest = new ArrayList<>();
+    queue.drainTo(rest);
+    if (!rest.isEmpty()) {
+      flush(rest);
+    }
+    if (Thread.currentThread() != shutdownHook) {
+      try {
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+      } catch (IllegalStateException ignored) {
+        //JVM 正在退出
+      }
+    }
+  }
+
+  private void checkOpen() {
+
+    if (closed) {
+      throw new DBException("The async writer of DataSource {} has been closed.", dbTemplate.getDsName());
+    }
+  }
+
+  /**
+   * 后台线程：取到第一条记录后，继续等待至 batchSize 或超时，然后写入
+   */
+  private void run() {
+
+    final List<Item<?>> buffer = new ArrayList<>(batchSize);
+    while (true) {
+      try {
+        final Item<?> first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          if (closed) {
+            break;
+          }
+          continue;
+        }
+        buffer.add(first);
+        final long deadline = System.nanoTime() + lingerNanos;
+        while (buffer.size() < batchSize) {
+          if (queue.drainTo(buffer, batchSize - buffer.size()) > 0) {
+            continue;
+          }
+          final long remaining = deadline - System.nanoTime();
+          if (remaining <= 0L) {
+            break;
+          }
+          final Item<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          buffer.add(next);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        closed = true;
+      }
+      if (!buffer.isEmpty()) {
+        flush(buffer);
+        buffer.clear();
+      }
+      if (closed && queue.isEmpty()) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * 按实体类分组写入，保持各实体类内的提交顺序
+   */
+  private void flush(List<Item<?>> items) {
+
+    final Map<Class<?>, List<Item<?>>> groups = new LinkedHashMap<>();
+    for (Item<?> item : items) {
+      groups.computeIfAbsent(item.modelClass, k -> new ArrayList<>()).add(item);
+    }
+    groups.values().forEach(this::flushGroup);
+  }
+
+  /**
+   * 写入同一实体类的一组实体
+   */
+  @SuppressWarnings("unchecked")
+  private <TModel> void flushGroup(List<Item<?>> group) {
+
+    final List<Item<TModel>> items      = (List<Item<TModel>>) (List<?>) group;
+    final Class<TModel>      modelClass = items.get(0).modelClass;
+    final List<TModel>       entities   = items.stream().map(item -> item.entity).collect(Collectors.toList());
+    try {
+      DB.conn(dbTemplate).createPartition(modelClass, entities);
+      items.forEach(Item::complete);
+      return;
+    } catch (Throwable e) {
+      if (items.size() == 1 || !isDataError(e)) {
+        items.forEach(item -> item.fail(e));
+        return;
+      }
+      log.warn("Fail to write {} entities of {} in batch, retry one by one: {}", items.size(), modelClass.getName(), e.getMessage());
+    }
+
+    for (Item<TModel> item : items) {
+      try {
+        DB.conn(dbTemplate).createPartition(modelClass, Collections.singletonList(item.entity));
+        item.complete();
+      } catch (Throwable e) {
+        item.fail(e);
+      }
+    }
+  }
+
+  /**
+   * 是否为数据或约束错误（SQLState 22、23 类），只有这类错误逐条重试时能够区分出写入失败的实体
+   */
+  static boolean isDataError(Throwable e) {
+
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLIntegrityConstraintViolationException || cause instanceof SQLDataException) {
+        return true;
+      }
+      if (cause instanceof SQLException) {
+        for (SQLException ex = (SQLException) cause; ex != null; ex = ex.getNextException()) {
+          final String state = ex.getSQLState();
+          if (state != null && (state.startsWith("22") || state.startsWith("23"))) {
+            return true;
+          }
+        }
+      }
+      if (cause.getCause() == cause) {
+        break;
+      }
+    }
+    return false;
+  }
+
+  private static class Item<TModel> {
+
+    private final Class<TModel>             modelClass;
+    private final TModel                    entity;
+    private final CompletableFuture<TModel> future = new CompletableFuture<>();
+
+    private Item(Class<TModel> modelClass,
+        TModel entity) {
+
+      this.modelClass = modelClass;
+      this.entity = entity;
+    }
+
+    private void complete() {
+
+      future.complete(entity);
+    }
+
+    private void fail(Throwable cause) {
+
+      future.completeExceptionally(cause);
+    }
+  }
+
+}
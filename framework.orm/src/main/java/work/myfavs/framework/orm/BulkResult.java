@@ -0,0 +1,138 @@
+package work.myfavs.framework.orm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 并行批量写入结果，汇总各分区的影响行数与失败信息
+ * <p>
+ * 每个分区单独提交，失败的分区已回滚，不影响其他分区
+ *
+ * @author tanqimin
+ */
+public class BulkResult {
+
+  /**
+   * 影响行数
+   */
+  private final AtomicLong    affectedRows = new AtomicLong();
+  /**
+   * 成功的分区数量
+   */
+  private final AtomicInteger succeeded    = new AtomicInteger();
+  /**
+   * 失败的分区
+   */
+  private final List<Failure> failures     = Collections.synchronizedList(new ArrayList<>());
+
+  void succeed(int rows) {
+
+    affectedRows.addAndGet(rows);
+    succeeded.incrementAndGet();
+  }
+
+  void fail(Failure failure) {
+
+    failures.add(failure);
+  }
+
+  /**
+   * 获取成功分区的影响行数之和
+   *
+   * @return 影响行数
+   */
+  public long getAffectedRows() {
+
+    return affectedRows.get();
+  }
+
+  /**
+   * 获取成功的分区数量
+   *
+   * @return 成功的分区数量
+   */
+  public int getSucceeded() {
+
+    return succeeded.get();
+  }
+
+  /**
+   * 获取失败的分区
+   *
+   * @return 失败的分区
+   */
+  public List<Failure> getFailures() {
+
+    synchronized (failures) {
+      return new ArrayList<>(failures);
+    }
+  }
+
+  /**
+   * 是否所有分区都写入成功？
+   *
+   * @return 如果所有分区都写入成功，返回true，否则返回false
+   */
+  public boolean isSuccess() {
+
+    return failures.isEmpty();
+  }
+
+  /**
+   * 失败的分区
+   */
+  public static class Failure {
+
+    /**
+     * 分区序号，从 0 开始
+     */
+    private final int       partition;
+    /**
+     * 分区第一个实体在输入集合中的位置
+     */
+    private final int       fromIndex;
+    /**
+     * 分区的实体数量
+     */
+    private final int       size;
+    /**
+     * 异常
+     */
+    private final Throwable cause;
+
+    Failure(int partition,
+        int fromIndex,
+        int size,
+        Throwable cause) {
+
+      this.partition = partition;
+      this.fromIndex = fromIndex;
+      this.size = size;
+      this.cause = cause;
+    }
+
+    public int getPartition() {
+
+      return partition;
+    }
+
+    public int getFromIndex() {
+
+      return fromIndex;
+    }
+
+    public int getSize() {
+
+      return size;
+    }
+
+    public Throwable getCause() {
+
+      return cause;
+    }
+  }
+
+}
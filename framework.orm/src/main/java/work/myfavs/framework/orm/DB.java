@@ -1,7 +1,5 @@
 package work.myfavs.framework.orm;
 
-import cn.hutool.core.bean.BeanDesc.PropDesc;
-import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.util.ReflectUtil;
 import cn.hutool.core.util.StrUtil;
@@ -9,18 +7,38 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import work.myfavs.framework.orm.meta.ColumnVector;
 import work.myfavs.framework.orm.meta.DbType;
 import work.myfavs.framework.orm.meta.Record;
 import work.myfavs.framework.orm.meta.clause.Cond;
@@ -28,17 +46,27 @@ import work.myfavs.framework.orm.meta.clause.Sql;
 import work.myfavs.framework.orm.meta.dialect.IDialect;
 import work.myfavs.framework.orm.meta.dialect.TableAlias;
 import work.myfavs.framework.orm.meta.enumeration.GenerationType;
+import work.myfavs.framework.orm.meta.enumeration.UpdateStrategy;
+import work.myfavs.framework.orm.meta.handler.PropertyHandlerFactory;
+import work.myfavs.framework.orm.meta.pagination.Cursor;
 import work.myfavs.framework.orm.meta.pagination.IPageable;
 import work.myfavs.framework.orm.meta.pagination.Page;
 import work.myfavs.framework.orm.meta.pagination.PageLite;
+import work.myfavs.framework.orm.meta.pagination.Slice;
 import work.myfavs.framework.orm.meta.schema.Attribute;
 import work.myfavs.framework.orm.meta.schema.Attributes;
 import work.myfavs.framework.orm.meta.schema.ClassMeta;
 import work.myfavs.framework.orm.meta.schema.Metadata;
 import work.myfavs.framework.orm.util.DBUtil;
+import work.myfavs.framework.orm.util.DirtyTracker;
 import work.myfavs.framework.orm.util.SqlLog;
+import work.myfavs.framework.orm.util.common.CloseableIterator;
+import work.myfavs.framework.orm.util.common.LongKeyMap;
 import work.myfavs.framework.orm.util.convert.DBConvert;
+import work.myfavs.framework.orm.util.convert.ResultSetIterator;
 import work.myfavs.framework.orm.util.exception.DBException;
+import work.myfavs.framework.orm.util.func.BatchListener;
+import work.myfavs.framework.orm.util.func.ThrowingFunction;
 
 /**
  * 数据库操作对象
@@ -48,6 +76,19 @@ public class DB {
 
   private final static Logger log = LoggerFactory.getLogger(DB.class);
 
+  /**
+   * IN 条件每条语句的最大参数数量，过长的 IN 列表会增加数据库解析与生成执行计划的代价
+   */
+  private final static int MAX_IN_PARAMS = 1024;
+  /**
+   * 并行批量写入时每个分区包含的批次数量
+   */
+  private final static int PARTITION_BATCHES = 100;
+  /**
+   * 键集分页排序字段：[表别名.]字段 [ASC|DESC]
+   */
+  private final static Pattern P_ORDER_KEY = Pattern.compile("^\\s*(?:\\w+\\.)?(\\w+)(?:\\s+(ASC|DESC))?\\s*$", Pattern.CASE_INSENSITIVE);
+
   private DBTemplate dbTemplate;
 
   private DB(DBTemplate dbTemplate) {
@@ -109,6 +150,31 @@ public class DB {
     return dbTemplate.getDbConfig();
   }
 
+  /**
+   * 计算批量语句每条包含的行数：不超过 batchSize，且参数数量不超过数据库方言的限制
+   *
+   * @param paramsPerRow 每行的参数数量
+   * @param fixedParams  与行数无关的参数数量
+   * @return 每条语句的行数，至少为 1
+   */
+  private int rowsPerStatement(int paramsPerRow,
+      int fixedParams) {
+
+    return rowsPerStatement(getDialect().maxParameters(), getDBConfig().getBatchSize(), paramsPerRow, fixedParams);
+  }
+
+  static int rowsPerStatement(int maxParameters,
+      int batchSize,
+      int paramsPerRow,
+      int fixedParams) {
+
+    if (paramsPerRow <= 0) {
+      return batchSize;
+    }
+    final int maxRows = (maxParameters - fixedParams) / paramsPerRow;
+    return Math.max(1, Math.min(batchSize, maxRows));
+  }
+
   /**
    * 是否使用SQL Server数据库
    *
@@ -144,6 +210,9 @@ public class DB {
   public void close() {
 
     getConnFactory().closeConnection(getConnFactory().getCurrentConnection());
+    if (getConnFactory().getCurrentConnection() == null) {
+      this.dbTemplate.getDirtyTracker().commit();
+    }
   }
 
   /**
@@ -158,6 +227,7 @@ public class DB {
     } catch (SQLException e) {
       throw new DBException(e, "Fail to commit transaction, error message:");
     }
+    this.dbTemplate.getDirtyTracker().commit();
 
     log.debug("Transaction committed successfully.");
   }
@@ -173,6 +243,8 @@ public class DB {
           .rollback();
     } catch (SQLException e) {
       throw new DBException(e, "Fail to rollback transaction, error message:");
+    } finally {
+      this.dbTemplate.getDirtyTracker().rollback();
     }
 
     log.debug("The transaction rollback was successful.");
@@ -206,7 +278,15 @@ public class DB {
       pstmt.setFetchSize(getDBConfig().getFetchSize());
       rs = pstmt.executeQuery();
 
-      result = DBConvert.toList(viewClass, rs);
+      if (viewClass == Record.class && getDBConfig().getCompactRecord()) {
+        result = (List<TView>) DBConvert.toCompactRecord(rs);
+      } else {
+        result = DBConvert.toList(viewClass, rs, sql);
+        if (isTracked(viewClass)) {
+          final ClassMeta classMeta = Metadata.get(viewClass);
+          result.forEach(entity -> this.dbTemplate.getDirtyTracker().track(classMeta, entity));
+        }
+      }
     } catch (SQLException e) {
       throw new DBException(e);
     } finally {
@@ -272,6 +352,420 @@ public class DB {
     return this.find(Record.class, sql);
   }
 
+  /**
+   * 执行SQL，返回逐行读取结果集的迭代器，结果集不会一次性加载到内存
+   * <p>
+   * 由数据库方言配置流式读取，按 {@link DBConfig#getFetchSize()} 分批从数据库服务器读取。
+   * 迭代器持有数据库连接，读取到最后一行时自动关闭，否则必须在打开迭代器的线程中调用 {@link CloseableIterator#close()}
+   * <p>
+   * 迭代器使用当前线程绑定的数据库连接。MySQL 连接参数未开启 useCursorFetch=true 时，fetchSize 为 Integer.MIN_VALUE（逐行流式读取），
+   * 迭代器关闭前该连接不能执行其他语句：在循环中通过同一线程的 DB 查询或更新（如逐行读取并更新）会抛出
+   * "Streaming result set ... is still active" 异常。需要在循环中访问数据库时，在连接参数中开启 useCursorFetch=true，
+   * 或改用 {@link #findSlice(Class, String, Collection, String[], String, int)} 分批读取
+   *
+   * @param viewClass 结果集类型
+   * @param sql       SQL语句
+   * @param params    参数
+   * @param <TView>   结果集类型泛型
+   * @return 迭代器
+   */
+  public <TView> CloseableIterator<TView> iterate(Class<TView> viewClass,
+      String sql,
+      Collection params) {
+
+    Metadata.get(viewClass);
+
+    Connection        conn  = null;
+    PreparedStatement pstmt = null;
+    ResultSet         rs    = null;
+
+    getSqlLog().showSql(sql, params);
+
+    boolean autoCommit = false;
+
+    try {
+      conn       = this.open();
+      autoCommit = conn.getAutoCommit();
+      pstmt      = DBUtil.getPstForQuery(conn, sql, params);
+      getDialect().configureStreaming(conn, pstmt, getDBConfig().getFetchSize());
+      rs = pstmt.executeQuery();
+
+      final ThrowingFunction<ResultSet, TView, SQLException> converter = rowConverter(viewClass, rs, sql);
+
+      final Connection current = conn;
+      final boolean    restore = autoCommit;
+      return new ResultSetIterator<>(pstmt, rs, converter, () -> releaseStreaming(current, restore));
+    } catch (SQLException | RuntimeException e) {
+      DBUtil.close(pstmt, rs);
+      if (conn != null) {
+        releaseStreaming(conn, autoCommit);
+      }
+      throw e instanceof DBException ? (DBException) e : new DBException(e);
+    }
+  }
+
+  /**
+   * 创建行转换器，启用紧凑型Record时，Record 使用紧凑型行转换器
+   *
+   * @param viewClass 结果集类型
+   * @param rs        ResultSet
+   * @param sql       SQL语句
+   * @param <TView>   结果集类型泛型
+   * @return 行转换器
+   * @throws SQLException SQLException
+   */
+  private <TView> ThrowingFunction<ResultSet, TView, SQLException> rowConverter(Class<TView> viewClass,
+      ResultSet rs,
+      String sql)
+      throws SQLException {
+
+    if (viewClass == Record.class && getDBConfig().getCompactRecord()) {
+      return (ThrowingFunction<ResultSet, TView, SQLException>) (Object) DBConvert.compactRecordConverter(rs);
+    }
+    final ThrowingFunction<ResultSet, TView, SQLException> converter = DBConvert.rowConverter(viewClass, rs, sql);
+    if (!isTracked(viewClass)) {
+      return converter;
+    }
+    final ClassMeta    classMeta = Metadata.get(viewClass);
+    final DirtyTracker tracker   = this.dbTemplate.getDirtyTracker();
+    return row -> {
+      final TView entity = converter.apply(row);
+      tracker.track(classMeta, entity);
+      return entity;
+    };
+  }
+
+  /**
+   * 查询结果是否需要跟踪修改：开启跟踪且结果集类型为有主键的实体
+   *
+   * @param viewClass 结果集类型
+   * @return 是否需要跟踪修改
+   */
+  private boolean isTracked(Class<?> viewClass) {
+
+    return getDBConfig().getDirtyTracking()
+        && !Map.class.isAssignableFrom(viewClass)
+        && Metadata.get(viewClass).getPrimaryKey() != null;
+  }
+
+  /**
+   * 流式读取结束后恢复连接的自动提交状态，并释放数据库连接
+   *
+   * @param conn       数据库连接
+   * @param autoCommit 流式读取前的自动提交状态
+   */
+  private void releaseStreaming(Connection conn,
+      boolean autoCommit) {
+
+    try {
+      if (autoCommit && !conn.getAutoCommit()) {
+        conn.setAutoCommit(true);
+      }
+    } catch (SQLException e) {
+      throw new DBException(e, "Fail to restore auto commit, error message:");
+    } finally {
+      getConnFactory().closeConnection(conn);
+    }
+  }
+
+  /**
+   * 执行SQL，返回逐行读取结果集的迭代器，结果集不会一次性加载到内存；
+   * 迭代器关闭前同一线程不能执行其他语句的限制见 {@link #iterate(Class, String, Collection)}
+   *
+   * @param viewClass 结果集类型
+   * @param sql       SQL
+   * @param <TView>   结果集类型泛型
+   * @return 迭代器
+   */
+  public <TView> CloseableIterator<TView> iterate(Class<TView> viewClass,
+      Sql sql) {
+
+    return this.iterate(viewClass, sql.getSqlString(), sql.getParams());
+  }
+
+  /**
+   * 执行SQL，返回逐行读取结果集的 Stream，结果集不会一次性加载到内存
+   * <p>
+   * Stream 持有数据库连接，必须在打开 Stream 的线程中关闭，建议使用 try-with-resources；
+   * Stream 关闭前同一线程不能执行其他语句的限制见 {@link #iterate(Class, String, Collection)}
+   *
+   * @param viewClass 结果集类型
+   * @param sql       SQL语句
+   * @param params    参数
+   * @param <TView>   结果集类型泛型
+   * @return Stream
+   */
+  public <TView> Stream<TView> stream(Class<TView> viewClass,
+      String sql,
+      Collection params) {
+
+    final CloseableIterator<TView> iterator = this.iterate(viewClass, sql, params);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+        .onClose(iterator::close);
+  }
+
+  /**
+   * 执行SQL，返回逐行读取结果集的 Stream，结果集不会一次性加载到内存；
+   * Stream 关闭前同一线程不能执行其他语句的限制见 {@link #iterate(Class, String, Collection)}
+   *
+   * @param viewClass 结果集类型
+   * @param sql       SQL
+   * @param <TView>   结果集类型泛型
+   * @return Stream
+   */
+  public <TView> Stream<TView> stream(Class<TView> viewClass,
+      Sql sql) {
+
+    return this.stream(viewClass, sql.getSqlString(), sql.getParams());
+  }
+
+  /**
+   * 执行SQL，把第一列读取为long数组，值为 NULL 的行使用 nullValue 代替，并记录在 nulls 中
+   *
+   * @param sql       SQL语句
+   * @param params    参数
+   * @param nullValue 值为 NULL 时使用的值
+   * @param nulls     值为 NULL 的行，为 null 时不记录
+   * @return long数组
+   */
+  public long[] findLongs(String sql,
+      Collection params,
+      long nullValue,
+      BitSet nulls) {
+
+    return this.query(sql, params, rs -> DBConvert.toLongs(rs, nullValue, nulls));
+  }
+
+  /**
+   * 执行SQL，把第一列读取为long数组，值为 NULL 的行使用 nullValue 代替
+   *
+   * @param sql       SQL
+   * @param nullValue 值为 NULL 时使用的值
+   * @return long数组
+   */
+  public long[] findLongs(Sql sql,
+      long nullValue) {
+
+    return this.findLongs(sql.getSqlString(), sql.getParams(), nullValue, null);
+  }
+
+  /**
+   * 执行SQL，把第一列读取为long数组，值为 NULL 的行为 0
+   *
+   * @param sql    SQL语句
+   * @param params 参数
+   * @return long数组
+   */
+  public long[] findLongs(String sql,
+      Collection params) {
+
+    return this.findLongs(sql, params, 0L, null);
+  }
+
+  /**
+   * 执行SQL，把第一列读取为long数组，值为 NULL 的行为 0
+   *
+   * @param sql SQL
+   * @return long数组
+   */
+  public long[] findLongs(Sql sql) {
+
+    return this.findLongs(sql.getSqlString(), sql.getParams());
+  }
+
+  /**
+   * 执行SQL，把第一列读取为int数组，值为 NULL 的行使用 nullValue 代替，并记录在 nulls 中
+   *
+   * @param sql       SQL语句
+   * @param params    参数
+   * @param nullValue 值为 NULL 时使用的值
+   * @param nulls     值为 NULL 的行，为 null 时不记录
+   * @return int数组
+   */
+  public int[] findInts(String sql,
+      Collection params,
+      int nullValue,
+      BitSet nulls) {
+
+    return this.query(sql, params, rs -> DBConvert.toInts(rs, nullValue, nulls));
+  }
+
+  /**
+   * 执行SQL，把第一列读取为int数组，值为 NULL 的行使用 nullValue 代替
+   *
+   * @param sql       SQL
+   * @param nullValue 值为 NULL 时使用的值
+   * @return int数组
+   */
+  public int[] findInts(Sql sql,
+      int nullValue) {
+
+    return this.findInts(sql.getSqlString(), sql.getParams(), nullValue, null);
+  }
+
+  /**
+   * 执行SQL，把第一列读取为int数组，值为 NULL 的行为 0
+   *
+   * @param sql    SQL语句
+   * @param params 参数
+   * @return int数组
+   */
+  public int[] findInts(String sql,
+      Collection params) {
+
+    return this.findInts(sql, params, 0, null);
+  }
+
+  /**
+   * 执行SQL，把第一列读取为int数组，值为 NULL 的行为 0
+   *
+   * @param sql SQL
+   * @return int数组
+   */
+  public int[] findInts(Sql sql) {
+
+    return this.findInts(sql.getSqlString(), sql.getParams());
+  }
+
+  /**
+   * 执行SQL，把第一列读取为double数组，值为 NULL 的行使用 nullValue 代替，并记录在 nulls 中
+   *
+   * @param sql       SQL语句
+   * @param params    参数
+   * @param nullValue 值为 NULL 时使用的值
+   * @param nulls     值为 NULL 的行，为 null 时不记录
+   * @return double数组
+   */
+  public double[] findDoubles(String sql,
+      Collection params,
+      double nullValue,
+      BitSet nulls) {
+
+    return this.query(sql, params, rs -> DBConvert.toDoubles(rs, nullValue, nulls));
+  }
+
+  /**
+   * 执行SQL，把第一列读取为double数组，值为 NULL 的行使用 nullValue 代替
+   *
+   * @param sql       SQL
+   * @param nullValue 值为 NULL 时使用的值
+   * @return double数组
+   */
+  public double[] findDoubles(Sql sql,
+      double nullValue) {
+
+    return this.findDoubles(sql.getSqlString(), sql.getParams(), nullValue, null);
+  }
+
+  /**
+   * 执行SQL，把第一列读取为double数组，值为 NULL 的行为 0
+   *
+   * @param sql    SQL语句
+   * @param params 参数
+   * @return double数组
+   */
+  public double[] findDoubles(String sql,
+      Collection params) {
+
+    return this.findDoubles(sql, params, 0D, null);
+  }
+
+  /**
+   * 执行SQL，把第一列读取为double数组，值为 NULL 的行为 0
+   *
+   * @param sql SQL
+   * @return double数组
+   */
+  public double[] findDoubles(Sql sql) {
+
+    return this.findDoubles(sql.getSqlString(), sql.getParams());
+  }
+
+  /**
+   * 执行SQL，把每一列读取为基本类型数组，查询结果只能包含整数及浮点数列，包含 DECIMAL、NUMERIC 列时抛出异常
+   *
+   * @param sql    SQL语句
+   * @param params 参数
+   * @return 列名 - 列数据，按查询结果的列顺序排列
+   */
+  public Map<String, ColumnVector> findColumns(String sql,
+      Collection params) {
+
+    return this.findColumns(sql, params, false);
+  }
+
+  /**
+   * 执行SQL，把每一列读取为基本类型数组，查询结果只能包含数值列
+   *
+   * @param sql             SQL语句
+   * @param params          参数
+   * @param decimalAsDouble 是否把 DECIMAL、NUMERIC 列读取为 double 数组，读取会丢失精度，为 false 时遇到这类列抛出异常
+   * @return 列名 - 列数据，按查询结果的列顺序排列
+   */
+  public Map<String, ColumnVector> findColumns(String sql,
+      Collection params,
+      boolean decimalAsDouble) {
+
+    return this.query(sql, params, rs -> DBConvert.toColumns(rs, decimalAsDouble));
+  }
+
+  /**
+   * 执行SQL，把每一列读取为基本类型数组，查询结果只能包含整数及浮点数列，包含 DECIMAL、NUMERIC 列时抛出异常
+   *
+   * @param sql SQL
+   * @return 列名 - 列数据，按查询结果的列顺序排列
+   */
+  public Map<String, ColumnVector> findColumns(Sql sql) {
+
+    return this.findColumns(sql.getSqlString(), sql.getParams());
+  }
+
+  /**
+   * 执行SQL，把每一列读取为基本类型数组，查询结果只能包含数值列
+   *
+   * @param sql             SQL
+   * @param decimalAsDouble 是否把 DECIMAL、NUMERIC 列读取为 double 数组，读取会丢失精度，为 false 时遇到这类列抛出异常
+   * @return 列名 - 列数据，按查询结果的列顺序排列
+   */
+  public Map<String, ColumnVector> findColumns(Sql sql,
+      boolean decimalAsDouble) {
+
+    return this.findColumns(sql.getSqlString(), sql.getParams(), decimalAsDouble);
+  }
+
+  /**
+   * 执行SQL，并使用 reader 读取结果集
+   *
+   * @param sql    SQL语句
+   * @param params 参数
+   * @param reader 结果集读取方法
+   * @param <R>    返回类型
+   * @return reader 的返回值
+   */
+  private <R> R query(String sql,
+      Collection params,
+      ThrowingFunction<ResultSet, R, SQLException> reader) {
+
+    Connection        conn  = null;
+    PreparedStatement pstmt = null;
+    ResultSet         rs    = null;
+
+    getSqlLog().showSql(sql, params);
+
+    try {
+      conn  = this.open();
+      pstmt = DBUtil.getPstForQuery(conn, sql, params);
+      pstmt.setFetchSize(getDBConfig().getFetchSize());
+      rs = pstmt.executeQuery();
+      return reader.apply(rs);
+    } catch (SQLException e) {
+      throw new DBException(e);
+    } finally {
+      DBUtil.close(pstmt, rs);
+      this.close();
+    }
+  }
+
   /**
    * 执行SQL，并返回Map
    *
@@ -285,13 +779,22 @@ public class DB {
   public <TKey, TView> Map<TKey, TView> findMap(Class<TView> viewClass,
       String keyField, String sql,
       Collection params) {
-    final PropDesc prop = BeanUtil.getBeanDesc(viewClass).getProp(keyField);
-    if (prop == null) {
-      throw new DBException("Class {} not exist Prop named {}", viewClass.getName(), keyField);
-    }
 
-    return this.find(viewClass, sql, params).parallelStream()
-        .collect(Collectors.toMap(tView -> BeanUtil.getProperty(tView, keyField), tView -> tView));
+    final Function<TView, Object> keyAccessor = Metadata.getAccessor(viewClass, keyField);
+
+    return this.query(sql, params, rs -> {
+      final ThrowingFunction<ResultSet, TView, SQLException> converter = rowConverter(viewClass, rs, sql);
+      final Map<TKey, TView>                                 result    = new HashMap<>();
+      while (rs.next()) {
+        final TView tView = converter.apply(rs);
+        final TKey  key   = (TKey) keyAccessor.apply(tView);
+        if (result.putIfAbsent(key, tView) != null) {
+          throw new DBException("Duplicate key {} of field {}", key, keyField);
+        }
+      }
+      getSqlLog().showResult(result.values());
+      return result;
+    });
   }
 
   /**
@@ -308,6 +811,99 @@ public class DB {
     return findMap(viewClass, keyField, sql.getSqlString(), sql.getParams());
   }
 
+  /**
+   * 执行SQL，并返回以 long 为 Key 的Map，Key 不装箱，适用于雪花ID、自增ID等数值主键
+   *
+   * @param viewClass 结果集类型
+   * @param keyField  返回Map的Key的字段，必须是viewClass中存在的数值字段，且值不为 null
+   * @param sql       SQL语句
+   * @param params    SQL参数
+   * @param <TView>   结果集类型泛型
+   * @return Map
+   */
+  public <TView> LongKeyMap<TView> findLongMap(Class<TView> viewClass,
+      String keyField, String sql,
+      Collection params) {
+
+    final Function<TView, Object> keyAccessor = Metadata.getAccessor(viewClass, keyField);
+
+    return this.query(sql, params, rs -> {
+      final ThrowingFunction<ResultSet, TView, SQLException> converter = rowConverter(viewClass, rs, sql);
+      final LongKeyMap<TView>                                result    = new LongKeyMap<>();
+      while (rs.next()) {
+        final TView  tView = converter.apply(rs);
+        final Object key   = keyAccessor.apply(tView);
+        if (!(key instanceof Number)) {
+          throw new DBException("The value of field {} must be a number not null, but was {}", keyField, key);
+        }
+        if (result.put(((Number) key).longValue(), tView) != null) {
+          throw new DBException("Duplicate key {} of field {}", key, keyField);
+        }
+      }
+      getSqlLog().showResult(result.values());
+      return result;
+    });
+  }
+
+  /**
+   * 执行SQL，并返回以 long 为 Key 的Map，Key 不装箱，适用于雪花ID、自增ID等数值主键
+   *
+   * @param viewClass 结果集类型
+   * @param keyField  返回Map的Key的字段，必须是viewClass中存在的数值字段，且值不为 null
+   * @param sql       SQL
+   * @param <TView>   结果集类型泛型
+   * @return Map
+   */
+  public <TView> LongKeyMap<TView> findLongMap(Class<TView> viewClass,
+      String keyField, Sql sql) {
+    return findLongMap(viewClass, keyField, sql.getSqlString(), sql.getParams());
+  }
+
+  /**
+   * 执行SQL，并按指定字段分组，返回一对多的Map，组内记录保持查询顺序
+   *
+   * @param viewClass 结果集类型
+   * @param keyField  分组字段，必须是viewClass中存在的字段
+   * @param sql       SQL语句
+   * @param params    SQL参数
+   * @param <TKey>    分组字段类型
+   * @param <TView>   结果集类型泛型
+   * @return Map
+   */
+  public <TKey, TView> Map<TKey, List<TView>> findGroup(Class<TView> viewClass,
+      String keyField, String sql,
+      Collection params) {
+
+    final Function<TView, Object> keyAccessor = Metadata.getAccessor(viewClass, keyField);
+
+    return this.query(sql, params, rs -> {
+      final ThrowingFunction<ResultSet, TView, SQLException> converter = rowConverter(viewClass, rs, sql);
+      final Map<TKey, List<TView>>                           result    = new LinkedHashMap<>();
+      while (rs.next()) {
+        final TView tView = converter.apply(rs);
+        result.computeIfAbsent((TKey) keyAccessor.apply(tView), key -> new ArrayList<>())
+            .add(tView);
+      }
+      getSqlLog().showResult(result.values());
+      return result;
+    });
+  }
+
+  /**
+   * 执行SQL，并按指定字段分组，返回一对多的Map，组内记录保持查询顺序
+   *
+   * @param viewClass 结果集类型
+   * @param keyField  分组字段，必须是viewClass中存在的字段
+   * @param sql       SQL
+   * @param <TKey>    分组字段类型
+   * @param <TView>   结果集类型泛型
+   * @return Map
+   */
+  public <TKey, TView> Map<TKey, List<TView>> findGroup(Class<TView> viewClass,
+      String keyField, Sql sql) {
+    return findGroup(viewClass, keyField, sql.getSqlString(), sql.getParams());
+  }
+
   /**
    * 执行SQL，返回指定行数的结果集
    *
@@ -529,15 +1125,96 @@ public class DB {
    * @param <TView>   实体类型
    * @return 实体集合
    */
-  public <TView> List<TView> findByIds(Class<TView> viewClass,
-      Collection ids) {
+  public <TView> List<TView> findByIds(Class<TView> viewClass,
+      Collection ids) {
+
+    return this.findByIds(viewClass, ids, false);
+  }
+
+  /**
+   * 根据多个主键ID查询实体集合
+   * <p>
+   * 主键ID按数据库方言的参数数量限制拆分为多条语句，在同一个事务中执行后合并结果
+   *
+   * @param viewClass 结果类型
+   * @param ids       主键ID集合
+   * @param keepOrder 是否按主键ID集合的顺序返回实体
+   * @param <TView>   实体类型
+   * @return 实体集合
+   */
+  public <TView> List<TView> findByIds(Class<TView> viewClass,
+      Collection ids,
+      boolean keepOrder) {
+
+    final ClassMeta          classMeta  = Metadata.get(viewClass);
+    final Attribute          primaryKey = classMeta.checkPrimaryKey();
+    final List<List<Object>> chunks     = splitIds(ids, 0);
+    if (chunks.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    final Function<DB, List<TView>> func = db -> {
+      final List<TView> result = new ArrayList<>();
+      for (List<Object> chunk : chunks) {
+        Sql sql = db.getDialect().select(viewClass)
+            .where().and(db.getDialect().in(primaryKey.getColumnName(), chunk))
+            .and(Cond.logicalDeleteCond(classMeta));
+        result.addAll(db.find(viewClass, sql));
+      }
+      return result;
+    };
+
+    final List<TView> result = chunks.size() == 1 ? func.apply(this) : this.tx(func);
+    return keepOrder ? sortByIds(primaryKey, chunks, result) : result;
+  }
+
+  /**
+   * 去除主键ID集合中的空值与重复值，并按数据库方言的参数数量限制拆分
+   *
+   * @param ids         主键ID集合
+   * @param fixedParams 语句中与主键ID无关的参数数量
+   * @return 拆分后的主键ID集合
+   */
+  private List<List<Object>> splitIds(Collection ids,
+      int fixedParams) {
+
+    if (CollectionUtil.isEmpty(ids)) {
+      return Collections.emptyList();
+    }
+
+    final Set<Object> distinct = new LinkedHashSet<>(ids.size() * 4 / 3 + 1);
+    for (Object id : ids) {
+      if (!StrUtil.isBlankIfStr(id)) {
+        distinct.add(id);
+      }
+    }
+
+    final int size = Math.max(1, Math.min(MAX_IN_PARAMS, getDialect().maxParameters() - fixedParams));
+    return CollectionUtil.split(distinct, size);
+  }
+
+  /**
+   * 按主键ID集合的顺序排列实体，主键值按字符串比较，避免 Integer 与 Long 等类型不一致
+   */
+  private <TView> List<TView> sortByIds(Attribute primaryKey,
+      List<List<Object>> chunks,
+      List<TView> entities) {
 
-    ClassMeta classMeta  = Metadata.get(viewClass);
-    Attribute primaryKey = classMeta.checkPrimaryKey();
-    Sql sql = this.getDialect().select(viewClass)
-        .where().and(Cond.in(primaryKey.getColumnName(), ids, false))
-        .and(Cond.logicalDeleteCond(classMeta));
-    return this.find(viewClass, sql);
+    final Map<String, TView> map = new HashMap<>(entities.size() * 4 / 3 + 1);
+    for (TView entity : entities) {
+      map.put(String.valueOf(primaryKey.getValue(entity)), entity);
+    }
+
+    final List<TView> result = new ArrayList<>(entities.size());
+    for (List<Object> chunk : chunks) {
+      for (Object id : chunk) {
+        final TView entity = map.get(String.valueOf(id));
+        if (entity != null) {
+          result.add(entity);
+        }
+      }
+    }
+    return result;
   }
 
   /**
@@ -573,7 +1250,7 @@ public class DB {
       Collection params) {
 
     Sql sql = this.getDialect().select(viewClass)
-        .where().and(Cond.in(field, params, false))
+        .where().and(this.getDialect().in(field, params))
         .and(Cond.logicalDeleteCond(Metadata.get(viewClass)));
     return this.find(viewClass, sql);
   }
@@ -876,6 +1553,149 @@ public class DB {
     return this.findPageLite(Record.class, sql, pageable);
   }
 
+  /**
+   * 执行 SQL 语句，返回键集分页（seek）结果：按排序字段定位到游标之后读取 size 条记录，不计算总记录数，
+   * 读取深层页面时不需要扫描并丢弃前面的记录
+   * <p>
+   * 排序字段为结果集中的字段名，可以带表别名及 ASC/DESC（所有字段方向必须一致），组合起来必须唯一（通常以主键结尾），
+   * 不能为空，并且应该有对应的索引；sql 最外层的 ORDER BY 子句会被移除
+   *
+   * @param viewClass   返回的数据类型
+   * @param sql         SQL语句
+   * @param params      参数
+   * @param orderKeys   排序字段
+   * @param afterCursor 上一页返回的游标 {@link Slice#getNextCursor()}，为空时返回第一页
+   * @param size        每页记录数
+   * @param <TView>     结果类型泛型
+   * @return 键集分页结果
+   */
+  public <TView> Slice<TView> findSlice(Class<TView> viewClass,
+      String sql,
+      Collection params,
+      String[] orderKeys,
+      String afterCursor,
+      int size) {
+
+    if (orderKeys == null || orderKeys.length == 0) {
+      throw new DBException("键集分页必须指定排序字段 (orderKeys)");
+    }
+    if (size < 1) {
+      throw new DBException("每页记录数 (size) 参数必须大于等于 1");
+    }
+    long maxPageSize = this.getDBConfig().getMaxPageSize();
+    if (maxPageSize > 0L && size > maxPageSize) {
+      throw new DBException("每页记录数不能超出系统设置的最大记录数 {}", maxPageSize);
+    }
+
+    final String[] columns    = new String[orderKeys.length];
+    Boolean        descending = null;
+    for (int i = 0; i < orderKeys.length; i++) {
+      final Matcher matcher = P_ORDER_KEY.matcher(orderKeys[i]);
+      if (!matcher.matches()) {
+        throw new DBException("无效的排序字段：{}", orderKeys[i]);
+      }
+      final boolean desc = "DESC".equalsIgnoreCase(matcher.group(2));
+      if (descending != null && descending != desc) {
+        throw new DBException("键集分页的所有排序字段方向必须一致");
+      }
+      descending = desc;
+      columns[i] = matcher.group(1);
+    }
+    checkKeyTypes(viewClass, columns);
+
+    Object[] after = null;
+    if (StrUtil.isNotEmpty(afterCursor)) {
+      after = Cursor.decode(afterCursor);
+      if (after.length != columns.length) {
+        throw new DBException("无效的游标：{}", afterCursor);
+      }
+    }
+
+    final Sql         querySql = getDialect().selectSlice(sql, params, columns, descending, after, size + 1);
+    final List<TView> data     = this.find(viewClass, querySql);
+    if (data.size() <= size) {
+      return Slice.createInstance(data, size, null);
+    }
+
+    final List<TView> page   = new ArrayList<>(data.subList(0, size));
+    final TView       last   = page.get(size - 1);
+    final Object[]    values = new Object[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      values[i] = keyValue(last, columns[i]);
+      if (values[i] == null) {
+        throw new DBException("键集分页的排序字段 {} 的值不能为空", columns[i]);
+      }
+    }
+    return Slice.createInstance(page, size, Cursor.encode(values));
+  }
+
+  /**
+   * 执行 SQL 语句，返回键集分页（seek）结果
+   *
+   * @param viewClass   返回的数据类型
+   * @param sql         SQL
+   * @param orderKeys   排序字段
+   * @param afterCursor 上一页返回的游标，为空时返回第一页
+   * @param size        每页记录数
+   * @param <TView>     结果类型泛型
+   * @return 键集分页结果
+   */
+  public <TView> Slice<TView> findSlice(Class<TView> viewClass,
+      Sql sql,
+      String[] orderKeys,
+      String afterCursor,
+      int size) {
+
+    return this.findSlice(viewClass, sql.getSqlString(), sql.getParams(), orderKeys, afterCursor, size);
+  }
+
+  /**
+   * 在查询前检查实体的排序字段是否存在及其类型能否编码为游标；Map 类型的结果在读取后检查
+   */
+  private static void checkKeyTypes(Class<?> viewClass,
+      String[] columns) {
+
+    if (Map.class.isAssignableFrom(viewClass)) {
+      return;
+    }
+    final Attributes attributes = Metadata.get(viewClass).getQueryAttributes();
+    for (String column : columns) {
+      final Attribute attribute = attributes.getAttribute(column);
+      if (attribute == null) {
+        throw new DBException("排序字段 {} 不是 {} 的查询字段", column, viewClass.getName());
+      }
+      if (!Cursor.isSupported(attribute.getFieldType())) {
+        throw new DBException("排序字段 {} 的类型 {} 不能作为游标", column, attribute.getFieldType().getName());
+      }
+    }
+  }
+
+  /**
+   * 获取一行记录中排序字段的值：Map 按字段名（忽略大小写）读取，实体按查询字段读取
+   */
+  private static Object keyValue(Object row,
+      String column) {
+
+    if (row instanceof Map) {
+      final Map<?, ?> map = (Map<?, ?>) row;
+      if (map.containsKey(column)) {
+        return map.get(column);
+      }
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        if (column.equalsIgnoreCase(String.valueOf(entry.getKey()))) {
+          return entry.getValue();
+        }
+      }
+      throw new DBException("查询结果中不存在排序字段 {}", column);
+    }
+
+    final Attribute attribute = Metadata.get(row.getClass()).getQueryAttributes().getAttribute(column);
+    if (attribute == null) {
+      throw new DBException("排序字段 {} 不是 {} 的查询字段", column, row.getClass().getName());
+    }
+    return attribute.getValue(row);
+  }
+
   /**
    * 执行 SQL 语句，返回分页结果集
    *
@@ -1099,341 +1919,779 @@ public class DB {
   }
 
   /**
-   * 执行一个SQL语句
+   * 执行一个SQL语句
+   *
+   * @param sql SQL
+   * @return 影响行数
+   */
+  public int execute(Sql sql) {
+
+    return this.execute(sql.getSqlString(), sql.getParams());
+  }
+
+  /**
+   * 执行多个SQL语句
+   *
+   * @param sqlList SQL集合
+   * @return 返回多个影响行数
+   */
+  public int[] execute(List<Sql> sqlList) {
+    int   sqlCnt  = sqlList.size();
+    int[] results = new int[sqlCnt];
+
+    return tx(db -> {
+      for (int i = 0;
+          i < sqlCnt;
+          i++) {
+        results[i] = execute(sqlList.get(i));
+      }
+      return results;
+    });
+  }
+
+  /**
+   * 创建实体
+   *
+   * @param modelClass 实体类型
+   * @param entity     实体
+   * @param <TModel>   实体类型泛型
+   * @return 影响行数
+   */
+  public <TModel> int create(Class<TModel> modelClass,
+      TModel entity) {
+
+    int result = 0;
+    if (entity == null) {
+      return result;
+    }
+
+    ClassMeta      classMeta       = Metadata.get(modelClass);
+    Attribute      primaryKey      = classMeta.checkPrimaryKey();
+    String         pkFieldName     = primaryKey.getFieldName();
+    boolean        autoGeneratedPK = classMeta.getStrategy() == GenerationType.IDENTITY;
+
+    Sql               sql   = null;
+    Connection        conn  = null;
+    PreparedStatement pstmt = null;
+    ResultSet         rs    = null;
+
+    generatePk(classMeta, entity);
+    sql = getDialect().insert(modelClass, entity);
+
+    try {
+      getSqlLog().showSql(sql.getSqlString(), sql.getParams());
+
+      conn   = this.open();
+      pstmt  = DBUtil.getPstForUpdate(conn, autoGeneratedPK, sql.getSqlString(), sql.getParams());
+      result = DBUtil.executeUpdate(pstmt);
+
+      getSqlLog().showAffectedRows(result);
+
+      if (autoGeneratedPK) {
+        rs = pstmt.getGeneratedKeys();
+        if (rs.next()) {
+          ReflectUtil.setFieldValue(entity, pkFieldName, rs.getObject(1));
+        }
+      }
+    } catch (Exception ex) {
+      throw new DBException(ex);
+    } finally {
+      DBUtil.close(pstmt, rs);
+      this.close();
+    }
+
+    return result;
+  }
+
+  public long snowFlakeId() {
+    return dbTemplate.getPkGenerator().nextSnowFakeId();
+  }
+
+  /**
+   * 实体主键为空时按主键策略生成主键值并回写到实体：ASSIGNED 不允许为空，IDENTITY 由数据库生成，保持为空
+   *
+   * @param classMeta 类元数据
+   * @param entity    实体
+   * @return 主键值
+   */
+  private Object generatePk(ClassMeta classMeta,
+      Object entity) {
+
+    final Attribute      primaryKey = classMeta.checkPrimaryKey();
+    final GenerationType strategy   = classMeta.getStrategy();
+    Object               pkVal      = primaryKey.getValue(entity);
+    if (pkVal != null || strategy == GenerationType.IDENTITY) {
+      return pkVal;
+    }
+
+    if (strategy == GenerationType.ASSIGNED) {
+      throw new DBException("Assigned ID can not be null.");
+    } else if (strategy == GenerationType.UUID) {
+      pkVal = uuid();
+    } else if (strategy == GenerationType.UUID_V7) {
+      pkVal = uuidV7(primaryKey);
+    } else if (strategy == GenerationType.SEQUENCE) {
+      pkVal = sequenceIds(classMeta, 1)[0];
+    } else if (strategy == GenerationType.SNOW_FLAKE) {
+      pkVal = snowFlakeId();
+    }
+    primaryKey.setValue(entity, pkVal);
+    return pkVal;
+  }
+
+  /**
+   * 为主键为空的实体一次性分配雪花或序列主键，避免批量创建时逐条生成
+   *
+   * @param classMeta 类元数据
+   * @param entities  实体集合
+   */
+  private void generateIds(ClassMeta classMeta,
+      Collection<?> entities) {
+
+    final GenerationType strategy = classMeta.getStrategy();
+    if (strategy != GenerationType.SNOW_FLAKE && strategy != GenerationType.SEQUENCE) {
+      return;
+    }
+    final Attribute primaryKey = classMeta.checkPrimaryKey();
+    final List<Object> pending = new ArrayList<>();
+    for (Object entity : entities) {
+      if (primaryKey.getValue(entity) == null) {
+        pending.add(entity);
+      }
+    }
+    if (pending.isEmpty()) {
+      return;
+    }
+    final long[] ids = strategy == GenerationType.SNOW_FLAKE
+        ? dbTemplate.getPkGenerator().nextIds(pending.size())
+        : sequenceIds(classMeta, pending.size());
+    for (int i = 0; i < ids.length; i++) {
+      primaryKey.setValue(pending.get(i), ids[i]);
+    }
+  }
+
+  /**
+   * 从实体类的序列分配 n 个主键
+   *
+   * @param classMeta 类元数据
+   * @param n         数量
+   * @return 主键值
+   */
+  private long[] sequenceIds(ClassMeta classMeta,
+      int n) {
+
+    final String sequenceName = classMeta.getSequenceName();
+    return dbTemplate.getPkGenerator().nextSequenceIds(sequenceName, classMeta.getAllocationSize(), n,
+        () -> nextHi(sequenceName));
+  }
+
+  /**
+   * 获取序列的下一个高位值，不随当前事务回滚：当前线程的连接为自动提交时直接使用该连接，
+   * 否则从数据源另取一个自动提交连接，此时每个线程同时占用两个连接，连接池应预留余量
+   * （如 {@link #createParallel(Class, Collection)} 的并行度及异步写入线程）
+   *
+   * @param sequenceName 序列名称
+   * @return 高位值
+   */
+  private long nextHi(String sequenceName) {
+
+    final Connection current = getConnFactory().getCurrentConnection();
+    try {
+      if (current != null && current.getAutoCommit()) {
+        return reserveHi(current, sequenceName);
+      }
+    } catch (SQLException e) {
+      throw new DBException(e, "Fail to get next value of sequence {}, error message:", sequenceName);
+    }
+
+    try (Connection conn = dbTemplate.getDataSource().getConnection()) {
+      if (!conn.getAutoCommit()) {
+        conn.setAutoCommit(true);
+      }
+      return reserveHi(conn, sequenceName);
+    } catch (SQLException e) {
+      throw new DBException(e, "Fail to get next value of sequence {}, error message:", sequenceName);
+    }
+  }
+
+  private long reserveHi(Connection conn,
+      String sequenceName)
+      throws SQLException {
+
+    final long hi = getDialect().nextHi(conn, sequenceName);
+    log.debug("Reserved hi value {} of sequence {}.", hi, sequenceName);
+    return hi;
+  }
+
+
+  /**
+   * 批量创建实体
+   *
+   * @param modelClass 实体类型
+   * @param entities   实体集合
+   * @param <TModel>   实体类型泛型
+   * @return 影响行数
+   */
+  public <TModel> int create(Class<TModel> modelClass,
+      Collection<TModel> entities) {
+    if (CollectionUtil.isEmpty(entities)) {
+      return 0;
+    }
+
+    final ClassMeta classMeta = Metadata.get(modelClass);
+    /*
+     * MySQL 使用多行插入语句，其他数据库使用 JDBC 批处理；自增主键使用 JDBC 批处理并回写主键，
+     * SQL Server 批量保存时不能返回自增主键，逐条执行
+     * 请参考： @see <a href="http://stackoverflow.com/questions/13641832/getgeneratedkeys-after-preparedstatement-executebatch">stackoverflow</a>
+     */
+    try (BatchInserter<TModel> inserter = new BatchInserter<>(classMeta, this.getDBConfig().getDbType().equals(DbType.MYSQL))) {
+      return inserter.insert(entities);
+    } catch (SQLException ex) {
+      throw new DBException(ex);
+    }
+  }
+
+  public String uuid() {
+    return this.dbTemplate.getPkGenerator().nextUUID();
+  }
+
+  /**
+   * 创建一个按时间排序的 UUID（版本7）值
+   *
+   * @return UUID
+   */
+  public String uuidV7() {
+    return this.dbTemplate.getPkGenerator().nextUUIDv7().toString();
+  }
+
+  /**
+   * 按主键字段类型生成 UUID（版本7）主键值，字段类型为 java.util.UUID 时返回 UUID，否则返回字符串
+   */
+  private Object uuidV7(Attribute primaryKey) {
+
+    final UUID uuid = this.dbTemplate.getPkGenerator().nextUUIDv7();
+    return primaryKey.getFieldType() == UUID.class ? uuid : uuid.toString();
+  }
+
+  /**
+   * 从迭代器中逐个读取实体并批量创建，每 batchSize 条记录执行一次，内存占用与记录总数无关；
+   * 不会分批提交，所有记录在当前事务中写入，由调用方提交或回滚
+   *
+   * @param modelClass 实体类型
+   * @param entities   实体迭代器
+   * @param listener   进度监听，每执行一批记录后调用，可以为 null
+   * @param <TModel>   实体类型泛型
+   * @return 影响行数
+   */
+  public <TModel> long createStream(Class<TModel> modelClass,
+      Iterator<TModel> entities,
+      BatchListener listener) {
+
+    final ClassMeta classMeta = Metadata.get(modelClass);
+    final boolean   multiRows = this.getDBConfig().getDbType().equals(DbType.MYSQL)
+        && classMeta.getStrategy() != GenerationType.IDENTITY;
+    final int       batchSize = this.getDBConfig().getBatchSize();
+
+    final List<TModel> buffer    = new ArrayList<>(batchSize);
+    long               result    = 0L;
+    long               totalRows = 0L;
+
+    try (BatchInserter<TModel> inserter = new BatchInserter<>(classMeta, multiRows)) {
+      while (entities.hasNext()) {
+        buffer.add(entities.next());
+        if (buffer.size() < batchSize && entities.hasNext()) {
+          continue;
+        }
+
+        final int affected = inserter.insert(buffer);
+        result    += affected;
+        totalRows += buffer.size();
+        if (listener != null) {
+          listener.onFlush(buffer.size(), affected, totalRows);
+        }
+        buffer.clear();
+      }
+    } catch (SQLException ex) {
+      throw new DBException(ex);
+    }
+    return result;
+  }
+
+  /**
+   * 从迭代器中逐个读取实体并批量创建，每 batchSize 条记录执行一次，内存占用与记录总数无关；
+   * 不会分批提交，所有记录在当前事务中写入，由调用方提交或回滚
    *
-   * @param sql SQL
+   * @param modelClass 实体类型
+   * @param entities   实体迭代器
+   * @param <TModel>   实体类型泛型
    * @return 影响行数
    */
-  public int execute(Sql sql) {
+  public <TModel> long createStream(Class<TModel> modelClass,
+      Iterator<TModel> entities) {
 
-    return this.execute(sql.getSqlString(), sql.getParams());
+    return this.createStream(modelClass, entities, null);
   }
 
   /**
-   * 执行多个SQL语句
+   * 从 Stream 中逐个读取实体并批量创建，每 batchSize 条记录执行一次，内存占用与记录总数无关；
+   * 不会分批提交，所有记录在当前事务中写入，由调用方提交或回滚
    *
-   * @param sqlList SQL集合
-   * @return 返回多个影响行数
+   * @param modelClass 实体类型
+   * @param entities   实体 Stream
+   * @param listener   进度监听，每执行一批记录后调用，可以为 null
+   * @param <TModel>   实体类型泛型
+   * @return 影响行数
    */
-  public int[] execute(List<Sql> sqlList) {
-    int   sqlCnt  = sqlList.size();
-    int[] results = new int[sqlCnt];
+  public <TModel> long createStream(Class<TModel> modelClass,
+      Stream<TModel> entities,
+      BatchListener listener) {
 
-    return tx(db -> {
-      for (int i = 0;
-          i < sqlCnt;
-          i++) {
-        results[i] = execute(sqlList.get(i));
-      }
-      return results;
-    });
+    return this.createStream(modelClass, entities.iterator(), listener);
   }
 
   /**
-   * 创建实体
+   * 并行批量创建实体：按 batchSize * {@value #PARTITION_BATCHES} 条记录分区，由 {@link DBConfig#getParallelism()} 个线程
+   * 并行写入，每个分区使用单独的数据库连接与事务，写入完毕立即提交
+   * <p>
+   * 适用于初始导入等大批量写入，不参与当前线程的事务；某个分区失败时只回滚该分区，其他分区继续写入，
+   * 失败信息见 {@link BulkResult#getFailures()}
    *
    * @param modelClass 实体类型
-   * @param entity     实体
+   * @param entities   实体集合
    * @param <TModel>   实体类型泛型
-   * @return 影响行数
+   * @return 写入结果
    */
-  public <TModel> int create(Class<TModel> modelClass,
-      TModel entity) {
+  public <TModel> BulkResult createParallel(Class<TModel> modelClass,
+      Collection<TModel> entities) {
 
-    int result = 0;
-    if (entity == null) {
+    final BulkResult result = new BulkResult();
+    if (CollectionUtil.isEmpty(entities)) {
       return result;
     }
 
-    ClassMeta      classMeta       = Metadata.get(modelClass);
-    Attribute      primaryKey      = classMeta.checkPrimaryKey();
-    GenerationType strategy;
-    String         pkFieldName;
-    boolean        autoGeneratedPK = false;
-
-    Sql               sql   = null;
-    Connection        conn  = null;
-    PreparedStatement pstmt = null;
-    ResultSet         rs    = null;
-
-    pkFieldName = primaryKey.getFieldName();
-    strategy    = classMeta.getStrategy();
-    /*
-    如果数据库主键策略为非自增，那么需要加入主键值作为参数
-    获取实体主键标识字段是否为null：
-    1.ASSIGNED 不允许为空；
-    2.UUID、SNOW_FLAKE如果主键标识字段为空，则生成值；
-    */
-    if (strategy == GenerationType.IDENTITY) {
-      autoGeneratedPK = true;
-    } else {
-      Object pkVal = ReflectUtil.getFieldValue(entity, pkFieldName);
-      if (pkVal == null) {
-        if (strategy == GenerationType.ASSIGNED) {
-          throw new DBException("Assigned ID can not be null.");
-        } else if (strategy == GenerationType.UUID) {
-          pkVal = uuid();
-        } else if (strategy == GenerationType.SNOW_FLAKE) {
-          pkVal = snowFlakeId();
-        }
+    final List<TModel>    list          = entities instanceof List ? (List<TModel>) entities : new ArrayList<>(entities);
+    final int             parallelism   = Math.max(1, getDBConfig().getParallelism());
+    final int             partitionSize = Math.max(1, getDBConfig().getBatchSize()) * PARTITION_BATCHES;
+    final Semaphore       permits       = new Semaphore(parallelism * 2);
+    final AtomicInteger   threadIndex   = new AtomicInteger();
+    final ExecutorService executor      = Executors.newFixedThreadPool(parallelism, runnable -> {
+      final Thread thread = new Thread(runnable, "myfavs-bulk-" + threadIndex.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
 
-        ReflectUtil.setFieldValue(entity, pkFieldName, pkVal);
+    try {
+      int partition = 0;
+      for (int from = 0; from < list.size(); from += partitionSize) {
+        final int          index      = partition++;
+        final int          fromIndex  = from;
+        final List<TModel> entityList = list.subList(from, Math.min(from + partitionSize, list.size()));
+
+        //限制等待执行的分区数量
+        permits.acquire();
+        executor.execute(() -> {
+          try {
+            result.succeed(createPartition(modelClass, entityList));
+          } catch (Throwable e) {
+            log.error(StrUtil.format("Fail to create partition {} of {}.", index, modelClass.getName()), e);
+            result.fail(new BulkResult.Failure(index, fromIndex, entityList.size(), e));
+          } finally {
+            permits.release();
+          }
+        });
       }
+      executor.shutdown();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DBException(e, "Interrupted while creating entities in parallel, error message:");
+    } finally {
+      executor.shutdownNow();
     }
+    return result;
+  }
 
-    sql = getDialect().insert(modelClass, entity);
-
-    try {
-      getSqlLog().showSql(sql.getSqlString(), sql.getParams());
+  /**
+   * 异步创建实体：提交到 {@link DBTemplate#getAsyncWriter()} 的队列，由后台线程合并成批写入并提交，
+   * 不参与当前线程的事务；队列已满时阻塞等待
+   *
+   * @param modelClass 实体类型
+   * @param entity     实体
+   * @param <TModel>   实体类型泛型
+   * @return 实体写入数据库后完成的 Future，结果为实体本身
+   */
+  public <TModel> CompletableFuture<TModel> createAsync(Class<TModel> modelClass,
+      TModel entity) {
 
-      conn   = this.open();
-      pstmt  = DBUtil.getPstForUpdate(conn, autoGeneratedPK, sql.getSqlString(), sql.getParams());
-      result = DBUtil.executeUpdate(pstmt);
+    return this.dbTemplate.getAsyncWriter().submit(modelClass, entity);
+  }
 
-      getSqlLog().showAffectedRows(result);
+  /**
+   * 在当前线程的单独连接中写入一个分区并提交，失败时回滚
+   */
+  <TModel> int createPartition(Class<TModel> modelClass,
+      List<TModel> entities)
+      throws SQLException {
 
-      if (autoGeneratedPK) {
-        rs = pstmt.getGeneratedKeys();
-        if (rs.next()) {
-          ReflectUtil.setFieldValue(entity, pkFieldName, rs.getObject(1));
-        }
+    final DB         db         = DB.conn(this.dbTemplate);
+    final Connection conn       = db.open();
+    final boolean    autoCommit = conn.getAutoCommit();
+    try {
+      if (autoCommit) {
+        conn.setAutoCommit(false);
       }
-    } catch (Exception ex) {
-      throw new DBException(ex);
+      final int rows = db.create(modelClass, entities);
+      conn.commit();
+      return rows;
+    } catch (RuntimeException | SQLException e) {
+      conn.rollback();
+      throw e;
     } finally {
-      DBUtil.close(pstmt, rs);
-      this.close();
+      if (autoCommit) {
+        conn.setAutoCommit(true);
+      }
+      db.close();
     }
-
-    return result;
   }
 
-  public long snowFlakeId() {
-    return dbTemplate.getPkGenerator().nextSnowFakeId();
+  /**
+   * 批量插入或更新实体：主键不存在时插入，已存在时更新指定字段
+   * <p>
+   * MySQL 使用 ON DUPLICATE KEY UPDATE，PostgreSQL 使用 ON CONFLICT DO UPDATE，SQL Server 与 H2 使用 MERGE；
+   * 每条语句的行数与批量创建相同。主键为空时按主键策略生成；自增主键为空的实体按 {@link #create(Class, Collection)} 创建，
+   * 并回写自增主键；SQL Server 不能显式插入自增主键，自增主键不为空但记录不存在的实体插入时由数据库生成新的主键，不回写。
+   * 影响行数为数据库返回值，MySQL 更新的行计为 2
+   *
+   * @param modelClass 实体类型
+   * @param entities   实体集合
+   * @param columns    主键已存在时需要更新的字段，为空时更新所有字段
+   * @param <TModel>   实体类型泛型
+   * @return 影响行数
+   */
+  public <TModel> int upsert(Class<TModel> modelClass,
+      Collection<TModel> entities,
+      String[] columns) {
+
+    return this.upsert(modelClass, entities, columns, false);
   }
 
+  /**
+   * 批量插入或更新实体，主键已存在时更新所有字段
+   *
+   * @param modelClass 实体类型
+   * @param entities   实体集合
+   * @param <TModel>   实体类型泛型
+   * @return 影响行数
+   */
+  public <TModel> int upsert(Class<TModel> modelClass,
+      Collection<TModel> entities) {
+
+    return this.upsert(modelClass, entities, null, false);
+  }
 
   /**
-   * 批量创建实体
+   * 批量创建主键不存在的实体，主键已存在的记录保持不变
+   * <p>
+   * 影响行数为数据库返回值：MySQL 使用 ON DUPLICATE KEY UPDATE id = id，Connector/J 默认开启 CLIENT_FOUND_ROWS，
+   * 已存在的行也计为 1，连接参数设置 useAffectedRows=true 时计为 0，因此不能作为新增的行数
    *
    * @param modelClass 实体类型
    * @param entities   实体集合
    * @param <TModel>   实体类型泛型
    * @return 影响行数
    */
-  public <TModel> int create(Class<TModel> modelClass,
+  public <TModel> int createIfAbsent(Class<TModel> modelClass,
       Collection<TModel> entities) {
+
+    return this.upsert(modelClass, entities, null, true);
+  }
+
+  private <TModel> int upsert(Class<TModel> modelClass,
+      Collection<TModel> entities,
+      String[] columns,
+      boolean ignoreDuplicates) {
+
     if (CollectionUtil.isEmpty(entities)) {
       return 0;
     }
 
-    ClassMeta classMeta = Metadata.get(modelClass);
-
-    final boolean isMySQL    = this.getDBConfig().getDbType().equals(DbType.MYSQL);
-    final boolean isIdentity = classMeta.getStrategy().equals(GenerationType.IDENTITY);
-
-    if (!isMySQL) {
-      /*
-       * 此处处理了一个MSSQL的JDBC驱动问题，当批量保存时，不能返回KEY，所以使用传统的方法遍历
-       * 请参考： @see <a href="http://stackoverflow.com/questions/13641832/getgeneratedkeys-after-preparedstatement-executebatch">stackoverflow</a>
-       */
-      if (isSqlServer() && isIdentity) {
-        int result = 0;
-        for (TModel entity : entities) {
-          result += create(modelClass, entity);
-        }
+    final ClassMeta    classMeta = Metadata.get(modelClass);
+    Collection<TModel> keyed     = entities;
+    int                result    = 0;
+    if (classMeta.getStrategy() == GenerationType.IDENTITY) {
+      //自增主键为空的实体没有可以冲突的主键，按普通方式创建并回写自增主键
+      final Attribute    primaryKey = classMeta.checkPrimaryKey();
+      final List<TModel> absent     = new ArrayList<>();
+      keyed = new ArrayList<>();
+      for (TModel entity : entities) {
+        (primaryKey.getValue(entity) == null ? absent : keyed).add(entity);
+      }
+      if (!absent.isEmpty()) {
+        result += this.create(modelClass, absent);
+      }
+      if (keyed.isEmpty()) {
         return result;
       }
-      return createInJdbcBatch(classMeta, entities);
     }
 
-    if (isIdentity) {
-      return createInJdbcBatch(classMeta, entities);
+    try (BatchInserter<TModel> inserter = new BatchInserter<>(classMeta, true, true,
+        rows -> getDialect().upsertBatch(modelClass, rows, columns, ignoreDuplicates))) {
+      return result + inserter.insert(keyed);
+    } catch (SQLException ex) {
+      throw new DBException(ex);
     }
-
-    return createInSqlBatch(classMeta, entities);
   }
 
   /**
-   * 使用SQL语句的批量创建方法 insert into table (f1, f2, f3) values (?,?,?),(?,?,?)...(?,?,?)
-   *
-   * @param classMeta 实体类
-   * @param entities  实体
-   * @param <TModel>  实体类类型
-   * @return 记录数
-   */
-  private <TModel> int createInSqlBatch(ClassMeta classMeta,
-      Collection<TModel> entities) {
-
-    int result = 0;
-
-    final Attributes     updateAttributes = classMeta.getUpdateAttributes();
-    final GenerationType strategy         = classMeta.getStrategy();
-    final Attribute      primaryKey       = classMeta.checkPrimaryKey();
-    final String         pkFieldName      = primaryKey.getFieldName();
-
-    final List<Sql> sqlList = new ArrayList<>();
-
-    final int                batchSize = this.getDBConfig().getBatchSize();
-    final List<List<TModel>> batchList = CollectionUtil.split(entities, batchSize);
+   * 批量插入执行器，在同一个数据库连接中复用 PreparedStatement，每次插入一批实体
+   * <p>
+   * 多行插入模式下，每条语句的行数不超过 batchSize 且参数数量不超过数据库方言的限制，剩余的行按 2 的幂拆分，
+   * 使语句文本的种类有限，便于驱动及数据库复用语句缓存；否则使用 JDBC 批处理，每批不超过 batchSize 行
+   *
+   * @param <TModel> 实体类型
+   */
+  private final class BatchInserter<TModel>
+      implements AutoCloseable {
+
+    private final ClassMeta      classMeta;
+    private final Class<?>       clazz;
+    private final Attribute      primaryKey;
+    private final Attribute[]    attrs;
+    private final boolean        identity;
+    /**
+     * 是否绑定主键参数
+     */
+    private final boolean        withPK;
+    /**
+     * 是否使用多行插入语句
+     */
+    private final boolean        multiRows;
+    /**
+     * 多行插入语句的最大行数
+     */
+    private final int            batchSize;
+    /**
+     * 根据行数获取多行语句
+     */
+    private final IntFunction<String> rowsSql;
+    private final Connection     conn;
+
+    private PreparedStatement pstmt;
+    private String            sql;
+    /**
+     * 当前语句的行数
+     */
+    private int               rows;
+
+    private BatchInserter(ClassMeta classMeta,
+        boolean multiRows) {
+
+      this(classMeta, multiRows && classMeta.getStrategy() != GenerationType.IDENTITY,
+          classMeta.getStrategy() != GenerationType.IDENTITY, null);
+    }
 
-    for (Iterator<List<TModel>> ei = batchList.iterator(); ei.hasNext(); ) {
-      List<TModel> entityList = ei.next();
+    /**
+     * 构造方法
+     *
+     * @param classMeta 类元数据
+     * @param multiRows 是否使用多行插入语句
+     * @param withPK    是否绑定主键参数
+     * @param rowsSql   根据行数获取多行语句，为 null 时使用多行插入语句
+     */
+    private BatchInserter(ClassMeta classMeta,
+        boolean multiRows,
+        boolean withPK,
+        IntFunction<String> rowsSql) {
+
+      this.classMeta = classMeta;
+      this.clazz = classMeta.getClazz();
+      this.primaryKey = classMeta.checkPrimaryKey();
+      this.attrs = classMeta.getUpdateAttributes().values().toArray(new Attribute[0]);
+      this.identity = classMeta.getStrategy() == GenerationType.IDENTITY;
+      this.withPK = withPK;
+      this.multiRows = multiRows;
+      this.batchSize = rowsPerStatement(attrs.length + (withPK ? 1 : 0), 0);
+      this.rowsSql = rowsSql == null ? rows -> getDialect().insertBatch(clazz, rows) : rowsSql;
+      this.conn = open();
+    }
 
-      boolean insertClauseCompleted = false;
-      String  tableName             = TableAlias.getOpt().orElse(classMeta.getTableName());
-      Sql     insertClause          = Sql.New(StrUtil.format("INSERT INTO {} (", tableName));
-      Sql     valuesClause          = Sql.New(") VALUES ");
+    private int insert(Collection<TModel> entities)
+        throws SQLException {
 
-      for (Iterator<TModel> mi = entityList.iterator(); mi.hasNext(); ) {
-        TModel entity = mi.next();
+      if (withPK) {
+        generateIds(classMeta, entities);
+      }
+      return multiRows ? insertRows(entities) : insertBatch(entities);
+    }
 
-        Object pkVal = ReflectUtil.getFieldValue(entity, pkFieldName);
-        if (pkVal == null) {
-          if (strategy == GenerationType.ASSIGNED) {
-            throw new DBException("Assigned ID can not be null.");
-          } else if (strategy == GenerationType.UUID) {
-            pkVal = uuid();
-          } else if (strategy == GenerationType.SNOW_FLAKE) {
-            pkVal = snowFlakeId();
-          }
+    private int insertRows(Collection<TModel> entities)
+        throws SQLException {
+
+      final boolean          showSql   = getSqlLog().isShowSql();
+      final Iterator<TModel> iterator  = entities.iterator();
+      int                    remaining = entities.size();
+      int                    result    = 0;
+
+      while (remaining > 0) {
+        final int batchRows = remaining >= batchSize ? batchSize : Integer.highestOneBit(remaining);
+        if (pstmt == null || batchRows != rows) {
+          DBUtil.close(pstmt);
+          rows  = batchRows;
+          sql   = rowsSql.apply(rows);
+          pstmt = DBUtil.getPstForUpdate(conn, false, sql);
         }
-        if (insertClauseCompleted == false) {
-          insertClause.append(primaryKey.getColumnName() + ",");
-        }
-        valuesClause.append("(?,", pkVal);
 
-        for (Attribute attr : updateAttributes.values()) {
-          if (insertClauseCompleted == false) {
-            insertClause.append(attr.getColumnName() + ",");
-          }
-          valuesClause.append("?,", ReflectUtil.getFieldValue(entity, attr.getFieldName()));
+        final List<Object> logParams = showSql ? new ArrayList<>() : null;
+        int                index     = 1;
+        for (int i = 0; i < rows; i++) {
+          index = bind(iterator.next(), index, logParams);
         }
 
-        if (classMeta.needAppendLogicalDeleteField()) {
-          if (insertClauseCompleted == false) {
-            insertClause.append(classMeta.getLogicalDeleteField() + ",");
-          }
-          valuesClause.append("?,", 0);
-        }
+        getSqlLog().showSql(sql, logParams);
+        final int affected = DBUtil.executeUpdate(pstmt);
+        getSqlLog().showAffectedRows(affected);
 
-        if (insertClauseCompleted == false) {
-          insertClause.deleteLastChar(",");
-          insertClauseCompleted = true;
-        }
-        valuesClause.deleteLastChar(",");
-        valuesClause.append("),");
+        result += affected;
+        remaining -= rows;
       }
-
-      valuesClause.deleteLastChar(",");
-      sqlList.add(insertClause.append(valuesClause));
-    }
-
-    for (Sql batchSql : sqlList) {
-      result += this.execute(batchSql);
+      return result;
     }
-    return result;
-  }
 
-  private <TModel> int createInJdbcBatch(ClassMeta classMeta,
-      Collection<TModel> entities) {
-
-    int                    result          = 0;
-    GenerationType         strategy;
-    String                 pkFieldName;
-    Object                 pkVal;
-    boolean                autoGeneratedPK = false;
-    Attributes             updateAttributes;
-    Sql                    sql;
-    Collection<Collection> paramsList;
-    Collection             params;
-
-    Attribute primaryKey = classMeta.checkPrimaryKey();
+    private int insertBatch(Collection<TModel> entities)
+        throws SQLException {
 
-    pkFieldName      = primaryKey.getFieldName();
-    strategy         = classMeta.getStrategy();
-    updateAttributes = classMeta.getUpdateAttributes();
-    sql              = getDialect().insert(classMeta.getClazz());
-    paramsList       = new LinkedList<>();
-
-    if (strategy == GenerationType.IDENTITY) {
-      autoGeneratedPK = true;
-    }
-
-    for (Iterator<TModel> iterator = entities.iterator();
-        iterator.hasNext(); ) {
-      TModel entity = iterator.next();
-      params = new LinkedList<>();
-
-      /*
-      如果数据库主键策略为非自增，那么需要加入主键值作为参数
-      获取实体主键标识字段是否为null：
-      1.ASSIGNED 不允许为空；
-      2.UUID、SNOW_FLAKE如果主键标识字段为空，则生成值；
-      */
-      if (strategy != GenerationType.IDENTITY) {
-        pkVal = ReflectUtil.getFieldValue(entity, pkFieldName);
-
-        if (pkVal == null) {
-          if (strategy == GenerationType.ASSIGNED) {
-            throw new DBException("Assigned ID can not be null.");
-          } else if (strategy == GenerationType.UUID) {
-            pkVal = uuid();
-          } else if (strategy == GenerationType.SNOW_FLAKE) {
-            pkVal = snowFlakeId();
-          }
+      if (pstmt == null) {
+        sql   = getDialect().insert(clazz).getSqlString();
+        pstmt = DBUtil.getPstForUpdate(conn, identity, sql);
+      }
 
-          ReflectUtil.setFieldValue(entity, pkFieldName, pkVal);
+      //SQL Server 批量保存时不能返回自增主键，逐条执行
+      final boolean      perRow   = identity && isSqlServer();
+      final int          maxBatch = perRow ? 1 : getDBConfig().getBatchSize();
+      final List<TModel> pending  = new ArrayList<>(Math.min(maxBatch, entities.size()));
+      int                result   = 0;
+
+      for (TModel entity : entities) {
+        pending.add(entity);
+        if (pending.size() == maxBatch) {
+          result += executeBatch(pending, perRow);
+          pending.clear();
         }
-
-        params.add(pkVal);
       }
+      if (!pending.isEmpty()) {
+        result += executeBatch(pending, perRow);
+      }
+      return result;
+    }
 
-      for (Attribute attr : updateAttributes.values()) {
-        params.add(ReflectUtil.getFieldValue(entity, attr.getFieldName()));
+    /**
+     * 使用 JDBC 批处理插入一批实体，自增主键时回写主键
+     */
+    private int executeBatch(List<TModel> entities,
+        boolean perRow)
+        throws SQLException {
+
+      final boolean          showSql    = getSqlLog().isShowSql();
+      final List<Collection> paramsList = showSql ? new ArrayList<>() : null;
+      for (TModel entity : entities) {
+        final List<Object> logParams = showSql ? new ArrayList<>() : null;
+        bind(entity, 1, logParams);
+        if (showSql) {
+          paramsList.add(logParams);
+        }
+        if (!perRow) {
+          pstmt.addBatch();
+        }
       }
 
-      paramsList.add(params);
+      getSqlLog().showBatchSql(sql, paramsList);
+      final int result;
+      if (perRow) {
+        result = DBUtil.executeUpdate(pstmt);
+      } else {
+        result = affectedRows(pstmt.executeBatch());
+        pstmt.clearBatch();
+      }
+      if (identity) {
+        setGeneratedKeys(entities);
+      }
+      getSqlLog().showAffectedRows(result);
+      return result;
     }
-    getSqlLog().showBatchSql(sql.getSqlString(), paramsList);
-
-    Connection        conn  = null;
-    PreparedStatement pstmt = null;
-    ResultSet         rs    = null;
 
-    try {
+    /**
+     * 累加批处理的影响行数，驱动返回 SUCCESS_NO_INFO 时按每条语句一行计算
+     */
+    private int affectedRows(int[] counts) {
+
+      int result = 0;
+      for (int count : counts) {
+        if (count == Statement.SUCCESS_NO_INFO) {
+          result += 1;
+        } else if (count > 0) {
+          result += count;
+        }
+      }
+      return result;
+    }
 
-      conn   = this.open();
-      pstmt  = DBUtil.getPstForUpdate(conn, autoGeneratedPK, sql.getSqlString());
-      result = DBUtil.executeBatch(pstmt, paramsList, this.getDBConfig().getBatchSize());
+    private void setGeneratedKeys(Collection<TModel> entities)
+        throws SQLException {
 
-      if (autoGeneratedPK) {
-        rs = pstmt.getGeneratedKeys();
-        for (Iterator<TModel> iterator = entities.iterator();
-            iterator.hasNext(); ) {
-          TModel tModel = iterator.next();
+      try (ResultSet rs = pstmt.getGeneratedKeys()) {
+        for (TModel entity : entities) {
           if (rs.next()) {
-            ReflectUtil.setFieldValue(tModel, pkFieldName, rs.getObject(1));
+            primaryKey.setValue(entity, rs.getObject(1));
           }
         }
       }
-    } catch (SQLException e) {
-      throw new DBException(e);
-    } finally {
-      DBUtil.close(pstmt, rs);
-      this.close();
     }
 
-    getSqlLog().showAffectedRows(result);
-    return result;
-  }
+    /**
+     * 绑定实体的插入参数：主键（需要绑定时，为空则生成）、更新字段
+     *
+     * @param entity    实体
+     * @param index     起始参数序号
+     * @param logParams 用于输出日志的参数，为 null 时不记录
+     * @return 下一个参数序号
+     * @throws SQLException SQLException
+     */
+    private int bind(TModel entity,
+        int index,
+        List<Object> logParams)
+        throws SQLException {
+
+      if (withPK) {
+        final Object pkVal = generatePk(classMeta, entity);
+        PropertyHandlerFactory.addParameter(pstmt, index++, pkVal);
+        if (logParams != null) {
+          logParams.add(pkVal);
+        }
+      }
 
-  public String uuid() {
-    return this.dbTemplate.getPkGenerator().nextUUID();
+      for (Attribute attr : attrs) {
+        final Object value = attr.getValue(entity);
+        PropertyHandlerFactory.addParameter(pstmt, index++, value);
+        if (logParams != null) {
+          logParams.add(value);
+        }
+      }
+      return index;
+    }
+
+    @Override
+    public void close() {
+      DBUtil.close(pstmt);
+      DB.this.close();
+    }
   }
 
   /**
    * 更新实体
+   * <p>
+   * 开启 {@link DBConfig#setDirtyTracking(boolean)} 时，通过 DB 查询或更新过的实体只更新自快照以来修改过的字段，
+   * 没有修改过的字段时不执行更新并返回 0。影响行数大于 0 时刷新快照；事务中刷新的快照在 {@link #rollback()} 时失效，
+   * 下次更新时更新所有字段。由 Spring 等外部管理的事务回滚时不会通知 DB，需调用 {@link #untrack(Object)} 或重新查询
    *
    * @param modelClass 实体类型
    * @param entity     实体
@@ -1446,9 +2704,55 @@ public class DB {
     if (entity == null) {
       return 0;
     }
-    Sql sql = getDialect().update(modelClass, entity, false)
-        .and(Cond.logicalDeleteCond(Metadata.get(modelClass)));
-    return execute(sql);
+
+    final ClassMeta classMeta = Metadata.get(modelClass);
+    if (!getDBConfig().getDirtyTracking()) {
+      return execute(getDialect().update(modelClass, entity, false).and(Cond.logicalDeleteCond(classMeta)));
+    }
+
+    final DirtyTracker    tracker = this.dbTemplate.getDirtyTracker();
+    final List<Attribute> changed = tracker.getChangedAttributes(classMeta, entity);
+    if (changed != null && changed.isEmpty()) {
+      return 0;
+    }
+
+    final Sql sql;
+    if (changed == null) {
+      sql = getDialect().update(modelClass, entity, false);
+    } else {
+      sql = getDialect().update(modelClass, changed.stream().map(Attribute::getColumnName).toArray(String[]::new));
+      for (Attribute attr : changed) {
+        sql.getParams().add(attr.getValue(entity));
+      }
+      sql.getParams().add(classMeta.getPrimaryKey().getValue(entity));
+    }
+
+    try {
+      final Connection conn   = this.open();
+      final int        result = execute(sql.and(Cond.logicalDeleteCond(classMeta)));
+      //没有更新到记录时保留原快照，下次仍更新这些字段
+      if (result > 0) {
+        tracker.track(classMeta, entity);
+        if (!conn.getAutoCommit()) {
+          tracker.touch(entity);
+        }
+      }
+      return result;
+    } catch (SQLException e) {
+      throw new DBException(e);
+    } finally {
+      this.close();
+    }
+  }
+
+  /**
+   * 停止跟踪实体的修改，下次更新时更新所有字段
+   *
+   * @param entity 实体
+   */
+  public void untrack(Object entity) {
+
+    this.dbTemplate.getDirtyTracker().untrack(entity);
   }
 
   /**
@@ -1493,6 +2797,8 @@ public class DB {
 
   /**
    * 更新实体
+   * <p>
+   * 更新方式见 {@link DBConfig#setUpdateStrategy(UpdateStrategy)}
    *
    * @param modelClass 实体类型
    * @param entities   实体集合
@@ -1510,7 +2816,7 @@ public class DB {
       return result;
     }
 
-    if (isSqlServer()) {
+    if (getUpdateStrategy() == UpdateStrategy.JDBC_BATCH) {
       return updateByLines(modelClass, entities, columns);
     }
 
@@ -1522,7 +2828,8 @@ public class DB {
       throw new DBException("Could not match update attributes.");
     }
 
-    final int                batchSize = getDBConfig().getBatchSize();
+    //每行参数：每个更新字段 WHEN ? THEN ?，以及 IN 条件中的主键
+    final int                batchSize = rowsPerStatement(updAttrs.size() * 2 + 1, 0);
     final List<List<TModel>> batchList = CollectionUtil.split(entities, batchSize);
     String                   tableName = TableAlias.getOpt().orElse(classMeta.getTableName());
     List<Sql>                batchSqls = new ArrayList<>();
@@ -1571,7 +2878,21 @@ public class DB {
   }
 
   /**
-   * 更新实体
+   * 获取批量更新实体的方式
+   *
+   * @return 批量更新方式
+   */
+  private UpdateStrategy getUpdateStrategy() {
+
+    final UpdateStrategy strategy = getDBConfig().getUpdateStrategy();
+    if (strategy == null || strategy == UpdateStrategy.AUTO) {
+      return getDialect().updateStrategy();
+    }
+    return strategy;
+  }
+
+  /**
+   * 使用固定的 UPDATE table SET f1 = ? WHERE id = ? 语句，通过 JDBC 批处理更新实体
    *
    * @param modelClass 实体类型
    * @param entities   实体集合
@@ -1587,50 +2908,37 @@ public class DB {
 
     ClassMeta       classMeta = Metadata.get(modelClass);
     Attribute       pk        = classMeta.checkPrimaryKey();
-    List<Attribute> updAttrs  = classMeta.getUpdateAttributes(columns);
+    List<Attribute> selected  = classMeta.getUpdateAttributes(columns);
 
-    if (updAttrs.isEmpty()) {
+    if (selected.isEmpty()) {
       throw new DBException("Could not match update attributes.");
     }
 
-    Sql                    sql;
-    Collection<Collection> paramsList;
-    Collection             params;
-
-    Connection        conn  = null;
-    PreparedStatement pstmt = null;
-
-    sql = Sql.Update(classMeta.getTableName())
-        .append(" SET ");
-    for (Attribute updateAttribute : updAttrs) {
-      sql.append(StrUtil.format("{} = ?,", updateAttribute.getColumnName()));
+    //语句中的字段按实体更新字段的顺序排列，参数也按此顺序绑定
+    final List<Attribute> updAttrs = new ArrayList<>(selected.size());
+    for (Attribute attr : classMeta.getUpdateAttributes().values()) {
+      if (selected.contains(attr)) {
+        updAttrs.add(attr);
+      }
     }
 
-    sql.getSql()
-        .deleteCharAt(sql.getSql()
-            .lastIndexOf(","));
-
-    sql.append(StrUtil.format(" WHERE {} = ?", pk.getColumnName()));
-
+    Sql sql = getDialect().update(modelClass, updAttrs.stream().map(Attribute::getColumnName).toArray(String[]::new));
     if (classMeta.isEnableLogicalDelete()) {
       sql.append(StrUtil.format(" AND {} = 0", classMeta.getLogicalDeleteField()));
     }
 
-    paramsList = new LinkedList<>();
-
-    for (Iterator<TModel> iterator = entities.iterator();
-        iterator.hasNext(); ) {
-      TModel entity = iterator.next();
-      params = new LinkedList<>();
-
-      for (Attribute attributeMeta : updAttrs) {
-        params.add(ReflectUtil.getFieldValue(entity, attributeMeta.getFieldName()));
+    Collection<Collection> paramsList = new ArrayList<>(entities.size());
+    for (TModel entity : entities) {
+      List<Object> params = new ArrayList<>(updAttrs.size() + 1);
+      for (Attribute attr : updAttrs) {
+        params.add(attr.getValue(entity));
       }
-
-      params.add(ReflectUtil.getFieldValue(entity, pk.getFieldName()));
+      params.add(pk.getValue(entity));
       paramsList.add(params);
     }
 
+    Connection        conn  = null;
+    PreparedStatement pstmt = null;
     try {
 
       getSqlLog().showBatchSql(sql.getSqlString(), paramsList);
@@ -1738,7 +3046,8 @@ public class DB {
   public <TModel> int deleteByIds(Class<TModel> modelClass,
       Collection ids) {
 
-    if (ids == null || ids.size() == 0) {
+    final List<List<Object>> chunks = splitIds(ids, 0);
+    if (chunks.isEmpty()) {
       return 0;
     }
 
@@ -1746,9 +3055,26 @@ public class DB {
     Attribute primaryKey   = classMeta.checkPrimaryKey();
     String    pkColumnName = primaryKey.getColumnName();
     String    tableName    = TableAlias.getOpt().orElse(classMeta.getTableName());
-    Sql sql = Sql.Delete(tableName)
-        .where().and(Cond.in(pkColumnName, new ArrayList(ids), false));
-    return execute(sql);
+
+    final Function<DB, Integer> func = db -> {
+      int result = 0;
+      for (List<Object> chunk : chunks) {
+        Sql sql;
+        if (classMeta.isEnableLogicalDelete()) {
+          sql = Sql.Update(tableName)
+              .set(StrUtil.format("{} = {}", classMeta.getLogicalDeleteField(), pkColumnName))
+              .where().and(db.getDialect().in(pkColumnName, chunk))
+              .and(Cond.logicalDeleteCond(classMeta));
+        } else {
+          sql = Sql.Delete(tableName)
+              .where().and(db.getDialect().in(pkColumnName, chunk));
+        }
+        result += db.execute(sql);
+      }
+      return result;
+    };
+
+    return chunks.size() == 1 ? func.apply(this) : this.tx(func);
   }
 
   /**
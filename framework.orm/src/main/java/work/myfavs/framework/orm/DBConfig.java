@@ -4,6 +4,7 @@ import java.sql.Connection;
 import work.myfavs.framework.orm.meta.DbType;
 import work.myfavs.framework.orm.meta.dialect.DialectFactory;
 import work.myfavs.framework.orm.meta.dialect.IDialect;
+import work.myfavs.framework.orm.meta.enumeration.UpdateStrategy;
 
 /**
  * 数据库配置
@@ -49,6 +50,30 @@ public class DBConfig {
    * 默认事务级别
    */
   private int defaultIsolation = Connection.TRANSACTION_READ_COMMITTED;
+  /**
+   * 查询 Record 时是否使用紧凑型 Record（同一结果集共享列结构）
+   */
+  private boolean compactRecord = false;
+  /**
+   * 是否跟踪通过 DB 加载的实体，更新时只写入修改过的字段
+   */
+  private boolean dirtyTracking = false;
+  /**
+   * 批量更新实体的方式
+   */
+  private UpdateStrategy updateStrategy = UpdateStrategy.AUTO;
+  /**
+   * 并行批量写入的线程数量
+   */
+  private int parallelism = Math.min(4, Runtime.getRuntime().availableProcessors());
+  /**
+   * 异步写入队列容量
+   */
+  private int asyncQueueCapacity = 10000;
+  /**
+   * 异步写入等待凑批的最长时间（毫秒）
+   */
+  private long asyncLingerMillis = 10L;
   /**
    * 终端ID
    */
@@ -248,6 +273,138 @@ public class DBConfig {
     return this;
   }
 
+  /**
+   * 获取查询 Record 时是否使用紧凑型 Record
+   *
+   * @return 是否使用紧凑型 Record
+   */
+  public boolean getCompactRecord() {
+
+    return compactRecord;
+  }
+
+  /**
+   * 设置查询 Record 时是否使用紧凑型 Record，大结果集可显著减少内存占用
+   *
+   * @param compactRecord 是否使用紧凑型 Record
+   * @return Configuration
+   */
+  public DBConfig setCompactRecord(boolean compactRecord) {
+
+    this.compactRecord = compactRecord;
+    return this;
+  }
+
+  /**
+   * 获取是否跟踪实体修改
+   *
+   * @return 是否跟踪实体修改
+   */
+  public boolean getDirtyTracking() {
+
+    return dirtyTracking;
+  }
+
+  /**
+   * 设置是否跟踪实体修改，开启后通过 DB 查询的实体会记录快照，{@link DB#update(Class, Object)} 只更新修改过的字段
+   *
+   * @param dirtyTracking 是否跟踪实体修改
+   * @return Configuration
+   */
+  public DBConfig setDirtyTracking(boolean dirtyTracking) {
+
+    this.dirtyTracking = dirtyTracking;
+    return this;
+  }
+
+  /**
+   * 获取批量更新实体的方式
+   *
+   * @return 批量更新方式
+   */
+  public UpdateStrategy getUpdateStrategy() {
+
+    return updateStrategy;
+  }
+
+  /**
+   * 设置批量更新实体的方式，默认由数据库方言决定
+   *
+   * @param updateStrategy 批量更新方式
+   * @return Configuration
+   */
+  public DBConfig setUpdateStrategy(UpdateStrategy updateStrategy) {
+
+    this.updateStrategy = updateStrategy;
+    return this;
+  }
+
+  /**
+   * 获取并行批量写入的线程数量
+   *
+   * @return 线程数量
+   */
+  public int getParallelism() {
+
+    return parallelism;
+  }
+
+  /**
+   * 设置并行批量写入的线程数量，每个线程使用单独的数据库连接，不应超过连接池大小
+   *
+   * @param parallelism 线程数量
+   * @return Configuration
+   */
+  public DBConfig setParallelism(int parallelism) {
+
+    this.parallelism = parallelism;
+    return this;
+  }
+
+  /**
+   * 获取异步写入队列容量
+   *
+   * @return 队列容量
+   */
+  public int getAsyncQueueCapacity() {
+
+    return asyncQueueCapacity;
+  }
+
+  /**
+   * 设置异步写入队列容量，队列已满时提交方阻塞等待，需在首次异步写入前设置
+   *
+   * @param asyncQueueCapacity 队列容量
+   * @return Configuration
+   */
+  public DBConfig setAsyncQueueCapacity(int asyncQueueCapacity) {
+
+    this.asyncQueueCapacity = asyncQueueCapacity;
+    return this;
+  }
+
+  /**
+   * 获取异步写入等待凑批的最长时间（毫秒）
+   *
+   * @return 等待时间
+   */
+  public long getAsyncLingerMillis() {
+
+    return asyncLingerMillis;
+  }
+
+  /**
+   * 设置异步写入等待凑批的最长时间（毫秒），队列中的记录达到 batchSize 或等待超时后写入数据库
+   *
+   * @param asyncLingerMillis 等待时间
+   * @return Configuration
+   */
+  public DBConfig setAsyncLingerMillis(long asyncLingerMillis) {
+
+    this.asyncLingerMillis = asyncLingerMillis;
+    return this;
+  }
+
   /**
    * 获取终端ID
    *
@@ -13,6 +13,7 @@ import java.util.function.Consumer;
 import javax.sql.DataSource;
 import work.myfavs.framework.orm.meta.handler.PropertyHandler;
 import work.myfavs.framework.orm.meta.handler.PropertyHandlerFactory;
+import work.myfavs.framework.orm.util.DirtyTracker;
 import work.myfavs.framework.orm.util.PKGenerator;
 import work.myfavs.framework.orm.util.SqlLog;
 import work.myfavs.framework.orm.util.exception.DBException;
@@ -61,6 +62,14 @@ public class DBTemplate {
    * 主键生成器
    */
   private PKGenerator pkGenerator;
+  /**
+   * 实体修改跟踪器
+   */
+  private final DirtyTracker dirtyTracker = new DirtyTracker();
+  /**
+   * 异步写入器，首次使用时创建
+   */
+  private volatile AsyncWriter asyncWriter;
   //endregion
 
   //region Constructor
@@ -145,6 +154,29 @@ public class DBTemplate {
     return pkGenerator;
   }
 
+  public DirtyTracker getDirtyTracker() {
+    return dirtyTracker;
+  }
+
+  /**
+   * 获取异步写入器，首次调用或上一个写入器已关闭时创建并启动后台写入线程
+   *
+   * @return 异步写入器
+   */
+  public AsyncWriter getAsyncWriter() {
+
+    AsyncWriter writer = asyncWriter;
+    if (writer == null || writer.isClosed()) {
+      synchronized (this) {
+        writer = asyncWriter;
+        if (writer == null || writer.isClosed()) {
+          asyncWriter = writer = new AsyncWriter(this);
+        }
+      }
+    }
+    return writer;
+  }
+
   /**
    * 获取数据库连接工厂
    *
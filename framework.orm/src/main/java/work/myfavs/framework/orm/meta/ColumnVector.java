@@ -0,0 +1,137 @@
+package work.myfavs.framework.orm.meta;
+
+import java.util.BitSet;
+import work.myfavs.framework.orm.util.exception.DBException;
+
+/**
+ * 按列存储的数值查询结果，使用基本类型数组保存值，避免装箱
+ * <p>
+ * 值为 NULL 的行在数组中为 0，并在 {@link #getNulls()} 中标记
+ *
+ * @author tanqimin
+ */
+public final class ColumnVector {
+
+  /**
+   * 列的数组类型
+   */
+  public enum Type {
+    INT,
+    LONG,
+    DOUBLE
+  }
+
+  /**
+   * 列名
+   */
+  private final String label;
+  /**
+   * 数组类型
+   */
+  private final Type   type;
+  /**
+   * 基本类型数组：int[]、long[] 或 double[]
+   */
+  private final Object values;
+  /**
+   * 行数
+   */
+  private final int    size;
+  /**
+   * 值为 NULL 的行
+   */
+  private final BitSet nulls;
+
+  private ColumnVector(String label, Type type, Object values, int size, BitSet nulls) {
+    this.label = label;
+    this.type = type;
+    this.values = values;
+    this.size = size;
+    this.nulls = nulls;
+  }
+
+  public static ColumnVector ofInts(String label, int[] values, BitSet nulls) {
+    return new ColumnVector(label, Type.INT, values, values.length, nulls);
+  }
+
+  public static ColumnVector ofLongs(String label, long[] values, BitSet nulls) {
+    return new ColumnVector(label, Type.LONG, values, values.length, nulls);
+  }
+
+  public static ColumnVector ofDoubles(String label, double[] values, BitSet nulls) {
+    return new ColumnVector(label, Type.DOUBLE, values, values.length, nulls);
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * 获取行数
+   *
+   * @return 行数
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * 获取值为 NULL 的行
+   *
+   * @return 值为 NULL 的行
+   */
+  public BitSet getNulls() {
+    return nulls;
+  }
+
+  /**
+   * 判断指定行的值是否为 NULL
+   *
+   * @param row 行号，从 0 开始
+   * @return 是否为 NULL
+   */
+  public boolean isNull(int row) {
+    return nulls.get(row);
+  }
+
+  /**
+   * 获取 int 数组，仅适用于 {@link Type#INT}
+   *
+   * @return int 数组
+   */
+  public int[] getInts() {
+    checkType(Type.INT);
+    return (int[]) values;
+  }
+
+  /**
+   * 获取 long 数组，仅适用于 {@link Type#LONG}
+   *
+   * @return long 数组
+   */
+  public long[] getLongs() {
+    checkType(Type.LONG);
+    return (long[]) values;
+  }
+
+  /**
+   * 获取 double 数组，仅适用于 {@link Type#DOUBLE}
+   *
+   * @return double 数组
+   */
+  public double[] getDoubles() {
+    checkType(Type.DOUBLE);
+    return (double[]) values;
+  }
+
+  private void checkType(Type expected) {
+    if (type != expected) {
+      throw new DBException("Column {} is type of {}, not {}.", label, type, expected);
+    }
+  }
+
+}
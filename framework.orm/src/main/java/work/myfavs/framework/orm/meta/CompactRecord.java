@@ -0,0 +1,464 @@
+package work.myfavs.framework.orm.meta;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 紧凑型ORM查询记录对象
+ * <p>
+ * 同一个结果集的所有行共享一个不可变的列结构（列名 - 序号），每行只保存 Object[] 值数组，
+ * 避免每行都创建哈希表及其 Entry。修改已有列的值直接写入值数组；新增或删除列时，转换为普通的 {@link Record}
+ *
+ * @author tanqimin
+ */
+public class CompactRecord
+    extends Record {
+
+  private static final long serialVersionUID = -2203389431434591567L;
+
+  /**
+   * 列结构，转换为普通 Record 后为 null
+   */
+  private transient Schema   schema;
+  /**
+   * 列值
+   */
+  private transient Object[] values;
+
+  /**
+   * 构造方法
+   *
+   * @param schema 列结构
+   * @param values 列值，长度必须与列结构一致
+   */
+  public CompactRecord(Schema schema, Object[] values) {
+    this.schema = schema;
+    this.values = values;
+  }
+
+  private boolean isCompact() {
+    return schema != null;
+  }
+
+  /**
+   * 转换为普通 Record 存储
+   */
+  private void inflate() {
+    if (schema == null) {
+      return;
+    }
+    final Schema   s = schema;
+    final Object[] v = values;
+    schema = null;
+    values = null;
+    for (int i = 0; i < s.columns.length; i++) {
+      super.put(s.columns[i], v[i]);
+    }
+  }
+
+  @Override
+  public int size() {
+    return isCompact() ? values.length : super.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public Object get(Object key) {
+    if (isCompact()) {
+      final int idx = schema.indexOf(key);
+      return idx < 0 ? null : values[idx];
+    }
+    return super.get(key);
+  }
+
+  @Override
+  public Object getOrDefault(Object key, Object defaultValue) {
+    if (isCompact()) {
+      final int idx = schema.indexOf(key);
+      return idx < 0 ? defaultValue : values[idx];
+    }
+    return super.getOrDefault(key, defaultValue);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return isCompact() ? schema.indexOf(key) >= 0 : super.containsKey(key);
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    if (isCompact()) {
+      for (Object v : values) {
+        if (Objects.equals(v, value)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    return super.containsValue(value);
+  }
+
+  @Override
+  public Object put(String key, Object value) {
+    if (isCompact()) {
+      final int idx = schema.indexOf(key);
+      if (idx >= 0) {
+        final Object old = values[idx];
+        values[idx] = value;
+        return old;
+      }
+      inflate();
+    }
+    return super.put(key, value);
+  }
+
+  @Override
+  public void putAll(Map<? extends String, ?> m) {
+    inflate();
+    super.putAll(m);
+  }
+
+  @Override
+  public Object remove(Object key) {
+    inflate();
+    return super.remove(key);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    inflate();
+    return super.remove(key, value);
+  }
+
+  @Override
+  public void clear() {
+    inflate();
+    super.clear();
+  }
+
+  @Override
+  public Object putIfAbsent(String key, Object value) {
+    inflate();
+    return super.putIfAbsent(key, value);
+  }
+
+  @Override
+  public boolean replace(String key, Object oldValue, Object newValue) {
+    inflate();
+    return super.replace(key, oldValue, newValue);
+  }
+
+  @Override
+  public Object replace(String key, Object value) {
+    inflate();
+    return super.replace(key, value);
+  }
+
+  @Override
+  public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+    inflate();
+    super.replaceAll(function);
+  }
+
+  @Override
+  public Object computeIfAbsent(String key,
+      Function<? super String, ?> mappingFunction) {
+    inflate();
+    return super.computeIfAbsent(key, mappingFunction);
+  }
+
+  @Override
+  public Object computeIfPresent(String key,
+      BiFunction<? super String, ? super Object, ?> remappingFunction) {
+    inflate();
+    return super.computeIfPresent(key, remappingFunction);
+  }
+
+  @Override
+  public Object compute(String key,
+      BiFunction<? super String, ? super Object, ?> remappingFunction) {
+    inflate();
+    return super.compute(key, remappingFunction);
+  }
+
+  @Override
+  public Object merge(String key, Object value,
+      BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+    inflate();
+    return super.merge(key, value, remappingFunction);
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super Object> action) {
+    if (isCompact()) {
+      for (int i = 0; i < values.length; i++) {
+        action.accept(schema.columns[i], values[i]);
+      }
+      return;
+    }
+    super.forEach(action);
+  }
+
+  @Override
+  public Set<String> keySet() {
+    if (isCompact()) {
+      return schema.keySet;
+    }
+    return super.keySet();
+  }
+
+  @Override
+  public Collection<Object> values() {
+    if (isCompact()) {
+      final Object[] v = values;
+      return new AbstractCollection<Object>() {
+        @Override
+        public Iterator<Object> iterator() {
+          return new IndexIterator<Object>(v.length) {
+            @Override
+            Object get(int idx) {
+              return v[idx];
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return v.length;
+        }
+      };
+    }
+    return super.values();
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    if (isCompact()) {
+      final String[] c = schema.columns;
+      final Object[] v = values;
+      return new AbstractSet<Map.Entry<String, Object>>() {
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+          return new IndexIterator<Map.Entry<String, Object>>(v.length) {
+            @Override
+            Map.Entry<String, Object> get(int idx) {
+              return new IndexEntry(c, v, idx);
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return v.length;
+        }
+      };
+    }
+    return super.entrySet();
+  }
+
+  @Override
+  public Record clone() {
+    if (isCompact()) {
+      return new CompactRecord(schema, values.clone());
+    }
+    final Record record = new Record();
+    record.putAll(this);
+    return record;
+  }
+
+  /**
+   * 序列化时转换为普通 Record
+   *
+   * @return Record
+   */
+  private Object writeReplace() {
+    final Record record = new Record();
+    record.putAll(this);
+    return record;
+  }
+
+  /**
+   * 结果集列结构，同一个结果集的所有行共享
+   */
+  public static final class Schema {
+
+    /**
+     * 列名（去重后）
+     */
+    private final String[]             columns;
+    /**
+     * 列名 - 序号
+     */
+    private final Map<String, Integer> index;
+    /**
+     * 结果集列序号（从 0 开始） - 值数组序号
+     */
+    private final int[]                slots;
+    /**
+     * 列名集合视图
+     */
+    private final Set<String>          keySet;
+
+    /**
+     * 构造方法，重复的列名只保留第一次出现的位置，其值为最后一次出现的值（与 LinkedHashMap 一致）
+     *
+     * @param columnLabels 结果集列名
+     */
+    public Schema(String[] columnLabels) {
+      final Map<String, Integer> idx   = new HashMap<>(columnLabels.length * 4 / 3 + 1);
+      final int[]                slots = new int[columnLabels.length];
+      for (int i = 0; i < columnLabels.length; i++) {
+        final Integer exist = idx.get(columnLabels[i]);
+        if (exist == null) {
+          slots[i] = idx.size();
+          idx.put(columnLabels[i], slots[i]);
+        } else {
+          slots[i] = exist;
+        }
+      }
+
+      final String[] cols = new String[idx.size()];
+      idx.forEach((col, i) -> cols[i] = col);
+
+      this.columns = cols;
+      this.index = idx;
+      this.slots = slots;
+      this.keySet = Collections.unmodifiableSet(new AbstractSet<String>() {
+        @Override
+        public Iterator<String> iterator() {
+          return new IndexIterator<String>(cols.length) {
+            @Override
+            String get(int i) {
+              return cols[i];
+            }
+          };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+          return idx.containsKey(o);
+        }
+
+        @Override
+        public int size() {
+          return cols.length;
+        }
+      });
+    }
+
+    /**
+     * 获取值数组的长度
+     *
+     * @return 值数组的长度
+     */
+    public int size() {
+      return columns.length;
+    }
+
+    /**
+     * 获取结果集列对应的值数组序号
+     *
+     * @param columnIndex 结果集列序号，从 1 开始
+     * @return 值数组序号
+     */
+    public int slotOf(int columnIndex) {
+      return slots[columnIndex - 1];
+    }
+
+    private int indexOf(Object column) {
+      final Integer i = index.get(column);
+      return i == null ? -1 : i;
+    }
+  }
+
+  private static abstract class IndexIterator<E>
+      implements Iterator<E> {
+
+    private final int size;
+    private       int cursor = 0;
+
+    IndexIterator(int size) {
+      this.size = size;
+    }
+
+    abstract E get(int idx);
+
+    @Override
+    public boolean hasNext() {
+      return cursor < size;
+    }
+
+    @Override
+    public E next() {
+      if (cursor >= size) {
+        throw new NoSuchElementException();
+      }
+      return get(cursor++);
+    }
+  }
+
+  private static final class IndexEntry
+      implements Map.Entry<String, Object> {
+
+    private final String[] columns;
+    private final Object[] values;
+    private final int      idx;
+
+    private IndexEntry(String[] columns, Object[] values, int idx) {
+      this.columns = columns;
+      this.values = values;
+      this.idx = idx;
+    }
+
+    @Override
+    public String getKey() {
+      return columns[idx];
+    }
+
+    @Override
+    public Object getValue() {
+      return values[idx];
+    }
+
+    @Override
+    public Object setValue(Object value) {
+      final Object old = values[idx];
+      values[idx] = value;
+      return old;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+}
@@ -38,7 +38,7 @@ public class Record
    * @return Record
    */
   public Record set(String attr, Object value) {
-    super.put(attr, value);
+    this.put(attr, value);
     return this;
   }
 
@@ -51,7 +51,7 @@ public class Record
    * @return 属性值
    */
   public <T> T get(String attr, T defaultValue) {
-    final Object obj = super.get(attr);
+    final Object obj = this.get(attr);
     if (obj == null) {
       return defaultValue;
     }
@@ -71,7 +71,7 @@ public class Record
 
   @Override
   public Object getObj(String attr) {
-    return super.get(attr);
+    return this.get(attr);
   }
 
   @Override
@@ -0,0 +1,26 @@
+package work.myfavs.framework.orm.meta.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * 构造方法标记，用于不可变的实体类：查询结果通过该构造方法创建实体，而不是先创建实例再设置属性
+ * <p>
+ * 构造方法参数按 {@link #value()} 指定的属性名与属性匹配，未指定时使用编译时保留的参数名（-parameters）；
+ * 两者都没有时抛出异常，不按属性的声明顺序匹配（反射返回的字段顺序不确定）
+ *
+ * @author tanqimin
+ */
+@java.lang.annotation.Target({ElementType.CONSTRUCTOR})
+@java.lang.annotation.Retention(RetentionPolicy.RUNTIME)
+@java.lang.annotation.Documented
+public @interface Creator {
+
+  /**
+   * 构造方法参数对应的属性名，按参数顺序排列
+   *
+   * @return 属性名
+   */
+  String[] value() default {};
+
+}
@@ -27,6 +27,8 @@ public @interface Table {
    * 主键生成策略
    * <pre>
    * UUID : 值由系统字段生成;
+   * UUID_V7 : 按时间排序的 UUID，字段类型为 String 或 java.util.UUID;
+   * SEQUENCE : 序列（HiLo），主键 = 高位值 * allocationSize + 低位值;
    * IDENTITY : 数据库自增，值由数据库生成;
    * ASSIGNED : 自然主键，值由用户自定义;
    * COMPOSITE : 联合主键，值由用户自定义;
@@ -36,6 +38,21 @@ public @interface Table {
    */
   GenerationType strategy() default GenerationType.SNOW_FLAKE;
 
+  /**
+   * 序列名称，主键生成策略为 SEQUENCE 时使用，默认为""，即 数据表名称_seq
+   *
+   * @return 序列名称
+   */
+  String sequence() default "";
+
+  /**
+   * 每次从序列获取的主键数量，主键生成策略为 SEQUENCE 时使用；修改后需要调整序列的当前值，避免与已分配的主键重复；
+   * 共用同一序列的实体必须使用相同的值
+   *
+   * @return 主键数量
+   */
+  int allocationSize() default 50;
+
   /**
    * 逻辑删除字段
    *
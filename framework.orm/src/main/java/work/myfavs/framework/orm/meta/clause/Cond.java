@@ -7,11 +7,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 import java.util.function.Supplier;
 import work.myfavs.framework.orm.meta.annotation.Condition;
 import work.myfavs.framework.orm.meta.enumeration.Operator;
 import work.myfavs.framework.orm.meta.schema.ClassMeta;
+import work.myfavs.framework.orm.util.PKGenerator;
 
 /**
  * SQL 条件构建
@@ -277,6 +279,40 @@ public class Cond
     return new Cond(StrUtil.format(" {} BETWEEN ? AND ?", field), param1, param2);
   }
 
+  /**
+   * 创建 pkColumn BETWEEN ? AND ? 条件，查询指定时间范围（包含两端的毫秒）内生成的雪花主键，
+   * 使用主键索引的范围扫描代替创建时间字段的二级索引 如果 from 为 null，则构建 pkColumn &le; ? 条件 如果 to 为
+   * null，则构建 pkColumn &ge; ? 条件
+   *
+   * @param pkColumn 雪花主键字段
+   * @param from     开始时间
+   * @param to       结束时间
+   * @return Cond
+   */
+  public static Cond idCreatedBetween(String pkColumn,
+      Date from,
+      Date to) {
+
+    return between(pkColumn,
+        from == null ? null : PKGenerator.minSnowFlakeId(from.getTime()),
+        to == null ? null : PKGenerator.maxSnowFlakeId(to.getTime()));
+  }
+
+  /**
+   * 创建 pkColumn BETWEEN ? AND ? 条件，查询指定时间范围（毫秒，包含两端）内生成的雪花主键
+   *
+   * @param pkColumn 雪花主键字段
+   * @param from     开始时间戳（毫秒）
+   * @param to       结束时间戳（毫秒）
+   * @return Cond
+   */
+  public static Cond idCreatedBetween(String pkColumn,
+      long from,
+      long to) {
+
+    return between(pkColumn, PKGenerator.minSnowFlakeId(from), PKGenerator.maxSnowFlakeId(to));
+  }
+
   /**
    * 构建 field IN (?,?..?) 语句 如果 params 集合为空，则不构建语句 如果 params 集合数量为 1， 则构建语句 field = ? 如果 params
    * 集合数量大于 1， 则构建 field IN (?,?..?) 语句
@@ -328,6 +364,19 @@ public class Cond
     return new Cond(StrUtil.format(" {} IN ({})", field, sql), sqlParams);
   }
 
+  /**
+   * 构建 field = ANY(?) 条件，使用一个数组参数代替 IN 列表，语句文本与元素数量无关
+   *
+   * @param field 字段
+   * @param array 数组参数
+   * @return Cond
+   */
+  public static Cond any(String field,
+      SqlArray array) {
+
+    return new Cond(StrUtil.format(" {} = ANY(?)", field), array);
+  }
+
   /**
    * 构建 field IN ({sql}) 条件
    *
@@ -0,0 +1,60 @@
+package work.myfavs.framework.orm.meta.clause;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * 数组类型的SQL参数，执行时通过 {@link Connection#createArrayOf(String, Object[])} 创建
+ *
+ * @author tanqimin
+ */
+public final class SqlArray {
+
+  /**
+   * 数组元素的数据库类型名称，如 bigint、varchar
+   */
+  private final String   typeName;
+  /**
+   * 数组元素
+   */
+  private final Object[] elements;
+
+  public SqlArray(String typeName,
+      Object[] elements) {
+
+    this.typeName = typeName;
+    this.elements = elements;
+  }
+
+  public String getTypeName() {
+
+    return typeName;
+  }
+
+  public Object[] getElements() {
+
+    return elements;
+  }
+
+  /**
+   * 创建 JDBC 数组
+   *
+   * @param conn 数据库连接
+   * @return JDBC 数组
+   * @throws SQLException SQLException
+   */
+  public Array toArray(Connection conn)
+      throws SQLException {
+
+    return conn.createArrayOf(typeName, elements);
+  }
+
+  @Override
+  public String toString() {
+
+    return Arrays.toString(elements);
+  }
+
+}
@@ -0,0 +1,115 @@
+package work.myfavs.framework.orm.meta.dialect;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import work.myfavs.framework.orm.meta.clause.Sql;
+import work.myfavs.framework.orm.meta.enumeration.UpdateStrategy;
+
+/**
+ * SQL Server 各版本方言的公共实现：参数数量限制、批量更新方式、流式读取、MERGE 插入或更新及键集分页条件
+ *
+ * @author tanqimin
+ */
+abstract class AbstractSqlServerDialect
+    extends DefaultDialect {
+
+  private final static Logger log = LoggerFactory.getLogger(AbstractSqlServerDialect.class);
+
+  /**
+   * Microsoft JDBC 驱动的语句接口，驱动不存在时为 null
+   */
+  private final static Class<?> SQL_SERVER_STATEMENT   = loadStatementClass();
+  /**
+   * ISQLServerStatement.setResponseBuffering(String)
+   */
+  private final static Method   SET_RESPONSE_BUFFERING = loadSetResponseBuffering();
+
+  /**
+   * SQL Server 单个请求最多 2100 个参数，mssql-jdbc 通过 sp_prepexec / sp_executesql 执行预处理语句，
+   * 包装过程本身占用部分参数，所以语句中的占位符最多为 2098 个
+   *
+   * @return 最大参数数量
+   */
+  @Override
+  public int maxParameters() {
+
+    return 2098;
+  }
+
+  /**
+   * SQL Server 使用 JDBC 批处理更新
+   *
+   * @return 批量更新方式
+   */
+  @Override
+  public UpdateStrategy updateStrategy() {
+
+    return UpdateStrategy.JDBC_BATCH;
+  }
+
+  /**
+   * SQL Server 未开启 IDENTITY_INSERT 时不能显式插入自增主键，MERGE 插入记录时由数据库生成自增主键
+   */
+  @Override
+  public <TModel> String upsertBatch(Class<TModel> clazz,
+      int rows,
+      String[] columns,
+      boolean ignoreDuplicates) {
+
+    return mergeBatch(clazz, rows, columns, ignoreDuplicates, false);
+  }
+
+  /**
+   * SQL Server 驱动使用 adaptive 响应缓冲时，按需从服务器读取结果，不缓存全部结果
+   */
+  @Override
+  public void configureStreaming(Connection conn, Statement statement, int fetchSize)
+      throws SQLException {
+
+    statement.setFetchSize(fetchSize);
+    if (SET_RESPONSE_BUFFERING == null || !statement.isWrapperFor(SQL_SERVER_STATEMENT)) {
+      return;
+    }
+
+    try {
+      SET_RESPONSE_BUFFERING.invoke(statement.unwrap(SQL_SERVER_STATEMENT), "adaptive");
+    } catch (ReflectiveOperationException e) {
+      log.debug("Fail to set response buffering to adaptive, error message: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * SQL Server 不支持行值比较
+   */
+  @Override
+  protected Sql keysetCond(String[] orderKeys,
+      boolean descending,
+      Object[] after) {
+
+    return expandedKeysetCond(orderKeys, descending, after);
+  }
+
+  private static Class<?> loadStatementClass() {
+    try {
+      return Class.forName("com.microsoft.sqlserver.jdbc.ISQLServerStatement");
+    } catch (ClassNotFoundException | LinkageError e) {
+      return null;
+    }
+  }
+
+  private static Method loadSetResponseBuffering() {
+    if (SQL_SERVER_STATEMENT == null) {
+      return null;
+    }
+    try {
+      return SQL_SERVER_STATEMENT.getMethod("setResponseBuffering", String.class);
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+}
@@ -2,18 +2,34 @@ package work.myfavs.framework.orm.meta.dialect;
 
 import cn.hutool.core.util.ReflectUtil;
 import cn.hutool.core.util.StrUtil;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import work.myfavs.framework.orm.meta.clause.Cond;
 import work.myfavs.framework.orm.meta.clause.Sql;
+import work.myfavs.framework.orm.meta.clause.SqlArray;
 import work.myfavs.framework.orm.meta.dialect.SqlCache.Opt;
 import work.myfavs.framework.orm.meta.enumeration.GenerationType;
+import work.myfavs.framework.orm.meta.enumeration.UpdateStrategy;
 import work.myfavs.framework.orm.meta.schema.Attribute;
 import work.myfavs.framework.orm.meta.schema.Attributes;
 import work.myfavs.framework.orm.meta.schema.ClassMeta;
 import work.myfavs.framework.orm.meta.schema.Metadata;
+import work.myfavs.framework.orm.util.exception.DBException;
 
 
 /**
@@ -49,6 +65,65 @@ public abstract class DefaultDialect
   @Override
   public abstract String getDialectName();
 
+  /**
+   * 默认使用较保守的参数数量
+   *
+   * @return 最大参数数量
+   */
+  @Override
+  public int maxParameters() {
+
+    return 2100;
+  }
+
+  /**
+   * 默认使用 CASE WHEN 语句，减少数据库往返次数
+   *
+   * @return 批量更新方式
+   */
+  @Override
+  public UpdateStrategy updateStrategy() {
+
+    return UpdateStrategy.CASE_WHEN;
+  }
+
+  @Override
+  public void configureStreaming(Connection conn, Statement statement, int fetchSize)
+      throws SQLException {
+
+    statement.setFetchSize(fetchSize);
+  }
+
+  /**
+   * 默认使用标准序列语法 SELECT NEXT VALUE FOR sequence
+   */
+  @Override
+  public long nextHi(Connection conn, String sequenceName)
+      throws SQLException {
+
+    return queryLong(conn, "SELECT NEXT VALUE FOR " + sequenceName);
+  }
+
+  /**
+   * 执行查询并返回第一行第一列的值
+   *
+   * @param conn 数据库连接
+   * @param sql  SQL语句
+   * @return 查询结果
+   * @throws SQLException SQLException
+   */
+  protected static long queryLong(Connection conn, String sql)
+      throws SQLException {
+
+    try (Statement statement = conn.createStatement();
+        ResultSet rs = statement.executeQuery(sql)) {
+      if (!rs.next()) {
+        throw new SQLException("No value returned by: " + sql);
+      }
+      return rs.getLong(1);
+    }
+  }
+
   @Override
   public <TModel> Sql insert(Class<TModel> clazz, TModel model) {
 
@@ -107,6 +182,191 @@ public abstract class DefaultDialect
     });
   }
 
+  @Override
+  public <TModel> String insertBatch(Class<TModel> clazz, int rows) {
+
+    final ClassMeta classMeta = Metadata.get(clazz);
+    final String    tableName = TableAlias.getOpt().orElse(classMeta.getTableName());
+
+    return SqlCache.computeTextIfAbsent(clazz, Opt.INSERT, StrUtil.format("{}_{}", tableName, rows),
+        (key) -> insertRows(classMeta, tableName, rows, classMeta.getStrategy() != GenerationType.IDENTITY)
+            .toString());
+  }
+
+  /**
+   * 默认使用 MERGE 语句
+   */
+  @Override
+  public <TModel> String upsertBatch(Class<TModel> clazz,
+      int rows,
+      String[] columns,
+      boolean ignoreDuplicates) {
+
+    return mergeBatch(clazz, rows, columns, ignoreDuplicates);
+  }
+
+  /**
+   * 使用 MERGE 语句实现的多行插入或更新：
+   * <p>
+   * MERGE INTO table tgt USING (VALUES (?,?),(?,?)) src (id,f1) ON tgt.id = src.id WHEN MATCHED THEN UPDATE SET
+   * f1 = src.f1 WHEN NOT MATCHED THEN INSERT (id,f1) VALUES (src.id,src.f1);
+   *
+   * @param clazz            实体类Class
+   * @param rows             行数
+   * @param columns          主键已存在时需要更新的字段，为空时更新所有字段
+   * @param ignoreDuplicates 主键已存在时是否忽略该行（不更新）
+   * @param <TModel>         实体类类型
+   * @return SQL语句
+   */
+  protected <TModel> String mergeBatch(Class<TModel> clazz,
+      int rows,
+      String[] columns,
+      boolean ignoreDuplicates) {
+
+    return mergeBatch(clazz, rows, columns, ignoreDuplicates, true);
+  }
+
+  /**
+   * 使用 MERGE 语句实现的多行插入或更新
+   *
+   * @param clazz            实体类Class
+   * @param rows             行数
+   * @param columns          主键已存在时需要更新的字段，为空时更新所有字段
+   * @param ignoreDuplicates 主键已存在时是否忽略该行（不更新）
+   * @param identityInsert   自增主键的表插入时是否写入主键，为 false 时由数据库生成主键
+   * @param <TModel>         实体类类型
+   * @return SQL语句
+   */
+  protected <TModel> String mergeBatch(Class<TModel> clazz,
+      int rows,
+      String[] columns,
+      boolean ignoreDuplicates,
+      boolean identityInsert) {
+
+    final ClassMeta classMeta = Metadata.get(clazz);
+    final String    tableName = TableAlias.getOpt().orElse(classMeta.getTableName());
+    final boolean   insertPk  = identityInsert || classMeta.getStrategy() != GenerationType.IDENTITY;
+    final String    variant   = upsertVariant(tableName, rows, columns, ignoreDuplicates) + (insertPk ? "" : "_NO_PK");
+
+    return SqlCache.computeTextIfAbsent(clazz, Opt.UPSERT, variant, (key) -> {
+
+      final String          pkColumn   = classMeta.checkPrimaryKey().getColumnName();
+      final List<Attribute> updAttrs   = upsertAttributes(classMeta, columns, ignoreDuplicates);
+      final StringBuilder   srcColumns = new StringBuilder(pkColumn);
+      final StringBuilder   insColumns = new StringBuilder(insertPk ? pkColumn : "");
+      final StringBuilder   srcValues  = new StringBuilder(insertPk ? "src." + pkColumn : "");
+      final StringBuilder   row        = new StringBuilder("(?");
+      for (Attribute attr : classMeta.getUpdateAttributes().values()) {
+        srcColumns.append(",").append(attr.getColumnName());
+        insColumns.append(insColumns.length() > 0 ? "," : "").append(attr.getColumnName());
+        srcValues.append(srcValues.length() > 0 ? "," : "").append("src.").append(attr.getColumnName());
+        row.append(",?");
+      }
+      row.append(")");
+
+      final StringBuilder sql = new StringBuilder("MERGE INTO ").append(tableName).append(" tgt USING (VALUES ");
+      appendRows(sql, row, rows);
+      sql.append(") src (").append(srcColumns).append(") ON tgt.").append(pkColumn).append(" = src.").append(pkColumn);
+      if (!updAttrs.isEmpty()) {
+        sql.append(" WHEN MATCHED THEN UPDATE SET ");
+        for (int i = 0; i < updAttrs.size(); i++) {
+          final String col = updAttrs.get(i).getColumnName();
+          sql.append(i > 0 ? "," : "").append(col).append(" = src.").append(col);
+        }
+      }
+      //自动加入逻辑删除字段
+      if (classMeta.needAppendLogicalDeleteField()) {
+        insColumns.append(",").append(classMeta.getLogicalDeleteField());
+        srcValues.append(",0");
+      }
+      sql.append(" WHEN NOT MATCHED THEN INSERT (").append(insColumns).append(") VALUES (").append(srcValues).append(");");
+      return sql.toString();
+    });
+  }
+
+  /**
+   * 生成多行插入语句 INSERT INTO table (f1, f2) VALUES (?,?),(?,?)...
+   *
+   * @param classMeta      类元数据
+   * @param tableName      表名
+   * @param rows           行数
+   * @param withPrimaryKey 是否包含主键字段
+   * @return SQL语句
+   */
+  protected static StringBuilder insertRows(ClassMeta classMeta,
+      String tableName,
+      int rows,
+      boolean withPrimaryKey) {
+
+    final StringBuilder columns = new StringBuilder();
+    final StringBuilder values  = new StringBuilder("(");
+    if (withPrimaryKey) {
+      columns.append(classMeta.checkPrimaryKey().getColumnName()).append(",");
+      values.append("?,");
+    }
+    for (Attribute attr : classMeta.getUpdateAttributes().values()) {
+      columns.append(attr.getColumnName()).append(",");
+      values.append("?,");
+    }
+    //自动加入逻辑删除字段
+    if (classMeta.needAppendLogicalDeleteField()) {
+      columns.append(classMeta.getLogicalDeleteField()).append(",");
+      values.append("0,");
+    }
+    columns.setLength(columns.length() - 1);
+    values.setLength(values.length() - 1);
+    values.append(")");
+
+    final StringBuilder sql = new StringBuilder(tableName.length() + columns.length() + (values.length() + 1) * rows + 64);
+    sql.append("INSERT INTO ").append(tableName).append(" (").append(columns).append(") VALUES ");
+    appendRows(sql, values, rows);
+    return sql;
+  }
+
+  /**
+   * 获取插入或更新语句的缓存变体：方言、表名、行数、更新字段（排序后）或忽略标识，各数据库的语法不同，需要区分方言
+   */
+  protected String upsertVariant(String tableName,
+      int rows,
+      String[] columns,
+      boolean ignoreDuplicates) {
+
+    String cols;
+    if (ignoreDuplicates) {
+      cols = "!IGNORE";
+    } else if (columns == null || columns.length == 0) {
+      cols = "*";
+    } else {
+      cols = Arrays.stream(columns).map(StrUtil::trim).sorted().collect(Collectors.joining(","));
+    }
+    return StrUtil.format("{}_{}_{}_{}", getDialectName(), tableName, rows, cols);
+  }
+
+  /**
+   * 获取主键已存在时需要更新的字段，忽略模式下为空
+   */
+  protected static List<Attribute> upsertAttributes(ClassMeta classMeta,
+      String[] columns,
+      boolean ignoreDuplicates) {
+
+    if (ignoreDuplicates) {
+      return Collections.emptyList();
+    }
+    return classMeta.getUpdateAttributes(columns);
+  }
+
+  private static void appendRows(StringBuilder sql,
+      CharSequence row,
+      int rows) {
+
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        sql.append(",");
+      }
+      sql.append(row);
+    }
+  }
+
   @Override
   public <TModel> Sql update(Class<TModel> clazz,
       TModel model,
@@ -144,6 +404,123 @@ public abstract class DefaultDialect
     return sql;
   }
 
+  @Override
+  public <TModel> Sql update(Class<TModel> clazz,
+      String[] columns) {
+
+    final Function<String, Sql> func = (key) -> {
+
+      final ClassMeta       classMeta  = Metadata.get(clazz);
+      final String          tableName  = TableAlias.getOpt().orElse(classMeta.getTableName());
+      final Attribute       primaryKey = classMeta.checkPrimaryKey();
+      final List<Attribute> selected   = classMeta.getUpdateAttributes(columns);
+      if (selected.isEmpty()) {
+        throw new DBException("Could not match update attributes.");
+      }
+
+      final Sql sql = Sql.Update(tableName).append(" SET");
+      for (Attribute attr : classMeta.getUpdateAttributes().values()) {
+        if (selected.contains(attr)) {
+          sql.append(StrUtil.format(" {} = ?,", attr.getColumnName()));
+        }
+      }
+      sql.getSql().deleteCharAt(sql.getSql().lastIndexOf(","));
+      return sql.append(StrUtil.format(" WHERE {} = ?", primaryKey.getColumnName()));
+    };
+
+    //缓存Key不包含表名，使用表别名时不缓存
+    if (TableAlias.getOpt().isPresent()) {
+      return func.apply(null);
+    }
+    return SqlCache.computeIfAbsent(clazz, Opt.UPDATE, columns, func);
+  }
+
+  /**
+   * 元素数量补齐到 2 的幂（重复最后一个元素），语句文本最多只有 log2(最大参数数量) 种
+   */
+  @Override
+  public Cond in(String field,
+      Collection params) {
+
+    final List<Object> values = nonBlank(params);
+    final int          size   = values.size();
+    if (size > 1) {
+      final int padded = Integer.highestOneBit(size - 1) << 1;
+      if (padded <= maxParameters()) {
+        final Object last = values.get(size - 1);
+        for (int i = size; i < padded; i++) {
+          values.add(last);
+        }
+      }
+    }
+    return Cond.in(field, values, false);
+  }
+
+  /**
+   * 使用 field = ANY(?) 数组参数构建 IN 条件，元素类型不支持时返回 null
+   *
+   * @param field  字段
+   * @param params 元素集合
+   * @return Cond
+   */
+  protected Cond anyArray(String field,
+      Collection params) {
+
+    final List<Object> values = nonBlank(params);
+    if (values.size() < 2) {
+      return Cond.in(field, values, false);
+    }
+
+    final Class<?> elementClass = values.get(0).getClass();
+    for (Object value : values) {
+      if (value.getClass() != elementClass) {
+        return null;
+      }
+    }
+    final String typeName = arrayTypeName(elementClass);
+    if (typeName == null) {
+      return null;
+    }
+    return Cond.any(field, new SqlArray(typeName, values.toArray()));
+  }
+
+  /**
+   * 获取数组元素的数据库类型名称
+   *
+   * @param elementClass 元素类型
+   * @return 数据库类型名称，不支持时返回 null
+   */
+  protected String arrayTypeName(Class<?> elementClass) {
+
+    if (elementClass == Long.class) {
+      return "BIGINT";
+    } else if (elementClass == Integer.class) {
+      return "INTEGER";
+    } else if (elementClass == Short.class) {
+      return "SMALLINT";
+    } else if (elementClass == String.class) {
+      return "VARCHAR";
+    } else if (elementClass == UUID.class) {
+      return "UUID";
+    } else if (elementClass == BigDecimal.class) {
+      return "NUMERIC";
+    }
+    return null;
+  }
+
+  private static List<Object> nonBlank(Collection params) {
+
+    final List<Object> values = new ArrayList<>(params == null ? 0 : params.size());
+    if (params != null) {
+      for (Object param : params) {
+        if (!StrUtil.isBlankIfStr(param)) {
+          values.add(param);
+        }
+      }
+    }
+    return values;
+  }
+
   @Override
   public <TModel> Sql delete(Class<TModel> clazz) {
 
@@ -152,6 +529,132 @@ public abstract class DefaultDialect
     return Sql.Delete(tableName);
   }
 
+  /**
+   * 默认使用 LIMIT ?
+   */
+  @Override
+  public Sql selectSlice(String sql,
+      Collection params,
+      String[] orderKeys,
+      boolean descending,
+      Object[] after,
+      int limit) {
+
+    return new Sql("SELECT * FROM ")
+        .append(sliceSource(sql, params, orderKeys, descending, after))
+        .append(" LIMIT ?", limit);
+  }
+
+  /**
+   * 构建 (sql) slice_alias WHERE ... ORDER BY k1, k2
+   *
+   * @param sql        SQL语句
+   * @param params     参数
+   * @param orderKeys  排序字段
+   * @param descending 是否降序
+   * @param after      上一页最后一行的排序字段值，为 null 时不加条件
+   * @return Sql对象
+   */
+  protected Sql sliceSource(String sql,
+      Collection params,
+      String[] orderKeys,
+      boolean descending,
+      Object[] after) {
+
+    final int orderBy = topLevelOrderBy(sql);
+    if (orderBy >= 0) {
+      sql = sql.substring(0, orderBy);
+    }
+
+    final Sql querySql = new Sql("(").append(sql, params).append(") slice_alias");
+    if (after != null) {
+      querySql.append(" WHERE ").append(keysetCond(orderKeys, descending, after));
+    }
+    final String direction = descending ? " DESC" : "";
+    querySql.append(" ORDER BY ");
+    for (int i = 0; i < orderKeys.length; i++) {
+      querySql.append(i > 0 ? ", " : "").append(orderKeys[i]).append(direction);
+    }
+    return querySql;
+  }
+
+  /**
+   * 查找最外层（不在括号及字符串中）的最后一个 ORDER BY 子句的位置，子查询或窗口函数中的 ORDER BY 不计在内
+   *
+   * @param sql SQL语句
+   * @return ORDER BY 子句前空白的位置，不存在时返回 -1
+   */
+  protected int topLevelOrderBy(String sql) {
+
+    final int[] depths = new int[sql.length() + 1];
+    int         depth  = 0;
+    boolean     quoted = false;
+    for (int i = 0; i < sql.length(); i++) {
+      depths[i] = quoted ? -1 : depth;
+      final char c = sql.charAt(i);
+      if (c == '\'') {
+        quoted = !quoted;
+      } else if (!quoted && c == '(') {
+        depth++;
+      } else if (!quoted && c == ')') {
+        depth--;
+      }
+    }
+
+    int     result = -1;
+    Matcher om     = P_ORDER.matcher(sql);
+    while (om.find()) {
+      if (depths[om.start()] == 0) {
+        result = om.start();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * 构建键集条件，默认使用行值比较 (k1, k2) &gt; (?, ?)
+   *
+   * @param orderKeys  排序字段
+   * @param descending 是否降序，降序时使用 &lt;
+   * @param after      上一页最后一行的排序字段值
+   * @return Sql对象
+   */
+  protected Sql keysetCond(String[] orderKeys,
+      boolean descending,
+      Object[] after) {
+
+    final String operator = descending ? " < " : " > ";
+    if (orderKeys.length == 1) {
+      return new Sql(orderKeys[0] + operator + "?", after[0]);
+    }
+    return new Sql(StrUtil.format("({}){}({})", String.join(", ", orderKeys), operator,
+        StrUtil.repeatAndJoin("?", orderKeys.length, ", ")), Arrays.asList(after));
+  }
+
+  /**
+   * 构建展开的键集条件 (k1 &gt; ? OR (k1 = ? AND k2 &gt; ?))，用于不支持行值比较的数据库
+   *
+   * @param orderKeys  排序字段
+   * @param descending 是否降序，降序时使用 &lt;
+   * @param after      上一页最后一行的排序字段值
+   * @return Sql对象
+   */
+  protected static Sql expandedKeysetCond(String[] orderKeys,
+      boolean descending,
+      Object[] after) {
+
+    final String operator = descending ? " < ?" : " > ?";
+    final Sql    cond     = new Sql("(");
+    for (int i = 0; i < orderKeys.length; i++) {
+      cond.append(i > 0 ? " OR (" : "(");
+      for (int j = 0; j < i; j++) {
+        cond.append(orderKeys[j] + " = ? AND ", after[j]);
+      }
+      cond.append(orderKeys[i] + operator, after[i]).append(")");
+    }
+    return cond.append(")");
+  }
+
   @Override
   public Sql count(String sql,
       Collection params) {
@@ -1,7 +1,12 @@
 package work.myfavs.framework.orm.meta.dialect;
 
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
 import work.myfavs.framework.orm.meta.DbType;
+import work.myfavs.framework.orm.meta.clause.Cond;
 
 /**
  * @author tanqimin
@@ -15,4 +20,47 @@ public class H2Dialect
     return DbType.H2;
   }
 
+  /**
+   * H2 按 fetchSize 分批读取，不使用 MySQL 的逐行流式读取
+   */
+  @Override
+  public void configureStreaming(Connection conn, Statement statement, int fetchSize)
+      throws SQLException {
+
+    statement.setFetchSize(fetchSize);
+  }
+
+  /**
+   * H2 支持标准序列语法，不使用 MySQL 的 hi 表
+   */
+  @Override
+  public long nextHi(Connection conn, String sequenceName)
+      throws SQLException {
+
+    return queryLong(conn, "SELECT NEXT VALUE FOR " + sequenceName);
+  }
+
+  /**
+   * H2 非 MySQL 兼容模式时不支持 ON DUPLICATE KEY UPDATE，使用 MERGE 语句
+   */
+  @Override
+  public <TModel> String upsertBatch(Class<TModel> clazz,
+      int rows,
+      String[] columns,
+      boolean ignoreDuplicates) {
+
+    return mergeBatch(clazz, rows, columns, ignoreDuplicates);
+  }
+
+  /**
+   * H2 使用 field = ANY(?) 数组参数，元素类型不支持时补齐到 2 的幂
+   */
+  @Override
+  public Cond in(String field,
+      Collection params) {
+
+    final Cond cond = anyArray(field, params);
+    return cond == null ? super.in(field, params) : cond;
+  }
+
 }
@@ -1,14 +1,24 @@
 package work.myfavs.framework.orm.meta.dialect;
 
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collection;
+import work.myfavs.framework.orm.meta.clause.Cond;
 import work.myfavs.framework.orm.meta.clause.Sql;
+import work.myfavs.framework.orm.meta.enumeration.UpdateStrategy;
 
 /**
  * 通用数据库方言接口 Created by tanqimin on 2015/11/3.
  */
 public interface IDialect {
 
+  /**
+   * 不支持序列的数据库用于保存高位值的表：name VARCHAR 主键, next_hi BIGINT
+   */
+  String HI_TABLE = "myfavs_sequence";
+
   /**
    * 获取数据库方言名称
    *
@@ -16,6 +26,13 @@ public interface IDialect {
    */
   String getDialectName();
 
+  /**
+   * 获取单条语句允许的最大参数数量，用于计算批量语句每条包含的行数
+   *
+   * @return 最大参数数量
+   */
+  int maxParameters();
+
   /**
    * 获取插入语句（带参数）
    *
@@ -35,6 +52,32 @@ public interface IDialect {
    */
   <TModel> Sql insert(Class<TModel> clazz);
 
+  /**
+   * 获取多行插入语句 INSERT INTO table (f1, f2) VALUES (?,?),(?,?)...，按 (实体类, 表名, 行数) 缓存
+   * <p>
+   * 参数顺序与 {@link #insert(Class)} 一致：主键（非自增时）、更新字段
+   *
+   * @param clazz    实体类Class
+   * @param rows     行数
+   * @param <TModel> 实体类类型
+   * @return SQL语句
+   */
+  <TModel> String insertBatch(Class<TModel> clazz, int rows);
+
+  /**
+   * 获取多行插入或更新语句，主键已存在时更新指定字段，按 (实体类, 表名, 行数, 更新字段, 是否忽略) 缓存
+   * <p>
+   * 参数顺序：主键、更新字段，无论主键策略是否为自增，主键都作为参数
+   *
+   * @param clazz            实体类Class
+   * @param rows             行数
+   * @param columns          主键已存在时需要更新的字段，为空时更新所有字段
+   * @param ignoreDuplicates 主键已存在时是否忽略该行（不更新）
+   * @param <TModel>         实体类类型
+   * @return SQL语句
+   */
+  <TModel> String upsertBatch(Class<TModel> clazz, int rows, String[] columns, boolean ignoreDuplicates);
+
   /**
    * 获取所有记录语句
    *
@@ -73,6 +116,20 @@ public interface IDialect {
    */
   Sql selectTop(int currentPage, int pageSize, String sql, Collection params);
 
+  /**
+   * 返回键集分页（seek）查询语句 SELECT * FROM (sql) slice_alias WHERE (k1, k2) &gt; (?, ?) ORDER BY k1, k2 LIMIT ?，
+   * 通过排序字段的索引定位到上一页之后，不需要扫描并丢弃前面的记录
+   *
+   * @param sql        SQL语句，其中的 ORDER BY 子句会被移除
+   * @param params     参数
+   * @param orderKeys  排序字段，为 sql 结果集中的字段名，组合起来必须唯一
+   * @param descending 是否降序
+   * @param after      上一页最后一行的排序字段值，为 null 时返回第一页
+   * @param limit      返回的最大记录数
+   * @return Sql对象
+   */
+  Sql selectSlice(String sql, Collection params, String[] orderKeys, boolean descending, Object[] after, int limit);
+
   /**
    * 获取更新语句
    *
@@ -84,6 +141,36 @@ public interface IDialect {
    */
   <TModel> Sql update(Class<TModel> clazz, TModel model, boolean ignoreNullValue);
 
+  /**
+   * 获取更新指定字段的语句（不带参数）UPDATE table SET f1 = ?, f2 = ? WHERE id = ?，按字段集合缓存
+   * <p>
+   * 字段按实体更新字段的顺序排列，与传入顺序无关；参数顺序：字段值、主键
+   *
+   * @param clazz    实体类Class
+   * @param columns  需要更新的字段
+   * @param <TModel> 实体类类型
+   * @return Sql对象
+   */
+  <TModel> Sql update(Class<TModel> clazz, String[] columns);
+
+  /**
+   * 获取批量更新实体的默认方式，{@link work.myfavs.framework.orm.DBConfig#getUpdateStrategy()} 为 {@link UpdateStrategy#AUTO} 时使用
+   *
+   * @return 批量更新方式，不能为 {@link UpdateStrategy#AUTO}
+   */
+  UpdateStrategy updateStrategy();
+
+  /**
+   * 构建 IN 条件，由数据库方言决定参数形式，使不同元素数量的语句文本种类有限，便于复用语句缓存与执行计划
+   * <p>
+   * 元素集合为空时构建 1 &gt; 2 条件
+   *
+   * @param field  字段
+   * @param params 元素集合
+   * @return Cond
+   */
+  Cond in(String field, Collection params);
+
   /**
    * 获取删除实体语句
    *
@@ -93,4 +180,31 @@ public interface IDialect {
    */
   <TModel> Sql delete(Class<TModel> clazz);
 
+  /**
+   * 配置流式读取，使结果集按 fetchSize 分批从数据库服务器读取，而不是由驱动缓存全部结果
+   * <p>
+   * 部分数据库需要修改连接的自动提交状态，调用方负责在读取结束后恢复
+   *
+   * @param conn      数据库连接
+   * @param statement 查询语句
+   * @param fetchSize 每批读取的行数
+   * @throws SQLException SQLException
+   */
+  void configureStreaming(Connection conn, Statement statement, int fetchSize)
+      throws SQLException;
+
+  /**
+   * 从数据库序列获取下一个高位值，用于 {@link work.myfavs.framework.orm.meta.enumeration.GenerationType#SEQUENCE}
+   * 主键按块分配；不支持序列的数据库使用 hi 表 {@value #HI_TABLE} (name, next_hi)
+   * <p>
+   * 序列的步长必须为 1，调用方使用单独的自动提交连接，使获取的值不随业务事务回滚
+   *
+   * @param conn         数据库连接
+   * @param sequenceName 序列名称
+   * @return 高位值
+   * @throws SQLException SQLException
+   */
+  long nextHi(Connection conn, String sequenceName)
+      throws SQLException;
+
 }
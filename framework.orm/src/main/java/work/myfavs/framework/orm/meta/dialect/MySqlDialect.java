@@ -1,9 +1,19 @@
 package work.myfavs.framework.orm.meta.dialect;
 
 
+import cn.hutool.core.util.StrUtil;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collection;
+import java.util.List;
 import work.myfavs.framework.orm.meta.DbType;
 import work.myfavs.framework.orm.meta.clause.Sql;
+import work.myfavs.framework.orm.meta.dialect.SqlCache.Opt;
+import work.myfavs.framework.orm.meta.schema.Attribute;
+import work.myfavs.framework.orm.meta.schema.ClassMeta;
+import work.myfavs.framework.orm.meta.schema.Metadata;
 
 /**
  * @author tanqimin
@@ -17,6 +27,78 @@ public class MySqlDialect
     return DbType.MYSQL;
   }
 
+  /**
+   * MySQL 预处理语句的占位符最多为 65535 个
+   *
+   * @return 最大参数数量
+   */
+  @Override
+  public int maxParameters() {
+
+    return 65535;
+  }
+
+  /**
+   * MySQL 驱动默认缓存全部结果，连接参数 useCursorFetch=true 时使用服务端游标按 fetchSize 分批读取，
+   * 否则使用 Integer.MIN_VALUE 逐行流式读取（读取结束前该连接不能执行其他语句）
+   */
+  @Override
+  public void configureStreaming(Connection conn, Statement statement, int fetchSize)
+      throws SQLException {
+
+    if (StrUtil.containsIgnoreCase(conn.getMetaData().getURL(), "useCursorFetch=true")) {
+      statement.setFetchSize(fetchSize);
+    } else {
+      statement.setFetchSize(Integer.MIN_VALUE);
+    }
+  }
+
+  /**
+   * MySQL 不支持序列，使用 hi 表：不存在时插入 1，否则加 1，通过 LAST_INSERT_ID(expr) 在同一连接中读取新值
+   */
+  @Override
+  public long nextHi(Connection conn, String sequenceName)
+      throws SQLException {
+
+    try (PreparedStatement ps = conn.prepareStatement("INSERT INTO " + HI_TABLE + " (name, next_hi) VALUES (?, LAST_INSERT_ID(1))"
+        + " ON DUPLICATE KEY UPDATE next_hi = LAST_INSERT_ID(next_hi + 1)")) {
+      ps.setString(1, sequenceName);
+      ps.executeUpdate();
+    }
+    return queryLong(conn, "SELECT LAST_INSERT_ID()");
+  }
+
+  /**
+   * INSERT INTO table (id, f1) VALUES (?,?),(?,?) ON DUPLICATE KEY UPDATE f1 = VALUES(f1)
+   * <p>
+   * 忽略模式使用 id = id 而不是 INSERT IGNORE，避免同时忽略其他错误；已存在的行是否计入影响行数取决于驱动的
+   * CLIENT_FOUND_ROWS 设置（Connector/J 默认计为 1，useAffectedRows=true 时计为 0）
+   */
+  @Override
+  public <TModel> String upsertBatch(Class<TModel> clazz,
+      int rows,
+      String[] columns,
+      boolean ignoreDuplicates) {
+
+    final ClassMeta classMeta = Metadata.get(clazz);
+    final String    tableName = TableAlias.getOpt().orElse(classMeta.getTableName());
+
+    return SqlCache.computeTextIfAbsent(clazz, Opt.UPSERT, upsertVariant(tableName, rows, columns, ignoreDuplicates), (key) -> {
+
+      final List<Attribute> updAttrs = upsertAttributes(classMeta, columns, ignoreDuplicates);
+      final StringBuilder   sql      = insertRows(classMeta, tableName, rows, true).append(" ON DUPLICATE KEY UPDATE ");
+      if (updAttrs.isEmpty()) {
+        final String pkColumn = classMeta.checkPrimaryKey().getColumnName();
+        return sql.append(pkColumn).append(" = ").append(pkColumn).toString();
+      }
+      for (int i = 0; i < updAttrs.size(); i++) {
+        final String col = updAttrs.get(i).getColumnName();
+        sql.append(i > 0 ? "," : "").append(col).append(" = VALUES(").append(col).append(")");
+      }
+      return sql.toString();
+    });
+  }
+
   @Override
   public Sql selectTop(int currentPage,
       int pageSize,
@@ -1,7 +1,17 @@
 package work.myfavs.framework.orm.meta.dialect;
 
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
 import work.myfavs.framework.orm.meta.DbType;
+import work.myfavs.framework.orm.meta.clause.Cond;
+import work.myfavs.framework.orm.meta.dialect.SqlCache.Opt;
+import work.myfavs.framework.orm.meta.schema.Attribute;
+import work.myfavs.framework.orm.meta.schema.ClassMeta;
+import work.myfavs.framework.orm.meta.schema.Metadata;
 
 /**
  * @author tanqimin
@@ -15,4 +25,78 @@ public class PostgreSQLDialect
     return DbType.POSTGRE_SQL;
   }
 
+  /**
+   * 旧版本 PostgreSQL 驱动使用 short 表示参数数量，最多为 32767 个
+   *
+   * @return 最大参数数量
+   */
+  @Override
+  public int maxParameters() {
+
+    return Short.MAX_VALUE;
+  }
+
+  /**
+   * PostgreSQL 驱动只有在关闭自动提交时才使用游标按 fetchSize 分批读取
+   */
+  @Override
+  public void configureStreaming(Connection conn, Statement statement, int fetchSize)
+      throws SQLException {
+
+    if (conn.getAutoCommit()) {
+      conn.setAutoCommit(false);
+    }
+    statement.setFetchSize(fetchSize);
+  }
+
+  /**
+   * SELECT nextval('sequence')
+   */
+  @Override
+  public long nextHi(Connection conn, String sequenceName)
+      throws SQLException {
+
+    return queryLong(conn, "SELECT nextval('" + sequenceName + "')");
+  }
+
+  /**
+   * INSERT INTO table (id, f1) VALUES (?,?),(?,?) ON CONFLICT (id) DO UPDATE SET f1 = EXCLUDED.f1
+   */
+  @Override
+  public <TModel> String upsertBatch(Class<TModel> clazz,
+      int rows,
+      String[] columns,
+      boolean ignoreDuplicates) {
+
+    final ClassMeta classMeta = Metadata.get(clazz);
+    final String    tableName = TableAlias.getOpt().orElse(classMeta.getTableName());
+
+    return SqlCache.computeTextIfAbsent(clazz, Opt.UPSERT, upsertVariant(tableName, rows, columns, ignoreDuplicates), (key) -> {
+
+      final List<Attribute> updAttrs = upsertAttributes(classMeta, columns, ignoreDuplicates);
+      final StringBuilder   sql      = insertRows(classMeta, tableName, rows, true)
+          .append(" ON CONFLICT (").append(classMeta.checkPrimaryKey().getColumnName()).append(")");
+      if (updAttrs.isEmpty()) {
+        return sql.append(" DO NOTHING").toString();
+      }
+      sql.append(" DO UPDATE SET ");
+      for (int i = 0; i < updAttrs.size(); i++) {
+        final String col = updAttrs.get(i).getColumnName();
+        sql.append(i > 0 ? "," : "").append(col).append(" = EXCLUDED.").append(col);
+      }
+      return sql.toString();
+    });
+  }
+
+  /**
+   * PostgreSQL 使用 field = ANY(?) 数组参数，元素类型不支持时补齐到 2 的幂
+   */
+  @Override
+  public Cond in(String field,
+      Collection params) {
+
+    final Cond cond = anyArray(field, params);
+    return cond == null ? super.in(field, params) : cond;
+  }
+
 }
@@ -16,6 +16,10 @@ import work.myfavs.framework.orm.meta.clause.Sql;
 public final class SqlCache {
 
   private final static Map<String, Sql> CACHE = new ConcurrentHashMap<>();
+  /**
+   * 不带参数的SQL语句文本缓存，String 不可变，无需打包
+   */
+  private final static Map<String, String> TEXT_CACHE = new ConcurrentHashMap<>();
 
   private SqlCache() {
   }
@@ -58,8 +62,24 @@ public final class SqlCache {
     return computeIfAbsent(clazz, opt, null, func);
   }
 
+  /**
+   * 获取不带参数的SQL语句文本，如果不存在则创建并缓存
+   *
+   * @param clazz   实体类
+   * @param opt     SQL 操作类型
+   * @param variant 语句变体，如表名与行数
+   * @param func    创建SQL语句文本的方法
+   * @return SQL语句文本
+   */
+  public static String computeTextIfAbsent(Class<?> clazz, Opt opt, String variant,
+      Function<String, String> func) {
+    final String key = StrUtil.format("{}_{}_{}", clazz.getName(), opt.name(), variant);
+    return TEXT_CACHE.computeIfAbsent(key, func);
+  }
+
   public static void clear() {
     CACHE.clear();
+    TEXT_CACHE.clear();
   }
 
   private static String getKey(Class<?> clazz, Opt opt, String[] columns) {
@@ -105,6 +125,10 @@ public final class SqlCache {
     /**
      * 删除
      */
-    DELETE;
+    DELETE,
+    /**
+     * 插入或更新
+     */
+    UPSERT;
   }
 }
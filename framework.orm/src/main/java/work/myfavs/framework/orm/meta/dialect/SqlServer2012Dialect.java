@@ -9,7 +9,7 @@ import work.myfavs.framework.orm.meta.clause.Sql;
  * @author tanqimin
  */
 public class SqlServer2012Dialect
-    extends DefaultDialect {
+    extends AbstractSqlServerDialect {
 
   @Override
   public String getDialectName() {
@@ -17,6 +17,22 @@ public class SqlServer2012Dialect
     return DbType.SQL_SERVER_2012;
   }
 
+  /**
+   * SELECT * FROM (sql) slice_alias WHERE ... ORDER BY ... OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY
+   */
+  @Override
+  public Sql selectSlice(String sql,
+      Collection params,
+      String[] orderKeys,
+      boolean descending,
+      Object[] after,
+      int limit) {
+
+    return new Sql("SELECT * FROM ")
+        .append(sliceSource(sql, params, orderKeys, descending, after))
+        .append(" OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY", limit);
+  }
+
   @Override
   public Sql selectTop(int currentPage,
       int pageSize,
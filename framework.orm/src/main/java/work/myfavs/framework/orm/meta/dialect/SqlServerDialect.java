@@ -1,5 +1,9 @@
 package work.myfavs.framework.orm.meta.dialect;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Collection;
 import java.util.regex.Matcher;
 import work.myfavs.framework.orm.meta.DbType;
@@ -10,7 +14,7 @@ import work.myfavs.framework.orm.meta.clause.Sql;
  * @author tanqimin
  */
 public class SqlServerDialect
-    extends DefaultDialect {
+    extends AbstractSqlServerDialect {
 
   @Override
   public String getDialectName() {
@@ -18,6 +22,43 @@ public class SqlServerDialect
     return DbType.SQL_SERVER;
   }
 
+  /**
+   * SQL Server 2012 之前不支持序列，使用 hi 表：MERGE 不存在时插入 1，否则加 1，并通过 OUTPUT 返回新值
+   */
+  @Override
+  public long nextHi(Connection conn, String sequenceName)
+      throws SQLException {
+
+    try (PreparedStatement ps = conn.prepareStatement("MERGE " + HI_TABLE + " WITH (HOLDLOCK) AS t"
+        + " USING (SELECT ? AS name) AS s ON t.name = s.name"
+        + " WHEN MATCHED THEN UPDATE SET next_hi = t.next_hi + 1"
+        + " WHEN NOT MATCHED THEN INSERT (name, next_hi) VALUES (s.name, 1)"
+        + " OUTPUT INSERTED.next_hi;")) {
+      ps.setString(1, sequenceName);
+      try (ResultSet rs = ps.executeQuery()) {
+        if (!rs.next()) {
+          throw new SQLException("No value returned from " + HI_TABLE + " for " + sequenceName);
+        }
+        return rs.getLong(1);
+      }
+    }
+  }
+
+  /**
+   * SELECT TOP (?) * FROM (sql) slice_alias WHERE ... ORDER BY ...
+   */
+  @Override
+  public Sql selectSlice(String sql,
+      Collection params,
+      String[] orderKeys,
+      boolean descending,
+      Object[] after,
+      int limit) {
+
+    return new Sql("SELECT TOP (?) * FROM ", limit)
+        .append(sliceSource(sql, params, orderKeys, descending, after));
+  }
+
   @Override
   public Sql selectTop(int currentPage,
       int pageSize,
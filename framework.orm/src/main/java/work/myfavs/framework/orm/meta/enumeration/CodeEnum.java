@@ -0,0 +1,19 @@
+package work.myfavs.framework.orm.meta.enumeration;
+
+/**
+ * 使用数值编码存储的枚举，实现该接口的枚举以 {@link #getCode()} 存储到数据库（如 TINYINT 字段），而不是枚举名称
+ * <p>
+ * 同一个枚举的编码不允许重复
+ *
+ * @author tanqimin
+ */
+public interface CodeEnum {
+
+  /**
+   * 获取枚举值对应的数据库编码
+   *
+   * @return 数据库编码
+   */
+  int getCode();
+
+}
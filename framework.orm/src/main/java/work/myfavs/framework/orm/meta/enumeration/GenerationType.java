@@ -7,10 +7,18 @@ public enum GenerationType {
    * UUID，值由系统字段生成
    */
   UUID,
+  /**
+   * 按时间排序的 UUID（版本7），由程序生成字段，插入位置集中在索引末尾
+   */
+  UUID_V7,
   /**
    * 雪花算法生成，由程序生成字段
    */
   SNOW_FLAKE,
+  /**
+   * 序列（HiLo），由程序按块从数据库序列获取高位值并在内存中分配，可以使用批量插入
+   */
+  SEQUENCE,
   /**
    * 数据库自增，值由数据库生成
    */
@@ -25,10 +33,14 @@ public enum GenerationType {
     switch (this) {
       case SNOW_FLAKE:
         return "GenerationType.SNOW_FLAKE";
+      case SEQUENCE:
+        return "GenerationType.SEQUENCE";
       case IDENTITY:
         return "GenerationType.IDENTITY";
       case UUID:
         return "GenerationType.UUID";
+      case UUID_V7:
+        return "GenerationType.UUID_V7";
       case ASSIGNED:
         return "GenerationType.ASSIGNED";
       default:
@@ -0,0 +1,22 @@
+package work.myfavs.framework.orm.meta.enumeration;
+
+/**
+ * 批量更新实体的方式
+ *
+ * @author tanqimin
+ */
+public enum UpdateStrategy {
+  /**
+   * 由数据库方言决定，见 {@link work.myfavs.framework.orm.meta.dialect.IDialect#updateStrategy()}
+   */
+  AUTO,
+  /**
+   * 每批实体生成一条 UPDATE table SET f1 = CASE id WHEN ? THEN ? ... END WHERE id IN (...) 语句，
+   * 数据库往返次数少，但语句文本随行数变化，且数据库需要计算 行数 × 字段数 的 CASE 表达式
+   */
+  CASE_WHEN,
+  /**
+   * 使用固定的 UPDATE table SET f1 = ? WHERE id = ? 语句，通过 JDBC 批处理执行，语句文本不变，便于复用语句缓存
+   */
+  JDBC_BATCH
+}
@@ -29,6 +29,27 @@ public abstract class PropertyHandler<T> {
                             Class<T> clazz)
       throws SQLException;
 
+  /**
+   * 把ResultSet的值转换为指定类型对象，按列序号读取，避免驱动每次按列名查找
+   * <p>
+   * 默认实现转换为列名后调用 {@link #convert(ResultSet, String, Class)}，自定义的类型处理器应覆盖此方法
+   *
+   * @param rs          ResultSet
+   * @param columnIndex 列序号，从 1 开始
+   * @param clazz       类型
+   *
+   * @return 对象
+   *
+   * @throws SQLException SQLException
+   */
+  public T convert(ResultSet rs,
+                   int columnIndex,
+                   Class<T> clazz)
+      throws SQLException {
+
+    return convert(rs, rs.getMetaData().getColumnLabel(columnIndex), clazz);
+  }
+
   /**
    * 把对象作为参数添加到Statement
    *
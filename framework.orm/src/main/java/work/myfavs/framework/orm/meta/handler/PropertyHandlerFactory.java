@@ -9,6 +9,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
+import work.myfavs.framework.orm.meta.clause.SqlArray;
 import work.myfavs.framework.orm.meta.handler.impls.*;
 
 public class PropertyHandlerFactory {
@@ -94,6 +95,15 @@ public class PropertyHandlerFactory {
     return (T) getInstance(tClass).convert(rs, columnName, tClass);
   }
 
+  @SuppressWarnings("unchecked")
+  public static <T> T convert(ResultSet rs,
+                              int columnIndex,
+                              Class<T> tClass)
+      throws SQLException {
+
+    return (T) getInstance(tClass).convert(rs, columnIndex, tClass);
+  }
+
   @SuppressWarnings("unchecked")
   public static void addParameter(PreparedStatement ps,
                                   int index,
@@ -105,6 +115,11 @@ public class PropertyHandlerFactory {
       return;
     }
 
+    if (param instanceof SqlArray) {
+      ps.setArray(index, ((SqlArray) param).toArray(ps.getConnection()));
+      return;
+    }
+
     getInstance(param.getClass()).addParameter(ps, index, param);
   }
 
@@ -27,6 +27,18 @@ public class BigDecimalPropertyHandler
         : i;
   }
 
+  @Override
+  public BigDecimal convert(ResultSet rs,
+                            int columnIndex,
+                            Class<BigDecimal> clazz)
+      throws SQLException {
+
+    BigDecimal i = rs.getBigDecimal(columnIndex);
+    return rs.wasNull()
+        ? null
+        : i;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
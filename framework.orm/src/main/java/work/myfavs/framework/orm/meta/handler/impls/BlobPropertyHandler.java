@@ -22,6 +22,18 @@ public class BlobPropertyHandler
         : i;
   }
 
+  @Override
+  public Blob convert(ResultSet rs,
+                      int columnIndex,
+                      Class<Blob> clazz)
+      throws SQLException {
+
+    Blob i = rs.getBlob(columnIndex);
+    return rs.wasNull()
+        ? null
+        : i;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
@@ -41,6 +41,24 @@ public class BooleanPropertyHandler
     return i;
   }
 
+  @Override
+  public Boolean convert(ResultSet rs,
+                         int columnIndex,
+                         Class<Boolean> clazz)
+      throws SQLException {
+
+    boolean i = rs.getBoolean(columnIndex);
+    if (rs.wasNull()) {
+      if (isPrimitive) {
+        return false;
+      } else {
+        return null;
+      }
+    }
+
+    return i;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
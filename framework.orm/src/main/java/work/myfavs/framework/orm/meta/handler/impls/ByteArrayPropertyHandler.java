@@ -25,6 +25,19 @@ public class ByteArrayPropertyHandler
         : val;
   }
 
+  @Override
+  public byte[] convert(ResultSet rs,
+                        int columnIndex,
+                        Class<byte[]> clazz)
+      throws SQLException {
+
+    byte[] val = rs.getBytes(columnIndex);
+
+    return rs.wasNull()
+        ? null
+        : val;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
@@ -40,6 +40,23 @@ public class BytePropertyHandler
     return i;
   }
 
+  @Override
+  public Byte convert(ResultSet rs,
+                      int columnIndex,
+                      Class<Byte> clazz)
+      throws SQLException {
+
+    byte i = rs.getByte(columnIndex);
+    if (rs.wasNull()) {
+      if (isPrimitive) {
+        return 0;
+      } else {
+        return null;
+      }
+    }
+    return i;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
@@ -22,6 +22,18 @@ public class ClobPropertyHandler
         : i;
   }
 
+  @Override
+  public Clob convert(ResultSet rs,
+                      int columnIndex,
+                      Class<Clob> clazz)
+      throws SQLException {
+
+    Clob i = rs.getClob(columnIndex);
+    return rs.wasNull()
+        ? null
+        : i;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
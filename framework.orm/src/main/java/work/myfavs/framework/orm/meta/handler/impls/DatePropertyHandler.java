@@ -22,6 +22,18 @@ public class DatePropertyHandler
         : new Date(date.getTime());
   }
 
+  @Override
+  public Date convert(ResultSet rs,
+                      int columnIndex,
+                      Class<Date> clazz)
+      throws SQLException {
+
+    Timestamp date = rs.getTimestamp(columnIndex);
+    return rs.wasNull()
+        ? null
+        : new Date(date.getTime());
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
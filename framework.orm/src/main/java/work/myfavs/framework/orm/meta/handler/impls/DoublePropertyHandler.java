@@ -53,6 +53,23 @@ public class DoublePropertyHandler
     return i;
   }
 
+  @Override
+  public Double convert(ResultSet rs,
+                        int columnIndex,
+                        Class<Double> clazz)
+      throws SQLException {
+
+    double i = rs.getDouble(columnIndex);
+    if (rs.wasNull()) {
+      if (isPrimitive) {
+        return 0.0d;
+      } else {
+        return null;
+      }
+    }
+    return i;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
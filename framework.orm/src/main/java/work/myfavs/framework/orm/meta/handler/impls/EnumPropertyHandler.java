@@ -1,27 +1,94 @@
 package work.myfavs.framework.orm.meta.handler.impls;
 
-import cn.hutool.core.util.EnumUtil;
-import cn.hutool.core.util.StrUtil;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+import work.myfavs.framework.orm.meta.enumeration.CodeEnum;
 import work.myfavs.framework.orm.meta.handler.PropertyHandler;
+import work.myfavs.framework.orm.util.exception.DBException;
 
 /**
+ * 枚举解析器，每个枚举类型预先建立 名称/序号/编码 - 枚举值 的查找表
+ * <p>
+ * 默认实现 {@link CodeEnum} 的枚举按编码存储，其他枚举按名称存储（写入 {@link Enum#toString()}，与以前的版本一致，
+ * 读取时按 {@link Enum#name()} 查找，因此不应覆盖 toString）；
+ * 如需按序号存储，可为指定枚举注册 {@code new EnumPropertyHandler(Mode.ORDINAL)}
+ * <p>
  * Created by tanqimin on 2016/1/29.
  */
 public class EnumPropertyHandler
     extends PropertyHandler<Object> {
 
+  /**
+   * 枚举存储方式
+   */
+  public enum Mode {
+    /**
+     * 实现 {@link CodeEnum} 的枚举按编码存储，其他枚举按名称存储
+     */
+    AUTO,
+    /**
+     * 按名称存储
+     */
+    NAME,
+    /**
+     * 按序号存储
+     */
+    ORDINAL,
+    /**
+     * 按 {@link CodeEnum#getCode()} 存储
+     */
+    CODE
+  }
+
+  private final static ClassValue<Lookup> LOOKUPS = new ClassValue<Lookup>() {
+    @Override
+    protected Lookup computeValue(Class<?> type) {
+      return new Lookup(type);
+    }
+  };
+
+  private final Mode mode;
+
+  public EnumPropertyHandler() {
+    this(Mode.AUTO);
+  }
+
+  public EnumPropertyHandler(Mode mode) {
+    this.mode = mode;
+  }
+
   @Override
-  @SuppressWarnings("unchecked")
   public Object convert(ResultSet rs,
       String columnName,
       Class clazz)
       throws SQLException {
 
-    return EnumUtil.fromStringQuietly(clazz, rs.getString(columnName));
+    final Lookup lookup = LOOKUPS.get(clazz);
+    if (lookup.mode(mode) == Mode.NAME) {
+      return lookup.byName(rs.getString(columnName));
+    }
+
+    final int value = rs.getInt(columnName);
+    return rs.wasNull() ? null : lookup.byNumber(mode, value);
+  }
+
+  @Override
+  public Object convert(ResultSet rs,
+      int columnIndex,
+      Class clazz)
+      throws SQLException {
+
+    final Lookup lookup = LOOKUPS.get(clazz);
+    if (lookup.mode(mode) == Mode.NAME) {
+      return lookup.byName(rs.getString(columnIndex));
+    }
+
+    final int value = rs.getInt(columnIndex);
+    return rs.wasNull() ? null : lookup.byNumber(mode, value);
   }
 
   @Override
@@ -31,10 +98,117 @@ public class EnumPropertyHandler
       throws SQLException {
 
     if (param == null) {
-      ps.setNull(paramIndex, Types.VARCHAR);
+      switch (mode) {
+        case NAME:
+          ps.setNull(paramIndex, Types.VARCHAR);
+          break;
+        case ORDINAL:
+        case CODE:
+          ps.setNull(paramIndex, Types.INTEGER);
+          break;
+        default:
+          //无法判断枚举是否实现 CodeEnum，由驱动推断类型
+          ps.setObject(paramIndex, null);
+      }
       return;
     }
-    ps.setString(paramIndex, StrUtil.toString(param));
+
+    final Enum<?> e = (Enum<?>) param;
+    switch (LOOKUPS.get(e.getDeclaringClass()).mode(mode)) {
+      case ORDINAL:
+        ps.setInt(paramIndex, e.ordinal());
+        break;
+      case CODE:
+        ps.setInt(paramIndex, ((CodeEnum) e).getCode());
+        break;
+      default:
+        ps.setString(paramIndex, e.toString());
+    }
+  }
+
+  /**
+   * 枚举查找表
+   */
+  private static final class Lookup {
+
+    /**
+     * 编码查找数组的最大长度，编码范围超出时使用 Map 查找
+     */
+    private final static int MAX_CODE_ARRAY_SIZE = 1024;
+
+    private final Enum<?>[]             values;
+    private final Map<String, Enum<?>>  names;
+    private final boolean               coded;
+    /**
+     * 编码 - 枚举值，编码为 0 ~ MAX_CODE_ARRAY_SIZE 时使用
+     */
+    private final Enum<?>[]             codeArray;
+    /**
+     * 编码 - 枚举值，编码范围超出数组时使用
+     */
+    private final Map<Integer, Enum<?>> codeMap;
+
+    private Lookup(Class<?> clazz) {
+      this.values = (Enum<?>[]) clazz.getEnumConstants();
+      this.names = new HashMap<>(values.length * 4 / 3 + 1);
+      for (Enum<?> value : values) {
+        names.put(value.name(), value);
+      }
+
+      this.coded = CodeEnum.class.isAssignableFrom(clazz);
+      if (!coded) {
+        this.codeArray = null;
+        this.codeMap = null;
+        return;
+      }
+
+      int min = Integer.MAX_VALUE;
+      int max = Integer.MIN_VALUE;
+      for (Enum<?> value : values) {
+        min = Math.min(min, ((CodeEnum) value).getCode());
+        max = Math.max(max, ((CodeEnum) value).getCode());
+      }
+
+      final Map<Integer, Enum<?>> map = new HashMap<>(values.length * 4 / 3 + 1);
+      for (Enum<?> value : values) {
+        if (map.put(((CodeEnum) value).getCode(), value) != null) {
+          throw new DBException("Duplicate code {} of enum {}", ((CodeEnum) value).getCode(), clazz.getName());
+        }
+      }
+
+      if (values.length > 0 && min >= 0 && max < MAX_CODE_ARRAY_SIZE) {
+        this.codeArray = new Enum<?>[max + 1];
+        map.forEach((code, value) -> codeArray[code] = value);
+        this.codeMap = null;
+      } else {
+        this.codeArray = null;
+        this.codeMap = map;
+      }
+    }
+
+    private Mode mode(Mode mode) {
+      if (mode != Mode.AUTO) {
+        return mode;
+      }
+      return coded ? Mode.CODE : Mode.NAME;
+    }
+
+    private Enum<?> byName(String name) {
+      return name == null ? null : names.get(name);
+    }
+
+    private Enum<?> byNumber(Mode mode, int value) {
+      if (mode(mode) == Mode.ORDINAL) {
+        return value >= 0 && value < values.length ? values[value] : null;
+      }
+      if (!coded) {
+        throw new DBException("Enum {} must implements CodeEnum", values.getClass().getComponentType().getName());
+      }
+      if (codeArray != null) {
+        return value >= 0 && value < codeArray.length ? codeArray[value] : null;
+      }
+      return codeMap.get(value);
+    }
   }
 
 }
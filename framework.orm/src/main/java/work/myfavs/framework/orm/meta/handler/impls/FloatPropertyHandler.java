@@ -53,6 +53,23 @@ public class FloatPropertyHandler
     return i;
   }
 
+  @Override
+  public Float convert(ResultSet rs,
+                       int columnIndex,
+                       Class<Float> clazz)
+      throws SQLException {
+
+    float i = rs.getFloat(columnIndex);
+    if (rs.wasNull()) {
+      if (isPrimitive) {
+        return 0.0f;
+      } else {
+        return null;
+      }
+    }
+    return i;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
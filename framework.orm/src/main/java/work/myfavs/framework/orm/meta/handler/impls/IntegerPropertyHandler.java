@@ -53,6 +53,23 @@ public class IntegerPropertyHandler
     return i;
   }
 
+  @Override
+  public Integer convert(ResultSet rs,
+                         int columnIndex,
+                         Class<Integer> clazz)
+      throws SQLException {
+
+    int i = rs.getInt(columnIndex);
+    if (rs.wasNull()) {
+      if (isPrimitive) {
+        return 0;
+      } else {
+        return null;
+      }
+    }
+    return i;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
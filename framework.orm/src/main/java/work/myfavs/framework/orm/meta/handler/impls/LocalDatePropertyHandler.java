@@ -20,6 +20,19 @@ public class LocalDatePropertyHandler
     return val.toLocalDate();
   }
 
+  @Override
+  public LocalDate convert(ResultSet rs,
+                           int columnIndex,
+                           Class<LocalDate> clazz)
+      throws SQLException {
+
+    Date val = rs.getDate(columnIndex);
+    if (rs.wasNull()) {
+      return null;
+    }
+    return val.toLocalDate();
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
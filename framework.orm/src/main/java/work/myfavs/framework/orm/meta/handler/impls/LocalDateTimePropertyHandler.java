@@ -20,6 +20,19 @@ public class LocalDateTimePropertyHandler
     return val.toLocalDateTime();
   }
 
+  @Override
+  public LocalDateTime convert(ResultSet rs,
+                               int columnIndex,
+                               Class<LocalDateTime> clazz)
+      throws SQLException {
+
+    Timestamp val = rs.getTimestamp(columnIndex);
+    if (rs.wasNull()) {
+      return null;
+    }
+    return val.toLocalDateTime();
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
@@ -24,6 +24,19 @@ public class LocalTimePropertyHandler
     return val.toLocalTime();
   }
 
+  @Override
+  public LocalTime convert(ResultSet rs,
+                           int columnIndex,
+                           Class<LocalTime> clazz)
+      throws SQLException {
+
+    Time val = rs.getTime(columnIndex);
+    if (rs.wasNull()) {
+      return null;
+    }
+    return val.toLocalTime();
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
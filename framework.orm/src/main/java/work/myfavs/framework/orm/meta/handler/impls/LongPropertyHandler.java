@@ -53,6 +53,23 @@ public class LongPropertyHandler
     return i;
   }
 
+  @Override
+  public Long convert(ResultSet rs,
+                      int columnIndex,
+                      Class<Long> clazz)
+      throws SQLException {
+
+    long i = rs.getLong(columnIndex);
+    if (rs.wasNull()) {
+      if (isPrimitive) {
+        return 0L;
+      } else {
+        return null;
+      }
+    }
+    return i;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
@@ -24,6 +24,18 @@ public class ObjectPropertyHandler
         : val;
   }
 
+  @Override
+  public Object convert(ResultSet rs,
+                        int columnIndex,
+                        Class<Object> clazz)
+      throws SQLException {
+
+    Object val = rs.getObject(columnIndex);
+    return rs.wasNull()
+        ? null
+        : val;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
@@ -23,6 +23,16 @@ public class OffsetDateTimePropertyHandler extends PropertyHandler<OffsetDateTim
     return offsetDateTime;
   }
 
+  @Override
+  public OffsetDateTime convert(ResultSet rs, int columnIndex, Class<OffsetDateTime> clazz)
+      throws SQLException {
+    final OffsetDateTime offsetDateTime = rs.getObject(columnIndex, OffsetDateTime.class);
+    if (rs.wasNull()) {
+      return null;
+    }
+    return offsetDateTime;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps, int paramIndex, OffsetDateTime param)
       throws SQLException {
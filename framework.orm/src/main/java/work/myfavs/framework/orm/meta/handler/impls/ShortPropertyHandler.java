@@ -52,6 +52,23 @@ public class ShortPropertyHandler
     return i;
   }
 
+  @Override
+  public Short convert(ResultSet rs,
+                       int columnIndex,
+                       Class<Short> clazz)
+      throws SQLException {
+
+    short i = rs.getShort(columnIndex);
+    if (rs.wasNull()) {
+      if (isPrimitive) {
+        return 0;
+      } else {
+        return null;
+      }
+    }
+    return i;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
                            int paramIndex,
@@ -35,6 +35,16 @@ public class StringPropertyHandler
     return rs.wasNull() ? null : str;
   }
 
+  @Override
+  public String convert(ResultSet rs,
+      int columnIndex,
+      Class<String> clazz)
+      throws SQLException {
+
+    final String str = rs.getString(columnIndex);
+    return rs.wasNull() ? null : str;
+  }
+
   @Override
   public void addParameter(PreparedStatement ps,
       int paramIndex,
@@ -0,0 +1,190 @@
+package work.myfavs.framework.orm.meta.pagination;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+import work.myfavs.framework.orm.util.exception.DBException;
+
+/**
+ * 键集分页游标，把上一页最后一行的排序字段值编码为 URL 安全的字符串
+ * <p>
+ * 每个值按 类型标记 + 值 写入，解码时只创建固定的几种类型，不使用 Java 反序列化，可以安全地接收客户端传回的游标；
+ * 排序字段值不能为空（k &gt; NULL 不匹配任何记录），BigDecimal 的精度与小数位数有上限
+ *
+ * @author tanqimin
+ */
+public final class Cursor {
+
+  private final static byte LONG            = 1;
+  private final static byte INTEGER         = 2;
+  private final static byte STRING          = 3;
+  private final static byte BIG_DECIMAL     = 4;
+  private final static byte DATE            = 5;
+  private final static byte TIMESTAMP       = 6;
+  private final static byte LOCAL_DATE      = 7;
+  private final static byte LOCAL_DATE_TIME = 8;
+  private final static byte UUID_VALUE      = 9;
+  private final static byte BOOLEAN         = 10;
+  private final static byte DOUBLE          = 11;
+
+  /**
+   * 解码 BigDecimal 时允许的最大精度与小数位数（绝对值），避免客户端传入 1E+999999999 之类的值
+   */
+  private final static int MAX_DECIMAL_DIGITS = 128;
+
+  private Cursor() {
+
+  }
+
+  /**
+   * 是否支持作为游标的排序字段类型
+   *
+   * @param type 字段类型
+   * @return 支持时返回 true
+   */
+  public static boolean isSupported(Class<?> type) {
+
+    return type == long.class || type == int.class || type == short.class || type == byte.class
+        || type == boolean.class || type == double.class || type == float.class
+        || type == Long.class || type == Integer.class || type == Short.class || type == Byte.class
+        || type == Boolean.class || type == Double.class || type == Float.class
+        || type == String.class || type == BigDecimal.class || type == UUID.class
+        || type == LocalDate.class || type == LocalDateTime.class || Date.class.isAssignableFrom(type);
+  }
+
+  /**
+   * 编码排序字段值
+   *
+   * @param values 排序字段值
+   * @return 游标
+   */
+  public static String encode(Object[] values) {
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(values.length);
+      for (Object value : values) {
+        write(out, value);
+      }
+    } catch (IOException e) {
+      throw new DBException(e, "游标编码失败，错误信息：");
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+  }
+
+  /**
+   * 解码排序字段值
+   *
+   * @param cursor 游标
+   * @return 排序字段值
+   */
+  public static Object[] decode(String cursor) {
+
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+      final Object[] values = new Object[in.readUnsignedByte()];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = read(in);
+      }
+      if (in.available() > 0) {
+        throw new DBException("无效的游标：{}", cursor);
+      }
+      return values;
+    } catch (IOException | IllegalArgumentException e) {
+      throw new DBException(e, "无效的游标：{}", cursor);
+    }
+  }
+
+  private static void write(DataOutputStream out,
+      Object value)
+      throws IOException {
+
+    if (value == null) {
+      throw new DBException("键集分页的排序字段值不能为空");
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      out.writeByte(INTEGER);
+      out.writeInt(((Number) value).intValue());
+    } else if (value instanceof String) {
+      out.writeByte(STRING);
+      out.writeUTF((String) value);
+    } else if (value instanceof BigDecimal) {
+      out.writeByte(BIG_DECIMAL);
+      out.writeUTF(value.toString());
+    } else if (value instanceof Timestamp) {
+      out.writeByte(TIMESTAMP);
+      out.writeLong(((Timestamp) value).getTime());
+      out.writeInt(((Timestamp) value).getNanos());
+    } else if (value instanceof Date) {
+      out.writeByte(DATE);
+      out.writeLong(((Date) value).getTime());
+    } else if (value instanceof LocalDate) {
+      out.writeByte(LOCAL_DATE);
+      out.writeUTF(value.toString());
+    } else if (value instanceof LocalDateTime) {
+      out.writeByte(LOCAL_DATE_TIME);
+      out.writeUTF(value.toString());
+    } else if (value instanceof UUID) {
+      out.writeByte(UUID_VALUE);
+      out.writeLong(((UUID) value).getMostSignificantBits());
+      out.writeLong(((UUID) value).getLeastSignificantBits());
+    } else if (value instanceof Boolean) {
+      out.writeByte(BOOLEAN);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof Double || value instanceof Float) {
+      out.writeByte(DOUBLE);
+      out.writeDouble(((Number) value).doubleValue());
+    } else {
+      throw new DBException("不支持作为游标的排序字段类型：{}", value.getClass().getName());
+    }
+  }
+
+  private static Object read(DataInputStream in)
+      throws IOException {
+
+    final byte type = in.readByte();
+    switch (type) {
+      case LONG:
+        return in.readLong();
+      case INTEGER:
+        return in.readInt();
+      case STRING:
+        return in.readUTF();
+      case BIG_DECIMAL:
+        final BigDecimal decimal = new BigDecimal(in.readUTF());
+        if (decimal.precision() > MAX_DECIMAL_DIGITS || Math.abs(decimal.scale()) > MAX_DECIMAL_DIGITS) {
+          throw new IOException("Decimal value out of range");
+        }
+        return decimal;
+      case DATE:
+        return new Date(in.readLong());
+      case TIMESTAMP:
+        final Timestamp timestamp = new Timestamp(in.readLong());
+        timestamp.setNanos(in.readInt());
+        return timestamp;
+      case LOCAL_DATE:
+        return LocalDate.parse(in.readUTF());
+      case LOCAL_DATE_TIME:
+        return LocalDateTime.parse(in.readUTF());
+      case UUID_VALUE:
+        return new UUID(in.readLong(), in.readLong());
+      case BOOLEAN:
+        return in.readBoolean();
+      case DOUBLE:
+        return in.readDouble();
+      default:
+        throw new IOException("Unknown value type " + type);
+    }
+  }
+
+}
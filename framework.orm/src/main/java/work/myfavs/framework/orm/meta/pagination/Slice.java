@@ -0,0 +1,123 @@
+package work.myfavs.framework.orm.meta.pagination;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 键集分页（seek）结果，不计算总记录数，通过游标读取下一页
+ *
+ * @param <TModel> 分页数据泛型
+ */
+public class Slice<TModel>
+    implements Serializable {
+
+  //region Attributes
+  private List<TModel> data     = new ArrayList<>();
+  private long         pageSize = 20;
+  private boolean      hasNext  = false;
+  /**
+   * 下一页的游标，没有下一页时为 null
+   */
+  private String       nextCursor;
+  //endregion
+
+  //region Getter && Setter
+  public List<TModel> getData() {
+
+    return data;
+  }
+
+  public void setData(List<TModel> data) {
+
+    this.data = data;
+  }
+
+  public long getPageSize() {
+
+    return pageSize;
+  }
+
+  public void setPageSize(long pageSize) {
+
+    this.pageSize = pageSize;
+  }
+
+  public boolean isHasNext() {
+
+    return hasNext;
+  }
+
+  public void setHasNext(boolean hasNext) {
+
+    this.hasNext = hasNext;
+  }
+
+  public String getNextCursor() {
+
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+
+    this.nextCursor = nextCursor;
+  }
+  //endregion
+
+  //region Constructor
+  private Slice() {
+
+  }
+  //endregion
+
+  /**
+   * 创建键集分页对象实例
+   *
+   * @param data       分页数据
+   * @param pageSize   每页记录数
+   * @param nextCursor 下一页的游标，没有下一页时为 null
+   * @param <TModel>   分页数据泛型
+   * @return 键集分页对象
+   */
+  public static <TModel> Slice<TModel> createInstance(List<TModel> data,
+      long pageSize,
+      String nextCursor) {
+
+    Slice<TModel> instance = new Slice<>();
+    instance.setData(data);
+    instance.setPageSize(pageSize);
+    instance.setNextCursor(nextCursor);
+    instance.setHasNext(nextCursor != null);
+    return instance;
+  }
+
+  /**
+   * 转换键集分页对象数据，游标保持不变
+   *
+   * @param data     分页数据
+   * @param <TOther> 分页数据类型泛型
+   * @return 新分页数据
+   */
+  public <TOther> Slice<TOther> convert(List<TOther> data) {
+
+    return createInstance(data, this.getPageSize(), this.getNextCursor());
+  }
+
+  /**
+   * 转换键集分页对象数据，游标保持不变
+   *
+   * @param fun      转换Function
+   * @param <TOther> 分页数据类型泛型
+   * @return 新分页数据
+   */
+  public <TOther> Slice<TOther> convert(Function<TModel, TOther> fun) {
+
+    List<TOther> list = new ArrayList<>(this.getData().size());
+    for (TModel item : this.getData()) {
+      list.add(fun.apply(item));
+    }
+    return convert(list);
+  }
+
+}
@@ -1,7 +1,12 @@
 package work.myfavs.framework.orm.meta.schema;
 
+import cn.hutool.core.convert.BasicType;
+import cn.hutool.core.util.ReflectUtil;
 import cn.hutool.core.util.StrUtil;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -35,6 +40,10 @@ public class Attribute
    * 类 属性类型
    */
   private Class<?> fieldType;
+  /**
+   * 类 属性类型（基本类型转换为包装类型）
+   */
+  private Class<?> wrappedFieldType;
   /**
    * 是否只读？
    */
@@ -48,6 +57,15 @@ public class Attribute
    * 类型处理器
    */
   private PropertyHandler propertyHandler = null;
+
+  /**
+   * 属性设置器，为 null 时使用反射设置属性值
+   */
+  private transient MethodHandle setter = null;
+  /**
+   * 属性读取器，签名为 (Object)Object，无法访问时为 null
+   */
+  private transient MethodHandle getter = null;
   //endregion
 
   //region Getter && Setter
@@ -99,20 +117,94 @@ public class Attribute
       attribute = new Attribute();
       attribute.fieldName = field.getName();
       attribute.fieldType = field.getType();
+      attribute.wrappedFieldType = BasicType.wrap(field.getType());
       attribute.readonly = column.readonly();
       attribute.primaryKey = isPrimaryKey(field);
       attribute.columnName = StrUtil.isEmpty(column.value())
           ? StrUtil.toUnderlineCase(field.getName())
           : column.value();
       attribute.propertyHandler = PropertyHandlerFactory.getInstance(field.getType());
+      attribute.setter = createSetter(field);
+      attribute.getter = createGetter(field);
     }
     return attribute;
   }
 
+  /**
+   * 为指定字段创建 (Object, Object)void 签名的属性设置器，无法访问时返回 null
+   *
+   * @param field 指定字段
+   * @return 属性设置器
+   */
+  private static MethodHandle createSetter(Field field) {
+    try {
+      field.setAccessible(true);
+      return MethodHandles.lookup().unreflectSetter(field)
+          .asType(MethodType.methodType(void.class, Object.class, Object.class));
+    } catch (IllegalAccessException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * 为指定字段创建 (Object)Object 签名的属性读取器，无法访问时返回 null
+   *
+   * @param field 指定字段
+   * @return 属性读取器
+   */
+  private static MethodHandle createGetter(Field field) {
+    try {
+      field.setAccessible(true);
+      return MethodHandles.lookup().unreflectGetter(field)
+          .asType(MethodType.methodType(Object.class, Object.class));
+    } catch (IllegalAccessException | RuntimeException e) {
+      return null;
+    }
+  }
+
   private static boolean isPrimaryKey(Field field) {
     return field.getAnnotation(PrimaryKey.class) != null;
   }
 
+  /**
+   * 设置实体的属性值，值类型与属性类型一致时使用 MethodHandle，否则使用反射（带类型转换）
+   *
+   * @param model 实体
+   * @param value 属性值
+   */
+  public void setValue(Object model, Object value) {
+
+    if (setter != null && (value == null
+        ? !fieldType.isPrimitive()
+        : wrappedFieldType.isInstance(value))) {
+      try {
+        setter.invokeExact(model, value);
+        return;
+      } catch (Throwable ex) {
+        throw new DBException(ex);
+      }
+    }
+    ReflectUtil.setFieldValue(model, fieldName, value);
+  }
+
+  /**
+   * 获取实体的属性值，优先使用 MethodHandle，否则使用反射
+   *
+   * @param model 实体
+   * @return 属性值
+   */
+  public Object getValue(Object model) {
+
+    if (getter != null) {
+      try {
+        return (Object) getter.invokeExact(model);
+      } catch (Throwable ex) {
+        throw new DBException(ex);
+      }
+    }
+    return ReflectUtil.getFieldValue(model, fieldName);
+  }
+
   public Object value(ResultSet rs) {
 
     try {
@@ -122,4 +214,20 @@ public class Attribute
     }
   }
 
+  /**
+   * 按列序号读取 ResultSet 当前行的值
+   *
+   * @param rs          ResultSet
+   * @param columnIndex 列序号，从 1 开始
+   * @return 属性值
+   */
+  public Object value(ResultSet rs, int columnIndex) {
+
+    try {
+      return this.propertyHandler.convert(rs, columnIndex, fieldType);
+    } catch (SQLException ex) {
+      throw new DBException(ex);
+    }
+  }
+
 }
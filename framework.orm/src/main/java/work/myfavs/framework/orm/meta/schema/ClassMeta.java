@@ -3,8 +3,12 @@ package work.myfavs.framework.orm.meta.schema;
 import cn.hutool.core.util.ReflectUtil;
 import cn.hutool.core.util.StrUtil;
 import java.io.Serializable;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
 import java.util.List;
+import work.myfavs.framework.orm.meta.annotation.Creator;
 import work.myfavs.framework.orm.meta.annotation.Table;
 import work.myfavs.framework.orm.meta.enumeration.GenerationType;
 import work.myfavs.framework.orm.util.exception.DBException;
@@ -36,6 +40,14 @@ public class ClassMeta implements Serializable {
    * 主键生成策略
    */
   private GenerationType strategy;
+  /**
+   * 序列名称
+   */
+  private String sequenceName;
+  /**
+   * 每次从序列获取的主键数量
+   */
+  private int allocationSize;
   /**
    * 主键
    */
@@ -56,6 +68,14 @@ public class ClassMeta implements Serializable {
    * 查询字段
    */
   private Attributes queryAttributes = new Attributes();
+  /**
+   * 用于创建不可变实体的构造方法，为 null 时使用无参构造方法并设置属性
+   */
+  private transient Constructor<?> creator;
+  /**
+   * 构造方法参数对应的属性，按参数顺序排列
+   */
+  private Attribute[] creatorAttributes;
 
   //endregion
 
@@ -80,6 +100,16 @@ public class ClassMeta implements Serializable {
     return strategy;
   }
 
+  public String getSequenceName() {
+
+    return sequenceName;
+  }
+
+  public int getAllocationSize() {
+
+    return allocationSize;
+  }
+
   public Attribute getPrimaryKey() {
 
     return primaryKey;
@@ -109,6 +139,16 @@ public class ClassMeta implements Serializable {
     return logicalDeleteField;
   }
 
+  public Constructor<?> getCreator() {
+
+    return creator;
+  }
+
+  public Attribute[] getCreatorAttributes() {
+
+    return creatorAttributes;
+  }
+
   //endregion
 
   //region Constructor
@@ -128,6 +168,10 @@ public class ClassMeta implements Serializable {
       this.tableName = StrUtil.isEmpty(table.value())
           ? StrUtil.toUnderlineCase(clazz.getSimpleName())
           : table.value();
+      this.sequenceName = StrUtil.isEmpty(table.sequence())
+          ? this.tableName + "_seq"
+          : table.sequence();
+      this.allocationSize = table.allocationSize();
       this.enableLogicalDelete = StrUtil.isNotEmpty(table.logicalDeleteField());
       this.logicalDeleteField = table.logicalDeleteField();
     }
@@ -138,12 +182,14 @@ public class ClassMeta implements Serializable {
       return;
     }
 
+    final List<Attribute> declaredAttrs = new ArrayList<>();
     for (Field field : fields) {
       final Attribute attr = Attribute.createInstance(field);
       if (attr == null) {
         continue;
       }
 
+      declaredAttrs.add(attr);
       this.queryAttributes.put(attr.getColumnName(), attr);
 
       if (attr.isReadonly()) {
@@ -156,9 +202,112 @@ public class ClassMeta implements Serializable {
         this.updateAttributes.put(attr.getColumnName(), attr);
       }
     }
+
+    resolveCreator(clazz, declaredAttrs);
   }
   //endregion
 
+  /**
+   * 解析用于创建实体的构造方法：优先使用 {@link Creator} 标记的构造方法；
+   * 没有无参构造方法时，使用参数与属性一一对应的构造方法（如全参构造方法），该构造方法必须保留参数名（-parameters），
+   * 否则无法确定参数对应的属性，需要使用 {@code @Creator({...})} 指定
+   *
+   * @param clazz         类型
+   * @param declaredAttrs 属性
+   */
+  private void resolveCreator(Class<?> clazz, List<Attribute> declaredAttrs) {
+
+    if (declaredAttrs.isEmpty()) {
+      return;
+    }
+
+    final Constructor<?>[] ctors = clazz.getDeclaredConstructors();
+    for (Constructor<?> ctor : ctors) {
+      final Creator annotation = ctor.getAnnotation(Creator.class);
+      if (annotation == null) {
+        continue;
+      }
+
+      if (annotation.value().length == 0 && !isNamePresent(ctor)) {
+        throw new DBException("The parameter names of @Creator constructor in class [{}] are not compiled in, "
+            + "specify the field names by @Creator({...}) or compile with -parameters", getClassName());
+      }
+      final Attribute[] attrs = matchCreator(ctor, annotation.value());
+      if (attrs == null) {
+        throw new DBException("The parameters of @Creator constructor in class [{}] could not match the columns",
+            getClassName());
+      }
+      this.creator = ctor;
+      this.creatorAttributes = attrs;
+      return;
+    }
+
+    for (Constructor<?> ctor : ctors) {
+      if (ctor.getParameterCount() == 0) {
+        return;
+      }
+    }
+
+    boolean unnamed = false;
+    for (Constructor<?> ctor : ctors) {
+      if (ctor.getParameterCount() != declaredAttrs.size()) {
+        continue;
+      }
+      //字段的反射顺序不确定，没有参数名时不按顺序猜测
+      if (!isNamePresent(ctor)) {
+        unnamed = true;
+        continue;
+      }
+      final Attribute[] attrs = matchCreator(ctor, new String[0]);
+      if (attrs != null) {
+        this.creator = ctor;
+        this.creatorAttributes = attrs;
+        return;
+      }
+    }
+
+    if (unnamed) {
+      throw new DBException("Could not match the constructor parameters of class [{}] without parameter names, "
+          + "specify the field names by @Creator({...}) or compile with -parameters", getClassName());
+    }
+  }
+
+  private static boolean isNamePresent(Constructor<?> ctor) {
+
+    for (Parameter param : ctor.getParameters()) {
+      if (!param.isNamePresent()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * 匹配构造方法参数与属性，参数类型必须与属性类型一致
+   *
+   * @param ctor       构造方法
+   * @param fieldNames 参数对应的属性名，为空时使用参数名
+   * @return 参数对应的属性，无法匹配时返回 null
+   */
+  private Attribute[] matchCreator(Constructor<?> ctor,
+      String[] fieldNames) {
+
+    final Parameter[] params = ctor.getParameters();
+    final Attribute[] attrs  = new Attribute[params.length];
+    for (int i = 0; i < params.length; i++) {
+      if (fieldNames.length > 0) {
+        attrs[i] = i < fieldNames.length ? queryAttributes.getAttributeByFieldName(fieldNames[i]) : null;
+      } else {
+        attrs[i] = queryAttributes.getAttributeByFieldName(params[i].getName());
+      }
+
+      if (attrs[i] == null || attrs[i].getFieldType() != params[i].getType()) {
+        return null;
+      }
+    }
+    return attrs;
+  }
+
   /**
    * 解析指定类为类元数据
    *
@@ -1,9 +1,13 @@
 package work.myfavs.framework.orm.meta.schema;
 
+import cn.hutool.core.bean.BeanDesc.PropDesc;
+import cn.hutool.core.bean.BeanUtil;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import work.myfavs.framework.orm.util.exception.DBException;
 
 /**
  * 元数据构建
@@ -16,6 +20,8 @@ public class Metadata {
 
   private final static Map<String, ClassMeta> CLASS_META_CACHE = new ConcurrentHashMap<>();
 
+  private final static Map<String, RowMapper<?>> ROW_MAPPER_CACHE = new ConcurrentHashMap<>();
+
   private Metadata() {
 
   }
@@ -32,4 +38,47 @@ public class Metadata {
         className -> ClassMeta.createInstance(clazz));
   }
 
+  /**
+   * 获取指定类的行映射器，首次获取时编译并放入缓存中
+   *
+   * @param clazz    目标类
+   * @param <TModel> 目标类型
+   * @return 行映射器
+   */
+  @SuppressWarnings("unchecked")
+  public static <TModel> RowMapper<TModel> getRowMapper(Class<TModel> clazz) {
+
+    return (RowMapper<TModel>) ROW_MAPPER_CACHE.computeIfAbsent(clazz.getName(),
+        className -> RowMapper.compile(get(clazz)));
+  }
+
+  /**
+   * 获取指定类属性的读取器，用于在遍历结果集时读取属性值（如 Map 的 Key）
+   * <p>
+   * 映射字段使用预编译的 MethodHandle，其他属性使用 getter 方法，Map 类型按 Key 读取
+   *
+   * @param clazz     目标类
+   * @param fieldName 属性名
+   * @param <TModel>  目标类泛型
+   * @return 属性读取器
+   */
+  @SuppressWarnings("unchecked")
+  public static <TModel> Function<TModel, Object> getAccessor(Class<TModel> clazz, String fieldName) {
+
+    if (Map.class.isAssignableFrom(clazz)) {
+      return model -> ((Map<String, Object>) model).get(fieldName);
+    }
+
+    final Attribute attr = get(clazz).getQueryAttributes().getAttributeByFieldName(fieldName);
+    if (attr != null) {
+      return attr::getValue;
+    }
+
+    final PropDesc prop = BeanUtil.getBeanDesc(clazz).getProp(fieldName);
+    if (prop == null) {
+      throw new DBException("Class {} not exist Prop named {}", clazz.getName(), fieldName);
+    }
+    return prop::getValue;
+  }
+
 }
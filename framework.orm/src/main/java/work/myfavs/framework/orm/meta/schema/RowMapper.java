@@ -0,0 +1,202 @@
+package work.myfavs.framework.orm.meta.schema;
+
+import cn.hutool.core.util.ClassUtil;
+import cn.hutool.core.util.ReflectUtil;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import work.myfavs.framework.orm.util.exception.DBException;
+import work.myfavs.framework.orm.util.func.ThrowingFunction;
+
+/**
+ * 行映射器，每个实体类编译一次，使用 MethodHandle 创建实体并设置属性值
+ * <p>
+ * 如果类元数据解析出用于不可变实体的构造方法，则先读取整行的值，再通过该构造方法创建实体；
+ * 如果无法编译构造方法或属性设置器，则回退到反射方式
+ *
+ * @param <TModel> 实体类型
+ * @author tanqimin
+ */
+public class RowMapper<TModel> {
+
+  /**
+   * 实体类型
+   */
+  private final Class<TModel> clazz;
+  /**
+   * 无参构造方法，为 null 时使用反射创建实例
+   */
+  private final MethodHandle constructor;
+  /**
+   * 不可变实体的构造方法，签名为 (Object[])Object，为 null 时使用无参构造方法并设置属性
+   */
+  private final MethodHandle creator;
+  /**
+   * 属性 - 构造方法参数序号
+   */
+  private final Map<Attribute, Integer> creatorIndexes;
+  /**
+   * 构造方法参数的默认值，基本类型为 0 或 false，其他类型为 null
+   */
+  private final Object[] creatorDefaults;
+
+  private RowMapper(Class<TModel> clazz,
+      MethodHandle constructor,
+      MethodHandle creator,
+      Attribute[] creatorAttributes) {
+    this.clazz = clazz;
+    this.constructor = constructor;
+    this.creator = creator;
+    this.creatorIndexes = new IdentityHashMap<>();
+    this.creatorDefaults = new Object[creator == null ? 0 : creatorAttributes.length];
+    for (int i = 0; i < creatorDefaults.length; i++) {
+      final Class<?> fieldType = creatorAttributes[i].getFieldType();
+      creatorIndexes.put(creatorAttributes[i], i);
+      creatorDefaults[i] = fieldType.isPrimitive() ? ClassUtil.getDefaultValue(fieldType) : null;
+    }
+  }
+
+  /**
+   * 根据类元数据编译行映射器
+   *
+   * @param classMeta 类元数据
+   * @param <TModel>  实体类型
+   * @return 行映射器
+   */
+  @SuppressWarnings("unchecked")
+  static <TModel> RowMapper<TModel> compile(ClassMeta classMeta) {
+
+    final Class<TModel> clazz = (Class<TModel>) classMeta.getClazz();
+    if (classMeta.getCreator() != null) {
+      return new RowMapper<>(clazz, null, createCreator(classMeta.getCreator()), classMeta.getCreatorAttributes());
+    }
+    return new RowMapper<>(clazz, createConstructor(clazz), null, null);
+  }
+
+  private static MethodHandle createCreator(Constructor<?> ctor) {
+    try {
+      ctor.setAccessible(true);
+      return MethodHandles.lookup().unreflectConstructor(ctor)
+          .asSpreader(Object[].class, ctor.getParameterCount())
+          .asType(MethodType.methodType(Object.class, Object[].class));
+    } catch (IllegalAccessException | RuntimeException e) {
+      throw new DBException(e, "Fail to compile constructor of {}, error message:", ctor.getDeclaringClass().getName());
+    }
+  }
+
+  private static MethodHandle createConstructor(Class<?> clazz) {
+    try {
+      final Constructor<?> ctor = clazz.getDeclaredConstructor();
+      ctor.setAccessible(true);
+      return MethodHandles.lookup().unreflectConstructor(ctor)
+          .asType(MethodType.methodType(Object.class));
+    } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * 创建实体实例
+   *
+   * @return 实体实例
+   */
+  @SuppressWarnings("unchecked")
+  public TModel newInstance() {
+
+    if (constructor == null) {
+      return ReflectUtil.newInstance(clazz);
+    }
+    try {
+      return (TModel) (Object) constructor.invokeExact();
+    } catch (Throwable ex) {
+      throw new DBException(ex, "Fail to create instance of {}, error message:", clazz.getName());
+    }
+  }
+
+  /**
+   * 把 ResultSet 当前行映射为实体
+   *
+   * @param rs            ResultSet
+   * @param attributes    与查询结果匹配的属性
+   * @param columnIndexes 属性对应的列序号
+   * @return 实体
+   */
+  public TModel map(ResultSet rs, Attribute[] attributes, int[] columnIndexes) {
+
+    if (creator != null) {
+      return create(rs, attributes, columnIndexes, new Object[creatorDefaults.length], null);
+    }
+
+    final TModel model = newInstance();
+    for (int i = 0; i < attributes.length; i++) {
+      final Attribute attr = attributes[i];
+      attr.setValue(model, attr.value(rs, columnIndexes[i]));
+    }
+    return model;
+  }
+
+  /**
+   * 绑定查询结果的列，返回逐行映射实体的方法
+   * <p>
+   * 使用构造方法创建实体时，返回的方法复用同一个参数数组，只能在一个线程中使用
+   *
+   * @param attributes    与查询结果匹配的属性
+   * @param columnIndexes 属性对应的列序号
+   * @return 行映射方法
+   */
+  public ThrowingFunction<ResultSet, TModel, SQLException> bind(Attribute[] attributes, int[] columnIndexes) {
+
+    if (creator == null) {
+      return rs -> map(rs, attributes, columnIndexes);
+    }
+
+    final Object[] args       = new Object[creatorDefaults.length];
+    final int[]    argIndexes = new int[attributes.length];
+    for (int i = 0; i < attributes.length; i++) {
+      final Integer idx = creatorIndexes.get(attributes[i]);
+      argIndexes[i] = idx == null ? -1 : idx;
+    }
+    return rs -> create(rs, attributes, columnIndexes, args, argIndexes);
+  }
+
+  /**
+   * 读取整行的值，并通过构造方法创建实体，未查询的参数使用默认值
+   */
+  @SuppressWarnings("unchecked")
+  private TModel create(ResultSet rs,
+      Attribute[] attributes,
+      int[] columnIndexes,
+      Object[] args,
+      int[] argIndexes) {
+
+    System.arraycopy(creatorDefaults, 0, args, 0, args.length);
+    for (int i = 0; i < attributes.length; i++) {
+      final int argIndex;
+      if (argIndexes == null) {
+        final Integer idx = creatorIndexes.get(attributes[i]);
+        argIndex = idx == null ? -1 : idx;
+      } else {
+        argIndex = argIndexes[i];
+      }
+      if (argIndex < 0) {
+        continue;
+      }
+      final Object value = attributes[i].value(rs, columnIndexes[i]);
+      if (value != null) {
+        args[argIndex] = value;
+      }
+    }
+
+    try {
+      return (TModel) (Object) creator.invokeExact(args);
+    } catch (Throwable ex) {
+      throw new DBException(ex, "Fail to create instance of {}, error message:", clazz.getName());
+    }
+  }
+
+}
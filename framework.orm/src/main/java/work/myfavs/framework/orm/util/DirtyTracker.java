@@ -0,0 +1,201 @@
+package work.myfavs.framework.orm.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import work.myfavs.framework.orm.meta.schema.Attribute;
+import work.myfavs.framework.orm.meta.schema.ClassMeta;
+
+/**
+ * 实体修改跟踪器，记录通过 DB 加载的实体的更新字段快照，更新时只写入修改过的字段
+ * <p>
+ * 按对象引用（而非 equals）识别实体，使用弱引用保存，实体被回收后快照自动清除
+ * <p>
+ * 事务中更新后刷新的快照记录在当前线程，事务回滚时（{@link #rollback()}）停止跟踪这些实体，下次更新时更新所有字段
+ *
+ * @author tanqimin
+ */
+public class DirtyTracker {
+
+  /**
+   * 实体类的更新字段，顺序与 {@link ClassMeta#getUpdateAttributes()} 一致
+   */
+  private final Map<Class<?>, Attribute[]> attributes = new ConcurrentHashMap<>();
+  private final Map<EntityRef, Object[]>   snapshots  = new ConcurrentHashMap<>();
+  private final ReferenceQueue<Object>     queue      = new ReferenceQueue<>();
+  /**
+   * 当前线程的事务中刷新过快照的实体
+   */
+  private final ThreadLocal<List<EntityRef>> touched = ThreadLocal.withInitial(ArrayList::new);
+
+  /**
+   * 记录实体当前的更新字段快照，已存在时覆盖
+   *
+   * @param classMeta 类元数据
+   * @param entity    实体
+   */
+  public void track(ClassMeta classMeta,
+      Object entity) {
+
+    if (entity == null) {
+      return;
+    }
+    purge();
+    final Attribute[] attrs  = getAttributes(classMeta);
+    final Object[]    values = new Object[attrs.length];
+    for (int i = 0; i < attrs.length; i++) {
+      values[i] = copy(attrs[i].getValue(entity));
+    }
+    snapshots.put(new EntityRef(entity, queue), values);
+  }
+
+  /**
+   * 获取实体自快照以来修改过的更新字段
+   *
+   * @param classMeta 类元数据
+   * @param entity    实体
+   * @return 修改过的字段，按更新字段顺序排列；实体未被跟踪时返回 null
+   */
+  public List<Attribute> getChangedAttributes(ClassMeta classMeta,
+      Object entity) {
+
+    purge();
+    final Object[] values = snapshots.get(new EntityRef(entity));
+    if (values == null) {
+      return null;
+    }
+
+    final Attribute[] attrs   = getAttributes(classMeta);
+    List<Attribute>   changed = Collections.emptyList();
+    for (int i = 0; i < attrs.length; i++) {
+      if (!Objects.deepEquals(values[i], attrs[i].getValue(entity))) {
+        if (changed.isEmpty()) {
+          changed = new ArrayList<>();
+        }
+        changed.add(attrs[i]);
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * 停止跟踪实体，如事务回滚后快照已与数据库不一致
+   *
+   * @param entity 实体
+   */
+  public void untrack(Object entity) {
+
+    snapshots.remove(new EntityRef(entity));
+  }
+
+  /**
+   * 记录实体的快照在当前线程的事务中刷新过，事务回滚时停止跟踪
+   *
+   * @param entity 实体
+   */
+  public void touch(Object entity) {
+
+    touched.get().add(new EntityRef(entity));
+  }
+
+  /**
+   * 事务回滚：停止跟踪当前线程的事务中刷新过快照的实体
+   */
+  public void rollback() {
+
+    final List<EntityRef> refs = touched.get();
+    for (EntityRef ref : refs) {
+      snapshots.remove(ref);
+    }
+    touched.remove();
+  }
+
+  /**
+   * 事务提交或结束：当前线程的事务中刷新过的快照已与数据库一致
+   */
+  public void commit() {
+
+    touched.remove();
+  }
+
+  /**
+   * 清空所有快照
+   */
+  public void clear() {
+
+    snapshots.clear();
+  }
+
+  private Attribute[] getAttributes(ClassMeta classMeta) {
+
+    return attributes.computeIfAbsent(classMeta.getClazz(),
+        clazz -> classMeta.getUpdateAttributes().values().toArray(new Attribute[0]));
+  }
+
+  private void purge() {
+
+    Reference<?> ref;
+    while ((ref = queue.poll()) != null) {
+      snapshots.remove(ref);
+    }
+  }
+
+  /**
+   * 可变值复制后保存，避免原地修改后无法识别
+   */
+  private static Object copy(Object value) {
+
+    if (value instanceof Date) {
+      return ((Date) value).clone();
+    }
+    if (value instanceof byte[]) {
+      return ((byte[]) value).clone();
+    }
+    return value;
+  }
+
+  /**
+   * 按对象引用比较的弱引用
+   */
+  private static final class EntityRef
+      extends WeakReference<Object> {
+
+    private final int hash;
+
+    private EntityRef(Object entity) {
+      super(entity);
+      this.hash = System.identityHashCode(entity);
+    }
+
+    private EntityRef(Object entity,
+        ReferenceQueue<Object> queue) {
+      super(entity, queue);
+      this.hash = System.identityHashCode(entity);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof EntityRef)) {
+        return false;
+      }
+      final Object entity = get();
+      return entity != null && entity == ((EntityRef) o).get();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+}
@@ -1,20 +1,78 @@
 package work.myfavs.framework.orm.util;
 
-import cn.hutool.core.lang.Snowflake;
 import cn.hutool.core.util.IdUtil;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import work.myfavs.framework.orm.util.exception.DBException;
 
 /**
- * 主键生成器
+ * 主键生成器，每个 DBTemplate 一个
+ * <p>
+ * 雪花主键的位布局与 hutool Snowflake 相同：41位时间戳（相对 {@value #EPOCH}）、5位数据中心ID、5位终端ID、12位序列号，
+ * 与已有数据的主键可以比较大小。时间戳与序列号合并保存在一个 AtomicLong 中，通过 CAS 分配，不加锁；
+ * 同一毫秒内序列号用完时借用后面的毫秒，时钟回拨时继续使用上次的时间戳，保证主键单调递增；
+ * 分配的最后一个主键借用超过 {@value #MAX_BORROW_MILLIS} 毫秒时挂起线程，等待时钟追上
  *
  * @author tanqimin
  */
 public class PKGenerator {
 
-  private static Snowflake snowflake;
+  /**
+   * 起始时间戳，与 hutool Snowflake 默认值相同
+   */
+  public final static long EPOCH = 1288834974657L;
+  /**
+   * 时间戳最多超前当前时间的毫秒数
+   */
+  public final static long MAX_BORROW_MILLIS = 1000L;
+
+  private final static long WORKER_ID_BITS      = 5L;
+  private final static long DATA_CENTER_ID_BITS = 5L;
+  private final static long SEQUENCE_BITS       = 12L;
+  private final static long MAX_WORKER_ID       = ~(-1L << WORKER_ID_BITS);
+  private final static long MAX_DATA_CENTER_ID  = ~(-1L << DATA_CENTER_ID_BITS);
+  private final static long SEQUENCE_MASK       = ~(-1L << SEQUENCE_BITS);
+  private final static long WORKER_ID_SHIFT     = SEQUENCE_BITS;
+  private final static long DATA_CENTER_SHIFT   = SEQUENCE_BITS + WORKER_ID_BITS;
+  private final static long TIMESTAMP_SHIFT     = SEQUENCE_BITS + WORKER_ID_BITS + DATA_CENTER_ID_BITS;
+  /**
+   * 一次最多分配的数量，即最多可借用的毫秒内全部的序列号
+   */
+  private final static int  MAX_ALLOCATE        = (int) (MAX_BORROW_MILLIS << SEQUENCE_BITS);
+
+  /**
+   * 数据中心ID与终端ID
+   */
+  private final long       nodeBits;
+  /**
+   * (时间戳 - EPOCH) &lt;&lt; SEQUENCE_BITS | 序列号，下一个可分配的值
+   */
+  private final AtomicLong state = new AtomicLong();
+  /**
+   * UUID（版本7）的 毫秒时间戳 &lt;&lt; 12 | 计数器，上一次分配的值
+   */
+  private final AtomicLong uuidState = new AtomicLong();
+  /**
+   * 各序列当前缓存的主键块
+   */
+  private final Map<String, HiLo> sequences = new ConcurrentHashMap<>();
 
+  public PKGenerator(long workerId,
+      long dataCenterId) {
 
-  public PKGenerator(long workerId, long dataCenterId) {
-    snowflake = IdUtil.createSnowflake(workerId, dataCenterId);
+    if (workerId < 0 || workerId > MAX_WORKER_ID) {
+      throw new DBException("Worker ID must be between 0 and {}.", MAX_WORKER_ID);
+    }
+    if (dataCenterId < 0 || dataCenterId > MAX_DATA_CENTER_ID) {
+      throw new DBException("DataCenter ID must be between 0 and {}.", MAX_DATA_CENTER_ID);
+    }
+    this.nodeBits = (dataCenterId << DATA_CENTER_SHIFT) | (workerId << WORKER_ID_SHIFT);
   }
 
 
@@ -28,15 +86,188 @@ public class PKGenerator {
     return IdUtil.randomUUID();
   }
 
+  /**
+   * 获取按时间排序的 UUID（版本7，RFC 9562）：48位毫秒时间戳、12位计数器、62位随机数
+   * <p>
+   * 同一毫秒内计数器递增，计数器用完时借用下一毫秒，时钟回拨时继续使用上次的时间戳，
+   * 同一生成器的结果按字节（及字符串）单调递增；通过 CAS 分配，不加锁
+   *
+   * @return UUID
+   */
+  public UUID nextUUIDv7() {
+
+    long current;
+    long next;
+    do {
+      current = uuidState.get();
+      next    = Math.max(current + 1, System.currentTimeMillis() << 12);
+    } while (!uuidState.compareAndSet(current, next));
+
+    final long msb = ((next >>> 12) << 16) | 0x7000L | (next & 0xFFFL);
+    final long lsb = 0x8000000000000000L | (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL);
+    return new UUID(msb, lsb);
+  }
+
   /**
    * 获取 雪花 主键值
    *
-   * @param workerId     终端ID(雪花算法生成主键用)
-   * @param dataCenterId 数据中心ID(雪花算法生成主键用)
    * @return 雪花主键值
    */
   public long nextSnowFakeId() {
-    return snowflake.nextId();
+
+    return toId(allocate(1));
+  }
+
+  /**
+   * 获取指定时间（毫秒）生成的最小雪花主键值，用于按主键范围查询某段时间内创建的记录
+   *
+   * @param timeMillis 时间戳（毫秒）
+   * @return 该毫秒的最小主键值
+   */
+  public static long minSnowFlakeId(long timeMillis) {
+
+    return Math.max(timeMillis - EPOCH, 0L) << TIMESTAMP_SHIFT;
+  }
+
+  /**
+   * 获取指定时间（毫秒）生成的最大雪花主键值，包含所有数据中心、终端与序列号
+   *
+   * @param timeMillis 时间戳（毫秒）
+   * @return 该毫秒的最大主键值
+   */
+  public static long maxSnowFlakeId(long timeMillis) {
+
+    return minSnowFlakeId(timeMillis) | ~(-1L << TIMESTAMP_SHIFT);
+  }
+
+  /**
+   * 获取雪花主键值中的时间戳（毫秒）
+   * <p>
+   * 同一毫秒内序列号用完时会借用后面的毫秒，时间戳可能比实际生成时间晚，最多 {@value #MAX_BORROW_MILLIS} 毫秒
+   *
+   * @param id 雪花主键值
+   * @return 时间戳（毫秒）
+   */
+  public static long snowFlakeTime(long id) {
+
+    return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+  }
+
+  /**
+   * 一次分配多个雪花主键值，只需一次 CAS，适用于批量创建；数量超过 {@value #MAX_BORROW_MILLIS} 毫秒的序列号时分多次分配
+   *
+   * @param n 数量
+   * @return 单调递增的雪花主键值
+   */
+  public long[] nextIds(int n) {
+
+    final long[] ids    = new long[Math.max(n, 0)];
+    int          filled = 0;
+    while (filled < ids.length) {
+      final int  count = Math.min(ids.length - filled, MAX_ALLOCATE);
+      final long start = allocate(count);
+      for (int i = 0; i < count; i++) {
+        ids[filled++] = toId(start + i);
+      }
+    }
+    return ids;
+  }
+
+  /**
+   * 分配 n 个连续的 (时间戳, 序列号)，返回第一个；最后一个借用超过 {@value #MAX_BORROW_MILLIS} 毫秒时挂起到时钟追上
+   */
+  private long allocate(int n) {
+
+    while (true) {
+      final long current = state.get();
+      final long now     = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+      final long start   = Math.max(current, now);
+      final long ahead   = ((start + n - 1) - now) >>> SEQUENCE_BITS;
+      if (ahead > MAX_BORROW_MILLIS) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ahead - MAX_BORROW_MILLIS));
+        continue;
+      }
+      if (state.compareAndSet(current, start + n)) {
+        return start;
+      }
+    }
+  }
+
+  /**
+   * 从序列缓存的主键块中分配 n 个主键（HiLo）：主键块为 [hi * allocationSize, (hi + 1) * allocationSize)，
+   * 块内通过原子操作分配，用完时调用 nextHi 获取新的高位值
+   * <p>
+   * 同一序列的 allocationSize 必须一致，否则不同大小的主键块会重叠，不一致时抛出异常
+   *
+   * @param sequenceName   序列名称
+   * @param allocationSize 每个块的主键数量
+   * @param n              数量
+   * @param nextHi         获取序列的下一个高位值，只在块用完时调用
+   * @return 主键值，块内递增；跨块时取决于高位值的顺序
+   */
+  public long[] nextSequenceIds(String sequenceName,
+      int allocationSize,
+      int n,
+      LongSupplier nextHi) {
+
+    if (allocationSize <= 0) {
+      throw new DBException("Allocation size of sequence {} must be greater than 0.", sequenceName);
+    }
+    final long[] ids    = new long[Math.max(n, 0)];
+    final HiLo   hiLo   = sequences.computeIfAbsent(sequenceName, k -> new HiLo(allocationSize));
+    if (hiLo.allocationSize != allocationSize) {
+      throw new DBException("Sequence {} is shared with different allocation sizes: {} and {}.", sequenceName,
+          hiLo.allocationSize, allocationSize);
+    }
+    int          filled = 0;
+    while (filled < ids.length) {
+      final Block block = hiLo.block;
+      final long  from  = block.next.getAndAdd(ids.length - filled);
+      if (from < block.end) {
+        final long to = Math.min(block.end, from + ids.length - filled);
+        for (long id = from; id < to; id++) {
+          ids[filled++] = id;
+        }
+        continue;
+      }
+      //块已用完，只有一个线程获取新的高位值
+      synchronized (hiLo) {
+        if (hiLo.block == block) {
+          final long hi = nextHi.getAsLong();
+          hiLo.block = new Block(hi * allocationSize, hi * allocationSize + allocationSize);
+        }
+      }
+    }
+    return ids;
+  }
+
+  private long toId(long value) {
+
+    return ((value >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | nodeBits | (value & SEQUENCE_MASK);
+  }
+
+  private static final class HiLo {
+
+    private final    int   allocationSize;
+    private volatile Block block = new Block(0L, 0L);
+
+    private HiLo(int allocationSize) {
+
+      this.allocationSize = allocationSize;
+    }
+  }
+
+  private static final class Block {
+
+    private final AtomicLong next;
+    private final long       end;
+
+    private Block(long start,
+        long end) {
+
+      this.next = new AtomicLong(start);
+      this.end = end;
+    }
   }
 
 }
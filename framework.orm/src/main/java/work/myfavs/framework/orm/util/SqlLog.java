@@ -5,7 +5,6 @@ import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson.JSON;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +22,16 @@ public class SqlLog {
     this.showResult = showResult;
   }
 
+  /**
+   * 是否输出SQL语句，用于在输出前避免准备日志参数的开销
+   *
+   * @return 是否输出SQL语句
+   */
+  public boolean isShowSql() {
+
+    return showSql && log.isDebugEnabled();
+  }
+
   public void showSql(String sql,
       Collection params) {
 
@@ -100,7 +109,7 @@ public class SqlLog {
     }
   }
 
-  public <TView> void showResult(List<TView> result) {
+  public <TView> void showResult(Collection<TView> result) {
     if (showResult == false) {
       return;
     }
@@ -0,0 +1,20 @@
+package work.myfavs.framework.orm.util.common;
+
+import java.util.Iterator;
+
+/**
+ * 可关闭的迭代器，迭代结束前必须调用 {@link #close()} 释放数据库资源
+ *
+ * @param <T> 元素类型
+ * @author tanqimin
+ */
+public interface CloseableIterator<T>
+    extends Iterator<T>, AutoCloseable {
+
+  /**
+   * 关闭迭代器，释放数据库资源，可重复调用
+   */
+  @Override
+  void close();
+
+}
@@ -0,0 +1,240 @@
+package work.myfavs.framework.orm.util.common;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 以 long 为 Key 的哈希表（开放寻址），Key 不装箱，适用于按雪花ID、自增ID等索引大量记录
+ * <p>
+ * 非线程安全
+ *
+ * @param <TValue> Value
+ * @author tanqimin
+ */
+public class LongKeyMap<TValue> {
+
+  private final static int   DEFAULT_CAPACITY = 16;
+  private final static float LOAD_FACTOR      = 0.75f;
+
+  private long[]   keys;
+  private Object[] values;
+  /**
+   * 对应位置是否已使用
+   */
+  private boolean[] used;
+  private int       size;
+  private int       threshold;
+
+  public LongKeyMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * 构造方法
+   *
+   * @param expectedSize 预计的记录数
+   */
+  public LongKeyMap(int expectedSize) {
+    allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR)));
+  }
+
+  /**
+   * 获取集合大小
+   *
+   * @return 集合大小
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * 获取集合是否为空？
+   *
+   * @return 如果集合为空，返回true，否则返回false
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * 判断是否包含指定的Key
+   *
+   * @param key Key
+   * @return 如果包含指定的Key，返回true，否则返回false
+   */
+  public boolean containsKey(long key) {
+    return indexOf(key) >= 0;
+  }
+
+  /**
+   * 获取指定Key的值
+   *
+   * @param key Key
+   * @return 值，不存在时返回 null
+   */
+  @SuppressWarnings("unchecked")
+  public TValue get(long key) {
+    final int idx = indexOf(key);
+    return idx < 0 ? null : (TValue) values[idx];
+  }
+
+  /**
+   * 设置指定Key的值
+   *
+   * @param key   Key
+   * @param value 值
+   * @return 原值，不存在时返回 null
+   */
+  @SuppressWarnings("unchecked")
+  public TValue put(long key, TValue value) {
+    final int mask = keys.length - 1;
+    int       idx  = mix(key) & mask;
+    while (used[idx]) {
+      if (keys[idx] == key) {
+        final TValue old = (TValue) values[idx];
+        values[idx] = value;
+        return old;
+      }
+      idx = (idx + 1) & mask;
+    }
+
+    keys[idx] = key;
+    values[idx] = value;
+    used[idx] = true;
+    if (++size > threshold) {
+      rehash(keys.length << 1);
+    }
+    return null;
+  }
+
+  /**
+   * 遍历集合
+   *
+   * @param action 遍历方法
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(Consumer<? super TValue> action) {
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        action.accept(keys[i], (TValue) values[i]);
+      }
+    }
+  }
+
+  /**
+   * 获取所有Key
+   *
+   * @return Key数组
+   */
+  public long[] keys() {
+    final long[] result = new long[size];
+    int          j      = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        result[j++] = keys[i];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * 获取所有值
+   *
+   * @return 值集合（只读）
+   */
+  public List<TValue> values() {
+    final Object[] result = new Object[size];
+    int            j      = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        result[j++] = values[i];
+      }
+    }
+    return new AbstractList<TValue>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public TValue get(int index) {
+        return (TValue) result[index];
+      }
+
+      @Override
+      public int size() {
+        return result.length;
+      }
+    };
+  }
+
+  /**
+   * 清空集合
+   */
+  public void clear() {
+    Arrays.fill(used, false);
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  private int indexOf(long key) {
+    final int mask = keys.length - 1;
+    int       idx  = mix(key) & mask;
+    while (used[idx]) {
+      if (keys[idx] == key) {
+        return idx;
+      }
+      idx = (idx + 1) & mask;
+    }
+    return -1;
+  }
+
+  private void rehash(int capacity) {
+    final long[]    oldKeys   = keys;
+    final Object[]  oldValues = values;
+    final boolean[] oldUsed   = used;
+
+    allocate(capacity);
+    final int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int idx = mix(oldKeys[i]) & mask;
+        while (used[idx]) {
+          idx = (idx + 1) & mask;
+        }
+        keys[idx] = oldKeys[i];
+        values[idx] = oldValues[i];
+        used[idx] = true;
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    used = new boolean[capacity];
+    threshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  /**
+   * 打散Key的高低位，雪花ID的低位（序列号）大多为 0，直接取模会严重冲突
+   */
+  private static int mix(long key) {
+    final long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private static int tableSizeFor(int cap) {
+    int n = Integer.highestOneBit(Math.max(cap - 1, 1)) << 1;
+    return n < DEFAULT_CAPACITY ? DEFAULT_CAPACITY : n;
+  }
+
+  /**
+   * 遍历方法
+   *
+   * @param <TValue> Value
+   */
+  @FunctionalInterface
+  public interface Consumer<TValue> {
+
+    void accept(long key, TValue value);
+  }
+
+}
@@ -1,22 +1,36 @@
 package work.myfavs.framework.orm.util.convert;
 
-import cn.hutool.core.util.ReflectUtil;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import work.myfavs.framework.orm.meta.ColumnVector;
+import work.myfavs.framework.orm.meta.CompactRecord;
 import work.myfavs.framework.orm.meta.Record;
 import work.myfavs.framework.orm.meta.handler.PropertyHandlerFactory;
 import work.myfavs.framework.orm.meta.schema.Attribute;
 import work.myfavs.framework.orm.meta.schema.Attributes;
 import work.myfavs.framework.orm.meta.schema.Metadata;
+import work.myfavs.framework.orm.meta.schema.RowMapper;
+import work.myfavs.framework.orm.util.exception.DBException;
+import work.myfavs.framework.orm.util.func.ThrowingFunction;
 
 /**
  * 数据库类型转换
  */
 public class DBConvert {
 
+  /**
+   * 基本类型数组的初始容量
+   */
+  private final static int INITIAL_CAPACITY = 64;
+
   /**
    * 把ResultSet转换为指定类型的List
    *
@@ -30,8 +44,59 @@ public class DBConvert {
       ResultSet rs)
       throws SQLException {
 
+    return toList(modelClass, rs, null);
+  }
+
+  /**
+   * 把ResultSet转换为指定类型的List，并按 (modelClass, sql) 缓存映射计划
+   *
+   * @param modelClass Class
+   * @param rs         ResultSet
+   * @param sql        产生ResultSet的SQL语句，为 null 时不缓存映射计划
+   * @param <TModel>   Class TModel
+   * @return List
+   * @throws SQLException SQLException
+   */
+  public static <TModel> List<TModel> toList(Class<TModel> modelClass,
+      ResultSet rs,
+      String sql)
+      throws SQLException {
+
+    return toList(rs, rowConverter(modelClass, rs, sql));
+  }
+
+  /**
+   * 把ResultSet转换为紧凑型Record的List，所有行共享同一个列结构
+   *
+   * @param rs ResultSet
+   * @return List
+   * @throws SQLException SQLException
+   */
+  public static List<Record> toCompactRecord(ResultSet rs)
+      throws SQLException {
+
+    return toList(rs, compactRecordConverter(rs));
+  }
+
+  /**
+   * 创建行转换器，把ResultSet的当前行转换为指定类型，用于逐行读取结果集
+   *
+   * @param modelClass Class
+   * @param rs         ResultSet
+   * @param sql        产生ResultSet的SQL语句，为 null 时不缓存映射计划
+   * @param <TModel>   Class TModel
+   * @return 行转换器
+   * @throws SQLException SQLException
+   */
+  @SuppressWarnings("unchecked")
+  public static <TModel> ThrowingFunction<ResultSet, TModel, SQLException> rowConverter(
+      Class<TModel> modelClass,
+      ResultSet rs,
+      String sql)
+      throws SQLException {
+
     if (modelClass == Record.class) {
-      return toRecord(modelClass, rs);
+      return (ThrowingFunction<ResultSet, TModel, SQLException>) recordConverter(rs);
     }
 
     final Attributes attrMetas = Metadata.get(modelClass)
@@ -39,72 +104,310 @@ public class DBConvert {
 
     if (attrMetas.isEmpty() && rs.getMetaData()
         .getColumnCount() == 1) {
-      return toScalar(modelClass, rs);
+      return row -> PropertyHandlerFactory.convert(row, 1, modelClass);
     }
 
-    return toEntity(modelClass, rs, attrMetas);
+    final RowMapper<TModel> rowMapper     = Metadata.getRowMapper(modelClass);
+    final MappingPlan       plan          = MappingPlan.get(modelClass, sql, attrMetas, rs.getMetaData());
+    final Attribute[]       attrs         = plan.getAttributes();
+    final int[]             columnIndexes = plan.getColumnIndexes();
+    return rowMapper.bind(attrs, columnIndexes);
   }
 
-  private static <TModel> List<TModel> toEntity(Class<TModel> modelClass,
-      ResultSet rs,
-      Attributes attributes)
+  /**
+   * 创建紧凑型Record行转换器，转换后的所有行共享同一个列结构
+   *
+   * @param rs ResultSet
+   * @return 行转换器
+   * @throws SQLException SQLException
+   */
+  public static ThrowingFunction<ResultSet, Record, SQLException> compactRecordConverter(ResultSet rs)
       throws SQLException {
 
-    final List<TModel> list = new ArrayList<>();
-    final ResultSetMetaData metaData = rs.getMetaData();
-    final int columnCount = metaData.getColumnCount();
+    final ResultSetMetaData metaData    = rs.getMetaData();
+    final int               columnCount = metaData.getColumnCount();
+
+    final String[] columnLabels = new String[columnCount];
+    for (int i = 1; i <= columnCount; i++) {
+      columnLabels[i - 1] = metaData.getColumnLabel(i);
+    }
 
-    //找出与查询结果匹配的字段
-    final List<Attribute> existsAttrs = new ArrayList<>();
+    final CompactRecord.Schema schema = new CompactRecord.Schema(columnLabels);
+    final int[]                slots  = new int[columnCount];
     for (int i = 1; i <= columnCount; i++) {
-      if (attributes.containsColumn(metaData.getColumnLabel(i))) {
-        existsAttrs.add(attributes.getAttribute(metaData.getColumnLabel(i)));
+      slots[i - 1] = schema.slotOf(i);
+    }
+
+    return row -> {
+      final Object[] values = new Object[schema.size()];
+      for (int i = 1; i <= columnCount; i++) {
+        Object colValue = row.getObject(i);
+        values[slots[i - 1]] = row.wasNull() ? null : colValue;
+      }
+      return new CompactRecord(schema, values);
+    };
+  }
+
+  /**
+   * 把ResultSet的第一列转换为long数组
+   *
+   * @param rs        ResultSet
+   * @param nullValue 值为 NULL 时使用的值
+   * @param nulls     值为 NULL 的行，为 null 时不记录
+   * @return long数组
+   * @throws SQLException SQLException
+   */
+  public static long[] toLongs(ResultSet rs,
+      long nullValue,
+      BitSet nulls)
+      throws SQLException {
+
+    long[] values = new long[INITIAL_CAPACITY];
+    int    size   = 0;
+    while (rs.next()) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size << 1);
+      }
+      long value = rs.getLong(1);
+      if (value == 0L && rs.wasNull()) {
+        value = nullValue;
+        if (nulls != null) {
+          nulls.set(size);
+        }
       }
+      values[size++] = value;
     }
+    return Arrays.copyOf(values, size);
+  }
+
+  /**
+   * 把ResultSet的第一列转换为int数组
+   *
+   * @param rs        ResultSet
+   * @param nullValue 值为 NULL 时使用的值
+   * @param nulls     值为 NULL 的行，为 null 时不记录
+   * @return int数组
+   * @throws SQLException SQLException
+   */
+  public static int[] toInts(ResultSet rs,
+      int nullValue,
+      BitSet nulls)
+      throws SQLException {
 
+    int[] values = new int[INITIAL_CAPACITY];
+    int   size   = 0;
     while (rs.next()) {
-      TModel model = ReflectUtil.newInstance(modelClass);
-      for (Attribute attr : existsAttrs) {
-        ReflectUtil.setFieldValue(model, attr.getFieldName(), attr.value(rs));
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size << 1);
+      }
+      int value = rs.getInt(1);
+      if (value == 0 && rs.wasNull()) {
+        value = nullValue;
+        if (nulls != null) {
+          nulls.set(size);
+        }
       }
-      list.add(model);
+      values[size++] = value;
     }
+    return Arrays.copyOf(values, size);
+  }
 
-    return list;
+  /**
+   * 把ResultSet的第一列转换为double数组
+   *
+   * @param rs        ResultSet
+   * @param nullValue 值为 NULL 时使用的值
+   * @param nulls     值为 NULL 的行，为 null 时不记录
+   * @return double数组
+   * @throws SQLException SQLException
+   */
+  public static double[] toDoubles(ResultSet rs,
+      double nullValue,
+      BitSet nulls)
+      throws SQLException {
+
+    double[] values = new double[INITIAL_CAPACITY];
+    int      size   = 0;
+    while (rs.next()) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size << 1);
+      }
+      double value = rs.getDouble(1);
+      if (value == 0D && rs.wasNull()) {
+        value = nullValue;
+        if (nulls != null) {
+          nulls.set(size);
+        }
+      }
+      values[size++] = value;
+    }
+    return Arrays.copyOf(values, size);
   }
 
-  private static <TModel> List<TModel> toScalar(Class<TModel> modelClass,
-      ResultSet rs)
+  /**
+   * 把ResultSet按列转换为基本类型数组，整数列（BIGINT 除外）转换为 int[]，BIGINT 转换为 long[]，浮点数列转换为 double[]，
+   * 包含 DECIMAL、NUMERIC 列时抛出异常
+   *
+   * @param rs ResultSet
+   * @return 列名 - 列数据，按查询结果的列顺序排列
+   * @throws SQLException SQLException
+   */
+  public static Map<String, ColumnVector> toColumns(ResultSet rs)
       throws SQLException {
 
-    final List<TModel> list = new ArrayList<>();
-    final ResultSetMetaData metaData = rs.getMetaData();
+    return toColumns(rs, false);
+  }
 
+  /**
+   * 把ResultSet按列转换为基本类型数组，整数列（BIGINT 除外）转换为 int[]，BIGINT 转换为 long[]，浮点数列转换为 double[]
+   *
+   * @param rs              ResultSet
+   * @param decimalAsDouble 是否把 DECIMAL、NUMERIC 列转换为 double[]，转换会丢失精度，为 false 时遇到这类列抛出异常
+   * @return 列名 - 列数据，按查询结果的列顺序排列
+   * @throws SQLException SQLException
+   */
+  public static Map<String, ColumnVector> toColumns(ResultSet rs,
+      boolean decimalAsDouble)
+      throws SQLException {
+
+    final ResultSetMetaData   metaData    = rs.getMetaData();
+    final int                 columnCount = metaData.getColumnCount();
+    final ColumnVector.Type[] types       = new ColumnVector.Type[columnCount];
+    final BitSet[]            nulls       = new BitSet[columnCount];
+    final int[][]             ints        = new int[columnCount][];
+    final long[][]            longs       = new long[columnCount][];
+    final double[][]          doubles     = new double[columnCount][];
+
+    for (int i = 0; i < columnCount; i++) {
+      types[i] = columnType(metaData, i + 1, decimalAsDouble);
+      nulls[i] = new BitSet();
+      switch (types[i]) {
+        case INT:
+          ints[i] = new int[INITIAL_CAPACITY];
+          break;
+        case LONG:
+          longs[i] = new long[INITIAL_CAPACITY];
+          break;
+        default:
+          doubles[i] = new double[INITIAL_CAPACITY];
+      }
+    }
+
+    int capacity = INITIAL_CAPACITY;
+    int size     = 0;
     while (rs.next()) {
-      String colName = metaData.getColumnLabel(1);
-      list.add(PropertyHandlerFactory.convert(rs, colName, modelClass));
+      final boolean grow = size == capacity;
+      if (grow) {
+        capacity = capacity << 1;
+      }
+      for (int i = 0; i < columnCount; i++) {
+        boolean isNull;
+        switch (types[i]) {
+          case INT:
+            if (grow) {
+              ints[i] = Arrays.copyOf(ints[i], capacity);
+            }
+            ints[i][size] = rs.getInt(i + 1);
+            isNull = ints[i][size] == 0 && rs.wasNull();
+            break;
+          case LONG:
+            if (grow) {
+              longs[i] = Arrays.copyOf(longs[i], capacity);
+            }
+            longs[i][size] = rs.getLong(i + 1);
+            isNull = longs[i][size] == 0L && rs.wasNull();
+            break;
+          default:
+            if (grow) {
+              doubles[i] = Arrays.copyOf(doubles[i], capacity);
+            }
+            doubles[i][size] = rs.getDouble(i + 1);
+            isNull = doubles[i][size] == 0D && rs.wasNull();
+        }
+        if (isNull) {
+          nulls[i].set(size);
+        }
+      }
+      size++;
     }
-    return list;
+
+    final Map<String, ColumnVector> columns = new LinkedHashMap<>(columnCount * 4 / 3 + 1);
+    for (int i = 0; i < columnCount; i++) {
+      final String label = metaData.getColumnLabel(i + 1);
+      switch (types[i]) {
+        case INT:
+          columns.put(label, ColumnVector.ofInts(label, Arrays.copyOf(ints[i], size), nulls[i]));
+          break;
+        case LONG:
+          columns.put(label, ColumnVector.ofLongs(label, Arrays.copyOf(longs[i], size), nulls[i]));
+          break;
+        default:
+          columns.put(label, ColumnVector.ofDoubles(label, Arrays.copyOf(doubles[i], size), nulls[i]));
+      }
+    }
+    return columns;
   }
 
-  private static <TModel> List<TModel> toRecord(Class<TModel> modelClass,
-      ResultSet rs)
+  private static ColumnVector.Type columnType(ResultSetMetaData metaData,
+      int columnIndex,
+      boolean decimalAsDouble)
       throws SQLException {
 
-    final List<TModel> list = new ArrayList<>();
-    final ResultSetMetaData metaData = rs.getMetaData();
-    final int columnCount = metaData.getColumnCount();
+    switch (metaData.getColumnType(columnIndex)) {
+      case Types.BIT:
+      case Types.BOOLEAN:
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+        return ColumnVector.Type.INT;
+      case Types.BIGINT:
+        return ColumnVector.Type.LONG;
+      case Types.REAL:
+      case Types.FLOAT:
+      case Types.DOUBLE:
+        return ColumnVector.Type.DOUBLE;
+      case Types.DECIMAL:
+      case Types.NUMERIC:
+        if (decimalAsDouble) {
+          return ColumnVector.Type.DOUBLE;
+        }
+        throw new DBException("Column {} is a decimal column and would lose precision as double, enable decimalAsDouble to read it anyway.",
+            metaData.getColumnLabel(columnIndex));
+      default:
+        throw new DBException("Column {} is not a numeric column, type name: {}.",
+            metaData.getColumnLabel(columnIndex), metaData.getColumnTypeName(columnIndex));
+    }
+  }
 
-    while (rs.next()) {
-      TModel tModel = ReflectUtil.newInstance(modelClass);
+  private static ThrowingFunction<ResultSet, Record, SQLException> recordConverter(ResultSet rs)
+      throws SQLException {
+
+    final ResultSetMetaData metaData    = rs.getMetaData();
+    final int               columnCount = metaData.getColumnCount();
+
+    final String[] columnLabels = new String[columnCount];
+    for (int i = 1; i <= columnCount; i++) {
+      columnLabels[i - 1] = metaData.getColumnLabel(i);
+    }
+
+    return row -> {
+      final Record record = new Record();
       for (int i = 1; i <= columnCount; i++) {
-        String colName = metaData.getColumnLabel(i);
-        Object colValue = rs.getObject(i);
-        ((Record) tModel).put(colName, rs.wasNull() ? null : colValue);
+        Object colValue = row.getObject(i);
+        record.put(columnLabels[i - 1], row.wasNull() ? null : colValue);
       }
-      list.add(tModel);
-    }
+      return record;
+    };
+  }
+
+  private static <TModel> List<TModel> toList(ResultSet rs,
+      ThrowingFunction<ResultSet, TModel, SQLException> converter)
+      throws SQLException {
 
+    final List<TModel> list = new ArrayList<>();
+    while (rs.next()) {
+      list.add(converter.apply(rs));
+    }
     return list;
   }
 
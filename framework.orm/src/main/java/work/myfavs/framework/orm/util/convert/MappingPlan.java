@@ -0,0 +1,172 @@
+package work.myfavs.framework.orm.util.convert;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import work.myfavs.framework.orm.meta.schema.Attribute;
+import work.myfavs.framework.orm.meta.schema.Attributes;
+
+/**
+ * 结果集映射计划，记录与查询结果匹配的属性及其列序号
+ * <p>
+ * 映射计划按 (结果集类型, SQL语句) 缓存，避免每次查询都按列名查找属性；
+ * 同一 SQL 在不同数据源或表结构变更后的结果列可能不同，所以缓存的映射计划只在列名完全一致时使用
+ * <p>
+ * 结果集中有重名的列时（如 SELECT a.*, b.id），属性映射到第一个同名列
+ *
+ * @author tanqimin
+ */
+public final class MappingPlan {
+
+  /**
+   * 缓存的最大映射计划数量，超出后不再缓存，避免动态拼接的 SQL 占用过多内存
+   */
+  final static int MAX_CACHE_SIZE = 4096;
+
+  private final static Map<PlanKey, MappingPlan> CACHE = new ConcurrentHashMap<>();
+
+  /**
+   * 结果集的列名
+   */
+  private final String[]    columnLabels;
+  /**
+   * 与查询结果匹配的属性
+   */
+  private final Attribute[] attributes;
+  /**
+   * 属性对应的列序号
+   */
+  private final int[]       columnIndexes;
+
+  private MappingPlan(String[] columnLabels, Attribute[] attributes, int[] columnIndexes) {
+    this.columnLabels = columnLabels;
+    this.attributes = attributes;
+    this.columnIndexes = columnIndexes;
+  }
+
+  public Attribute[] getAttributes() {
+    return attributes;
+  }
+
+  public int[] getColumnIndexes() {
+    return columnIndexes;
+  }
+
+  /**
+   * 获取映射计划，如果缓存中的映射计划与结果集列名不一致，则重新解析并替换缓存
+   *
+   * @param modelClass 结果集类型
+   * @param sql        SQL语句，为 null 时不使用缓存
+   * @param attributes 结果集类型的查询字段
+   * @param metaData   ResultSetMetaData
+   * @return 映射计划
+   * @throws SQLException SQLException
+   */
+  public static MappingPlan get(Class<?> modelClass,
+      String sql,
+      Attributes attributes,
+      ResultSetMetaData metaData)
+      throws SQLException {
+
+    final String[] columnLabels = columnLabels(metaData);
+    if (sql == null) {
+      return create(attributes, columnLabels);
+    }
+
+    final PlanKey key  = new PlanKey(modelClass, sql);
+    MappingPlan   plan = CACHE.get(key);
+    if (plan != null && Arrays.equals(plan.columnLabels, columnLabels)) {
+      return plan;
+    }
+
+    plan = create(attributes, columnLabels);
+    if (CACHE.size() < MAX_CACHE_SIZE || CACHE.containsKey(key)) {
+      CACHE.put(key, plan);
+    }
+    return plan;
+  }
+
+  /**
+   * 清空映射计划缓存
+   */
+  public static void clear() {
+    CACHE.clear();
+  }
+
+  /**
+   * 缓存的映射计划数量
+   */
+  static int size() {
+    return CACHE.size();
+  }
+
+  private static String[] columnLabels(ResultSetMetaData metaData)
+      throws SQLException {
+
+    final String[] columnLabels = new String[metaData.getColumnCount()];
+    for (int i = 0; i < columnLabels.length; i++) {
+      columnLabels[i] = metaData.getColumnLabel(i + 1);
+    }
+    return columnLabels;
+  }
+
+  private static MappingPlan create(Attributes attributes,
+      String[] columnLabels) {
+
+    final List<Attribute> existsAttrs   = new ArrayList<>();
+    final List<Integer>   existsIndexes = new ArrayList<>();
+    for (int i = 0; i < columnLabels.length; i++) {
+      final String columnLabel = columnLabels[i];
+      if (!attributes.containsColumn(columnLabel)) {
+        continue;
+      }
+      final Attribute attribute = attributes.getAttribute(columnLabel);
+      //重名的列只映射第一个
+      if (existsAttrs.contains(attribute)) {
+        continue;
+      }
+      existsAttrs.add(attribute);
+      existsIndexes.add(i + 1);
+    }
+
+    return new MappingPlan(columnLabels,
+        existsAttrs.toArray(new Attribute[0]),
+        existsIndexes.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  private static final class PlanKey {
+
+    private final Class<?> modelClass;
+    private final String   sql;
+    private final int      hash;
+
+    private PlanKey(Class<?> modelClass, String sql) {
+      this.modelClass = modelClass;
+      this.sql = sql;
+      this.hash = 31 * modelClass.hashCode() + sql.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof PlanKey)) {
+        return false;
+      }
+      final PlanKey other = (PlanKey) o;
+      return modelClass == other.modelClass && Objects.equals(sql, other.sql);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+}
@@ -0,0 +1,117 @@
+package work.myfavs.framework.orm.util.convert;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.NoSuchElementException;
+import work.myfavs.framework.orm.util.DBUtil;
+import work.myfavs.framework.orm.util.common.CloseableIterator;
+import work.myfavs.framework.orm.util.exception.DBException;
+import work.myfavs.framework.orm.util.func.ThrowingFunction;
+
+/**
+ * ResultSet 迭代器，逐行读取并转换结果集，不在内存中缓存整个结果集
+ * <p>
+ * 读取到最后一行或发生异常时自动关闭，否则需要调用 {@link #close()} 关闭
+ *
+ * @param <T> 元素类型
+ * @author tanqimin
+ */
+public class ResultSetIterator<T>
+    implements CloseableIterator<T> {
+
+  private final Statement                                    statement;
+  private final ResultSet                                    rs;
+  private final ThrowingFunction<ResultSet, T, SQLException> converter;
+  /**
+   * 关闭 Statement 及 ResultSet 后执行，用于释放数据库连接
+   */
+  private final Runnable                                     onClose;
+
+  /**
+   * 是否已读取下一行
+   */
+  private boolean fetched = false;
+  /**
+   * 是否存在下一行
+   */
+  private boolean hasNext = false;
+  private boolean closed  = false;
+
+  /**
+   * 构造方法
+   *
+   * @param statement Statement
+   * @param rs        ResultSet
+   * @param converter 行转换器
+   * @param onClose   关闭后执行的操作
+   */
+  public ResultSetIterator(Statement statement,
+      ResultSet rs,
+      ThrowingFunction<ResultSet, T, SQLException> converter,
+      Runnable onClose) {
+    this.statement = statement;
+    this.rs = rs;
+    this.converter = converter;
+    this.onClose = onClose;
+  }
+
+  @Override
+  public boolean hasNext() {
+
+    if (closed) {
+      return false;
+    }
+
+    if (!fetched) {
+      try {
+        hasNext = rs.next();
+        fetched = true;
+      } catch (SQLException e) {
+        close();
+        throw new DBException(e);
+      }
+      if (!hasNext) {
+        close();
+      }
+    }
+    return hasNext;
+  }
+
+  @Override
+  public T next() {
+
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    fetched = false;
+    try {
+      return converter.apply(rs);
+    } catch (SQLException e) {
+      close();
+      throw new DBException(e);
+    } catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() {
+
+    if (closed) {
+      return;
+    }
+
+    closed = true;
+    try {
+      DBUtil.close(statement, rs);
+    } finally {
+      if (onClose != null) {
+        onClose.run();
+      }
+    }
+  }
+
+}
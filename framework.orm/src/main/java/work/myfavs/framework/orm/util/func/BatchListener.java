@@ -0,0 +1,20 @@
+package work.myfavs.framework.orm.util.func;
+
+/**
+ * 批量操作进度监听，每执行一批记录后调用
+ *
+ * @author tanqimin
+ */
+@FunctionalInterface
+public interface BatchListener {
+
+  /**
+   * 执行一批记录后调用
+   *
+   * @param batchRows    本批记录数
+   * @param affectedRows 本批影响行数
+   * @param totalRows    已处理的记录总数
+   */
+  void onFlush(int batchRows, int affectedRows, long totalRows);
+
+}
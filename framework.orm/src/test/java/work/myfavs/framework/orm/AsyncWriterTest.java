@@ -0,0 +1,25 @@
+package work.myfavs.framework.orm;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.util.exception.DBException;
+
+public class AsyncWriterTest {
+
+  @Test
+  public void isDataError() {
+    Assert.assertTrue(AsyncWriter.isDataError(new DBException(new SQLIntegrityConstraintViolationException("duplicate"))));
+    Assert.assertTrue(AsyncWriter.isDataError(new SQLException("too long", "22001")));
+
+    //批量执行时真正的错误可能挂在 getNextException 上
+    SQLException batch = new SQLException("batch failed", "HY000");
+    batch.setNextException(new SQLException("duplicate", "23505"));
+    Assert.assertTrue(AsyncWriter.isDataError(batch));
+
+    Assert.assertFalse(AsyncWriter.isDataError(new SQLTransientConnectionException("closed", "08003")));
+    Assert.assertFalse(AsyncWriter.isDataError(new IllegalStateException("closed")));
+  }
+}
@@ -3,17 +3,29 @@ package work.myfavs.framework.orm;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import work.myfavs.framework.orm.DBTemplate.Builder;
+import work.myfavs.framework.orm.entity.Identity;
 import work.myfavs.framework.orm.entity.Snowfake;
 import work.myfavs.framework.orm.entity.enums.TypeEnum;
+import work.myfavs.framework.orm.meta.ColumnVector;
 import work.myfavs.framework.orm.meta.clause.Sql;
 import work.myfavs.framework.orm.meta.dialect.TableAlias;
+import work.myfavs.framework.orm.meta.pagination.Slice;
+import work.myfavs.framework.orm.util.exception.DBException;
 
 public class DBTest {
 
@@ -50,6 +62,25 @@ public class DBTest {
     Assert.assertTrue(snowfakes.size() > 0);
   }
 
+  @Test
+  public void stream() {
+    long count;
+    try (Stream<Snowfake> stream = DB.conn().stream(Snowfake.class, new Sql("SELECT * FROM tb_snowflake"))) {
+      count = stream.filter(Objects::nonNull).count();
+    }
+    Assert.assertEquals(DB.conn().find(Snowfake.class, "SELECT * FROM tb_snowflake", null).size(), count);
+  }
+
+  @Test
+  public void findLongs() {
+    long[] ids = DB.conn().findLongs(new Sql("SELECT id FROM tb_snowflake"));
+    Assert.assertEquals(DB.conn().count(new Sql("SELECT id FROM tb_snowflake")), ids.length);
+
+    Map<String, ColumnVector> columns = DB.conn().findColumns(new Sql("SELECT id, price FROM tb_snowflake"), true);
+    Assert.assertEquals(ids.length, columns.get("id").getLongs().length);
+    Assert.assertEquals(ids.length, columns.get("price").getDoubles().length);
+  }
+
   @Test
   public void getByCondition() {
 
@@ -83,6 +114,155 @@ public class DBTest {
     });
   }
 
+  @Test
+  public void createStream() {
+    Iterator<Snowfake> entities = IntStream.range(0, 2500).mapToObj(i -> {
+      Snowfake snowfake = new Snowfake();
+      snowfake.setCreated(new Date());
+      snowfake.setName("stream" + i);
+      snowfake.setDisable(false);
+      snowfake.setPrice(new BigDecimal(i));
+      snowfake.setType(TypeEnum.FOOD);
+      return snowfake;
+    }).iterator();
+
+    DB.conn().tx(db -> {
+      long   count  = getCount(db);
+      long[] total  = new long[1];
+      long   result = db.createStream(Snowfake.class, entities, (batchRows, affectedRows, totalRows) -> total[0] = totalRows);
+      Assert.assertEquals(2500L, result);
+      Assert.assertEquals(2500L, total[0]);
+      Assert.assertEquals(count + 2500L, getCount(db));
+      db.rollback();
+    });
+  }
+
+  @Test
+  public void upsert() {
+    List<Snowfake> entities = IntStream.range(0, 10).mapToObj(i -> {
+      Snowfake snowfake = new Snowfake();
+      snowfake.setCreated(new Date());
+      snowfake.setName("upsert" + i);
+      snowfake.setPrice(new BigDecimal(i));
+      snowfake.setType(TypeEnum.FOOD);
+      return snowfake;
+    }).collect(Collectors.toList());
+
+    DB.conn().tx(db -> {
+      long count = getCount(db);
+      db.upsert(Snowfake.class, entities);
+      Assert.assertEquals(count + 10L, getCount(db));
+
+      //Connector/J 默认开启 CLIENT_FOUND_ROWS，已存在的行也计入影响行数，所以只检查记录未变化
+      entities.forEach(snowfake -> snowfake.setName("changed"));
+      db.createIfAbsent(Snowfake.class, entities);
+      Assert.assertEquals(count + 10L, getCount(db));
+      Assert.assertEquals("upsert0", db.getById(Snowfake.class, entities.get(0).getId()).getName());
+      db.upsert(Snowfake.class, entities, new String[]{"name"});
+      Assert.assertEquals(count + 10L, getCount(db));
+      Assert.assertEquals("changed", db.getById(Snowfake.class, entities.get(0).getId()).getName());
+      db.rollback();
+    });
+  }
+
+  @Test
+  public void upsertIdentity() {
+    List<Identity> entities = IntStream.range(0, 3).mapToObj(i -> {
+      Identity identity = new Identity();
+      identity.setCreated(new Date());
+      identity.setName("upsert" + i);
+      identity.setPrice(new BigDecimal(i));
+      identity.setType(TypeEnum.FOOD);
+      return identity;
+    }).collect(Collectors.toList());
+
+    DB.conn().tx(db -> {
+      //主键为空时按普通方式创建，并回写自增主键
+      Assert.assertEquals(3, db.upsert(Identity.class, entities));
+      entities.forEach(identity -> Assert.assertNotNull(identity.getId()));
+
+      entities.forEach(identity -> identity.setName("changed"));
+      db.upsert(Identity.class, entities, new String[]{"name"});
+      Assert.assertEquals("changed", db.getById(Identity.class, entities.get(0).getId()).getName());
+      db.rollback();
+    });
+  }
+
+  @Test
+  public void findByIdsInChunks() {
+    List<Snowfake> entities = IntStream.range(0, 3000).mapToObj(i -> {
+      Snowfake snowfake = new Snowfake();
+      snowfake.setName("chunk" + i);
+      snowfake.setType(TypeEnum.FOOD);
+      return snowfake;
+    }).collect(Collectors.toList());
+
+    DB.conn().tx(db -> {
+      db.create(Snowfake.class, entities);
+      List<Long> ids = entities.stream().map(Snowfake::getId).collect(Collectors.toList());
+      Collections.reverse(ids);
+
+      List<Snowfake> result = db.findByIds(Snowfake.class, ids, true);
+      Assert.assertEquals(3000, result.size());
+      Assert.assertEquals(ids.get(0), result.get(0).getId());
+      Assert.assertEquals(3000, db.deleteByIds(Snowfake.class, ids));
+      db.rollback();
+    });
+  }
+
+  @Test
+  public void createParallel() {
+    List<Snowfake> entities = IntStream.range(0, 50000).mapToObj(i -> {
+      Snowfake snowfake = new Snowfake();
+      snowfake.setName("parallel" + i);
+      snowfake.setType(TypeEnum.FOOD);
+      return snowfake;
+    }).collect(Collectors.toList());
+
+    long       count  = getCount(DB.conn());
+    BulkResult result = DB.conn().createParallel(Snowfake.class, entities);
+    Assert.assertTrue(result.isSuccess());
+    Assert.assertEquals(50000L, result.getAffectedRows());
+    Assert.assertEquals(count + 50000L, getCount(DB.conn()));
+    Assert.assertEquals(50000, DB.conn().deleteByIds(Snowfake.class,
+        entities.stream().map(Snowfake::getId).collect(Collectors.toList())));
+  }
+
+  @Test
+  public void createAsync() {
+    List<CompletableFuture<Snowfake>> futures = IntStream.range(0, 1000).mapToObj(i -> {
+      Snowfake snowfake = new Snowfake();
+      snowfake.setName("async" + i);
+      snowfake.setType(TypeEnum.FOOD);
+      return DB.conn().createAsync(Snowfake.class, snowfake);
+    }).collect(Collectors.toList());
+
+    List<Long> ids = futures.stream().map(CompletableFuture::join).map(Snowfake::getId).collect(Collectors.toList());
+    Assert.assertEquals(1000, DB.conn().findByIds(Snowfake.class, ids).size());
+    Assert.assertEquals(1000, DB.conn().deleteByIds(Snowfake.class, ids));
+
+    dbTemplate.getAsyncWriter().close();
+    Assert.assertTrue(dbTemplate.getAsyncWriter().isClosed());
+  }
+
+  @Test
+  public void findSlice() {
+    Sql             sql       = new Sql("SELECT * FROM tb_snowfake");
+    String[]        orderKeys = new String[]{"id"};
+    Slice<Snowfake> first     = DB.conn().findSlice(Snowfake.class, sql, orderKeys, null, 10);
+    Assert.assertTrue(first.getData().size() <= 10);
+    if (first.isHasNext()) {
+      Slice<Snowfake> next = DB.conn().findSlice(Snowfake.class, sql, orderKeys, first.getNextCursor(), 10);
+      Assert.assertTrue(next.getData().get(0).getId() > first.getData().get(9).getId());
+    }
+  }
+
+  @Test(expected = DBException.class)
+  public void findSliceByEnumKey() {
+    //枚举不能编码为游标，在查询前检查
+    DB.conn().findSlice(Snowfake.class, new Sql("SELECT * FROM tb_snowfake"), new String[]{"type", "id"}, null, 10);
+  }
+
   private long getCount(DB db) {
 
     return db.count(new Sql("SELECT * FROM tb_snowfake"));
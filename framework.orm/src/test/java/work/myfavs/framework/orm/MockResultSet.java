@@ -0,0 +1,197 @@
+package work.myfavs.framework.orm;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+
+/**
+ * 测试用的结果集，基于动态代理，只实现映射时用到的 next、getXxx、wasNull、getMetaData 等方法
+ */
+public final class MockResultSet {
+
+  private MockResultSet() {
+
+  }
+
+  /**
+   * 只有一列的结果集，已指向唯一的一行
+   *
+   * @param value 列值
+   * @return ResultSet
+   */
+  public static ResultSet single(Object value) {
+
+    final ResultSet rs = of(new String[]{"value"}, new Object[][]{{value}});
+    next(rs);
+    return rs;
+  }
+
+  /**
+   * 只有一行的结果集，已指向这一行，列名为 c1、c2...
+   *
+   * @param row 各列的值
+   * @return ResultSet
+   */
+  public static ResultSet row(Object... row) {
+
+    final String[] labels = new String[row.length];
+    for (int i = 0; i < labels.length; i++) {
+      labels[i] = "c" + (i + 1);
+    }
+    final ResultSet rs = of(labels, new Object[][]{row});
+    next(rs);
+    return rs;
+  }
+
+  /**
+   * 多行结果集，指向第一行之前
+   *
+   * @param labels 列名
+   * @param rows   各行的值
+   * @return ResultSet
+   */
+  public static ResultSet of(String[] labels,
+      Object[]... rows) {
+
+    return of(labels, (int[]) null, rows);
+  }
+
+  /**
+   * 多行结果集，指向第一行之前
+   *
+   * @param labels 列名
+   * @param types  列的 {@link java.sql.Types} 类型
+   * @param rows   各行的值
+   * @return ResultSet
+   */
+  public static ResultSet of(String[] labels,
+      int[] types,
+      Object[]... rows) {
+
+    final int[]    cursor = {-1};
+    final Object[] last   = {null};
+    return (ResultSet) Proxy.newProxyInstance(MockResultSet.class.getClassLoader(),
+        new Class[]{ResultSet.class},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "next":
+              return ++cursor[0] < rows.length;
+            case "getMetaData":
+              return metaData(labels, types);
+            case "findColumn":
+              return indexOf(labels, args[0]);
+            case "wasNull":
+              return last[0] == null;
+            case "close":
+              return null;
+            default:
+              if (!method.getName().startsWith("get") || args == null || args.length != 1) {
+                throw new UnsupportedOperationException(method.getName());
+              }
+              final Object value = rows[cursor[0]][indexOf(labels, args[0]) - 1];
+              last[0] = value;
+              return cast(value, method.getReturnType());
+          }
+        });
+  }
+
+  /**
+   * 只实现列数与列名的 ResultSetMetaData
+   *
+   * @param labels 列名
+   * @return ResultSetMetaData
+   */
+  public static ResultSetMetaData metaData(String... labels) {
+
+    return metaData(labels, null);
+  }
+
+  /**
+   * 只实现列数、列名及列类型的 ResultSetMetaData
+   *
+   * @param labels 列名
+   * @param types  列的 {@link java.sql.Types} 类型，为 null 时不支持获取列类型
+   * @return ResultSetMetaData
+   */
+  public static ResultSetMetaData metaData(String[] labels,
+      int[] types) {
+
+    return (ResultSetMetaData) Proxy.newProxyInstance(MockResultSet.class.getClassLoader(),
+        new Class[]{ResultSetMetaData.class},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getColumnCount":
+              return labels.length;
+            case "getColumnLabel":
+            case "getColumnName":
+              return labels[(int) args[0] - 1];
+            case "getColumnType":
+              if (types == null) {
+                throw new UnsupportedOperationException(method.getName());
+              }
+              return types[(int) args[0] - 1];
+            case "getColumnTypeName":
+              return String.valueOf(types == null ? null : types[(int) args[0] - 1]);
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  private static void next(ResultSet rs) {
+
+    try {
+      rs.next();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static int indexOf(String[] labels,
+      Object column) {
+
+    if (column instanceof Integer) {
+      return (Integer) column;
+    }
+    //只有一列时，任意列名都指向这一列
+    if (labels.length == 1) {
+      return 1;
+    }
+    for (int i = 0; i < labels.length; i++) {
+      if (labels[i].equalsIgnoreCase((String) column)) {
+        return i + 1;
+      }
+    }
+    throw new IllegalArgumentException("Column not found: " + column);
+  }
+
+  private static Object cast(Object value,
+      Class<?> type) {
+
+    if (type == String.class) {
+      return value == null ? null : value.toString();
+    }
+    if (!type.isPrimitive()) {
+      return value;
+    }
+    if (type == boolean.class) {
+      return value != null && (Boolean) value;
+    }
+    final Number number = value == null ? 0 : (Number) value;
+    if (type == int.class) {
+      return number.intValue();
+    } else if (type == long.class) {
+      return number.longValue();
+    } else if (type == double.class) {
+      return number.doubleValue();
+    } else if (type == float.class) {
+      return number.floatValue();
+    } else if (type == short.class) {
+      return number.shortValue();
+    } else if (type == byte.class) {
+      return number.byteValue();
+    }
+    throw new UnsupportedOperationException(type.getName());
+  }
+
+}
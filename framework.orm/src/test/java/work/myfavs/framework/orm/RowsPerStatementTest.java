@@ -0,0 +1,33 @@
+package work.myfavs.framework.orm;
+
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.meta.dialect.SqlServerDialect;
+
+public class RowsPerStatementTest {
+
+  private final int maxParameters = new SqlServerDialect().maxParameters();
+
+  @Test
+  public void sqlServer() {
+    //每行 8 个参数：262 * 8 = 2096
+    Assert.assertEquals(262, DB.rowsPerStatement(maxParameters, 1000, 8, 0));
+    //每行 1049 个参数时两行恰好为 2098，1050 个参数时只能一行，否则为 2100 个参数，服务器拒绝执行
+    Assert.assertEquals(2, DB.rowsPerStatement(maxParameters, 1000, 1049, 0));
+    Assert.assertEquals(1, DB.rowsPerStatement(maxParameters, 1000, 1050, 0));
+    for (int paramsPerRow = 1; paramsPerRow <= 64; paramsPerRow++) {
+      for (int fixedParams = 0; fixedParams <= 2; fixedParams++) {
+        int rows = DB.rowsPerStatement(maxParameters, 5000, paramsPerRow, fixedParams);
+        Assert.assertTrue(rows * paramsPerRow + fixedParams <= 2098);
+        Assert.assertTrue((rows + 1) * paramsPerRow + fixedParams > 2098);
+      }
+    }
+  }
+
+  @Test
+  public void batchSize() {
+    Assert.assertEquals(200, DB.rowsPerStatement(maxParameters, 200, 8, 0));
+    Assert.assertEquals(200, DB.rowsPerStatement(maxParameters, 200, 0, 0));
+    Assert.assertEquals(1, DB.rowsPerStatement(maxParameters, 200, 4000, 0));
+  }
+}
@@ -0,0 +1,113 @@
+package work.myfavs.framework.orm;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import work.myfavs.framework.orm.DBTemplate.Builder;
+import work.myfavs.framework.orm.entity.Snowfake;
+import work.myfavs.framework.orm.entity.enums.TypeEnum;
+import work.myfavs.framework.orm.meta.enumeration.UpdateStrategy;
+
+/**
+ * 比较批量更新方式在当前数据库上的耗时，结果可用于设置 {@link DBConfig#setUpdateStrategy(UpdateStrategy)}
+ * <p>
+ * 每种方式在独立的 JVM 中测量，每次更新写入不同的值并提交；需要连接数据库，不随单元测试执行，运行 {@link #main(String[])}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class UpdateStrategyBenchmark {
+
+  private final static String   URL      = "jdbc:mysql://127.0.0.1:3306/myfavs_test?useUnicode=true&useServerPrepStmts=false&rewriteBatchedStatements=true&characterEncoding=utf-8&useSSL=false&serverTimezone=GMT%2B8";
+  private final static String   USER     = "root";
+  private final static String   PASSWORD = "root";
+  private final static int      ROWS     = 5000;
+  private final static String[] COLUMNS  = new String[]{"name", "price"};
+
+  @Param({"CASE_WHEN", "JDBC_BATCH"})
+  private UpdateStrategy strategy;
+
+  private HikariDataSource dataSource;
+  private DBTemplate       dbTemplate;
+  private List<Snowfake>   entities;
+  private int              round;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+
+    HikariConfig configuration = new HikariConfig();
+    configuration.setJdbcUrl(URL);
+    configuration.setUsername(USER);
+    configuration.setPassword(PASSWORD);
+    configuration.setAutoCommit(false);
+    dataSource = new HikariDataSource(configuration);
+
+    dbTemplate = new Builder().dataSource(dataSource).build();
+    dbTemplate.getDbConfig().setUpdateStrategy(strategy);
+
+    entities = IntStream.range(0, ROWS).mapToObj(i -> {
+      Snowfake snowfake = new Snowfake();
+      snowfake.setCreated(new Date());
+      snowfake.setName("benchmark" + i);
+      snowfake.setPrice(new BigDecimal(i));
+      snowfake.setType(TypeEnum.FOOD);
+      return snowfake;
+    }).collect(Collectors.toList());
+    DB.conn(dbTemplate).tx(db -> {
+      db.create(Snowfake.class, entities);
+    });
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+
+    DB.conn(dbTemplate).tx(db -> {
+      db.delete(Snowfake.class, entities);
+    });
+    dataSource.close();
+  }
+
+  @Benchmark
+  public int update() {
+
+    final int value = ++round;
+    entities.forEach(snowfake -> {
+      snowfake.setName("benchmark" + value);
+      snowfake.setPrice(new BigDecimal(value));
+    });
+    return DB.conn(dbTemplate).tx(db -> {
+      return db.update(Snowfake.class, entities, COLUMNS);
+    });
+  }
+
+  public static void main(String[] args)
+      throws RunnerException {
+
+    new Runner(new OptionsBuilder().include(UpdateStrategyBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
@@ -0,0 +1,70 @@
+package work.myfavs.framework.orm.meta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import work.myfavs.framework.orm.meta.CompactRecord.Schema;
+
+public class CompactRecordTest {
+
+  Schema schema;
+
+  @Before
+  public void setUp() {
+    schema = new Schema(new String[]{"id", "name", "id"});
+  }
+
+  private CompactRecord create() {
+    Object[] values = new Object[schema.size()];
+    values[schema.slotOf(1)] = 1L;
+    values[schema.slotOf(2)] = "name";
+    values[schema.slotOf(3)] = 2L;
+    return new CompactRecord(schema, values);
+  }
+
+  @Test
+  public void get() {
+    CompactRecord record = create();
+    Assert.assertEquals(2, record.size());
+    Assert.assertEquals(Long.valueOf(2L), record.getLong("id"));
+    Assert.assertEquals("name", record.getStr("name"));
+    Assert.assertNull(record.get("none"));
+    Assert.assertEquals("default", record.get("none", "default"));
+    Assert.assertEquals(Arrays.asList("id", "name"), new ArrayList<>(record.keySet()));
+  }
+
+  @Test
+  public void equalsRecord() {
+    Record record = Record.create().set("id", 2L).set("name", "name");
+    Assert.assertEquals(record, create());
+    Assert.assertEquals(record.hashCode(), create().hashCode());
+    Assert.assertEquals(record.toString(), create().toString());
+  }
+
+  @Test
+  public void put() {
+    CompactRecord record = create();
+    record.set("name", "changed");
+    Assert.assertEquals("changed", record.getStr("name"));
+
+    record.set("price", 10);
+    Assert.assertEquals(3, record.size());
+    Assert.assertEquals(Integer.valueOf(10), record.getInt("price"));
+    Assert.assertEquals("changed", record.getStr("name"));
+
+    record.remove("id");
+    Assert.assertFalse(record.containsKey("id"));
+    Assert.assertEquals(2, record.size());
+  }
+
+  @Test
+  public void cloneRecord() {
+    CompactRecord record = create();
+    Record        clone  = record.clone();
+    clone.set("name", "clone");
+    Assert.assertEquals("name", record.getStr("name"));
+    Assert.assertEquals("clone", clone.getStr("name"));
+  }
+}
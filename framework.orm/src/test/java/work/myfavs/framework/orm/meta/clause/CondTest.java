@@ -1,9 +1,11 @@
 package work.myfavs.framework.orm.meta.clause;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import org.junit.Assert;
 import org.junit.Test;
+import work.myfavs.framework.orm.util.PKGenerator;
 
 public class CondTest {
 
@@ -74,6 +76,20 @@ public class CondTest {
 
   }
 
+  @Test
+  public void idCreatedBetween() {
+
+    Date from = new Date(1600000000000L);
+    Date to   = new Date(1600000060000L);
+    Cond cond = Cond.idCreatedBetween("id", from, to);
+    Assert.assertEquals(" id BETWEEN ? AND ?", cond.sql.toString());
+    Assert.assertEquals(PKGenerator.minSnowFlakeId(from.getTime()), cond.params.get(0));
+    Assert.assertEquals(PKGenerator.maxSnowFlakeId(to.getTime()), cond.params.get(1));
+
+    cond = Cond.idCreatedBetween("id", from, null);
+    Assert.assertEquals(" id >= ?", cond.sql.toString());
+  }
+
   @Test
   public void in() {
 
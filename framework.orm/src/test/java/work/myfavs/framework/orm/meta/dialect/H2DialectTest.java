@@ -0,0 +1,28 @@
+package work.myfavs.framework.orm.meta.dialect;
+
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.entity.Snowfake;
+import work.myfavs.framework.orm.meta.clause.Cond;
+import work.myfavs.framework.orm.meta.clause.SqlArray;
+
+public class H2DialectTest {
+
+  private final IDialect dialect = new H2Dialect();
+
+  @Test
+  public void upsertBatch() {
+    String sql = dialect.upsertBatch(Snowfake.class, 2, new String[]{"name"}, false);
+    Assert.assertTrue(sql.startsWith("MERGE INTO tb_snowfake tgt USING (VALUES (?,"));
+  }
+
+  @Test
+  public void in() {
+    Cond any = dialect.in("id", Arrays.asList(1L, 2L, 3L));
+    Assert.assertEquals(" id = ANY(?)", any.getSqlString());
+    Assert.assertEquals("BIGINT", ((SqlArray) any.getParams().get(0)).getTypeName());
+    Assert.assertEquals(4, dialect.in("id", Arrays.asList(1L, 2, 3L)).getParams().size());
+  }
+
+}
@@ -0,0 +1,94 @@
+package work.myfavs.framework.orm.meta.dialect;
+
+import cn.hutool.core.util.StrUtil;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.entity.Snowfake;
+import work.myfavs.framework.orm.meta.clause.Cond;
+import work.myfavs.framework.orm.meta.clause.Sql;
+import work.myfavs.framework.orm.meta.enumeration.UpdateStrategy;
+import work.myfavs.framework.orm.util.exception.DBException;
+
+public class MySqlDialectTest {
+
+  private final IDialect dialect = new MySqlDialect();
+
+  @Test
+  public void insertBatch() {
+    String sql = dialect.insertBatch(Snowfake.class, 3);
+    Assert.assertTrue(sql.startsWith("INSERT INTO tb_snowfake (id,"));
+    Assert.assertEquals(3, StrUtil.count(sql, "(?,"));
+    Assert.assertSame(sql, dialect.insertBatch(Snowfake.class, 3));
+
+    String aliasSql = TableAlias.function("tb_snowfake_1", s -> dialect.insertBatch(Snowfake.class, 3));
+    TableAlias.clear();
+    Assert.assertTrue(aliasSql.startsWith("INSERT INTO tb_snowfake_1 ("));
+  }
+
+  @Test
+  public void maxParameters() {
+    Assert.assertEquals(65535, dialect.maxParameters());
+  }
+
+  @Test
+  public void updateStrategy() {
+    Assert.assertEquals(UpdateStrategy.CASE_WHEN, dialect.updateStrategy());
+  }
+
+  @Test
+  public void upsertBatch() {
+    String sql = dialect.upsertBatch(Snowfake.class, 2, new String[]{"name", "price"}, false);
+    Assert.assertTrue(sql.startsWith("INSERT INTO tb_snowfake (id,"));
+    Assert.assertTrue(sql.endsWith(" ON DUPLICATE KEY UPDATE name = VALUES(name),price = VALUES(price)"));
+    Assert.assertSame(sql, dialect.upsertBatch(Snowfake.class, 2, new String[]{"price", "name"}, false));
+
+    String ignoreSql = dialect.upsertBatch(Snowfake.class, 2, null, true);
+    Assert.assertTrue(ignoreSql.endsWith(" ON DUPLICATE KEY UPDATE id = id"));
+  }
+
+  @Test
+  public void updateColumns() {
+    Sql sql = dialect.update(Snowfake.class, new String[]{"price", "name"});
+    Assert.assertEquals("UPDATE tb_snowfake SET name = ?, price = ? WHERE id = ?", sql.getSqlString().trim());
+    Assert.assertEquals(sql.getSqlString(), dialect.update(Snowfake.class, new String[]{"name", "price"}).getSqlString());
+  }
+
+  @Test(expected = DBException.class)
+  public void updateUnknownColumns() {
+    dialect.update(Snowfake.class, new String[]{"unknown"});
+  }
+
+  @Test
+  public void in() {
+    Cond cond = dialect.in("id", Arrays.asList(1L, 2L, 3L));
+    Assert.assertEquals(4, StrUtil.count(cond.getSqlString(), "?"));
+    Assert.assertEquals(Arrays.asList(1L, 2L, 3L, 3L), cond.getParams());
+    Assert.assertEquals(" 1 > 2", dialect.in("id", Collections.emptyList()).getSqlString());
+  }
+
+  @Test
+  public void selectSlice() {
+    String sql = "SELECT * FROM tb_snowfake WHERE type = ? ORDER BY name";
+    Sql first = dialect.selectSlice(sql, Collections.singletonList("FOOD"), new String[]{"created", "id"}, false, null, 21);
+    Assert.assertEquals("SELECT * FROM (SELECT * FROM tb_snowfake WHERE type = ?) slice_alias ORDER BY created, id LIMIT ?",
+        first.getSqlString());
+    Assert.assertEquals(Arrays.asList("FOOD", 21), first.getParams());
+
+    Sql next = dialect.selectSlice(sql, Collections.singletonList("FOOD"), new String[]{"created", "id"}, true,
+        new Object[]{"2020-01-01", 10L}, 21);
+    Assert.assertTrue(next.getSqlString().contains(" WHERE (created, id) < (?, ?) ORDER BY created DESC, id DESC LIMIT ?"));
+    Assert.assertEquals(4, next.getParams().size());
+
+    //子查询及窗口函数中的 ORDER BY 保留，只移除最外层的 ORDER BY
+    String nested = "SELECT t.*, ROW_NUMBER() OVER (ORDER BY price) rn FROM (SELECT * FROM tb_snowfake ORDER BY id) t ORDER BY name";
+    Assert.assertEquals("SELECT * FROM (SELECT t.*, ROW_NUMBER() OVER (ORDER BY price) rn FROM (SELECT * FROM tb_snowfake ORDER BY id) t)"
+        + " slice_alias ORDER BY id LIMIT ?", dialect.selectSlice(nested, Collections.emptyList(), new String[]{"id"}, false, null, 21)
+        .getSqlString());
+    String quoted = "SELECT * FROM tb_snowfake WHERE name <> ') ORDER BY x'";
+    Assert.assertTrue(dialect.selectSlice(quoted, Collections.emptyList(), new String[]{"id"}, false, null, 21)
+        .getSqlString().contains("') ORDER BY x')"));
+  }
+
+}
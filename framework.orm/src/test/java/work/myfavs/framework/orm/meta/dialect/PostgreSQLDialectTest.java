@@ -0,0 +1,30 @@
+package work.myfavs.framework.orm.meta.dialect;
+
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.entity.Snowfake;
+import work.myfavs.framework.orm.meta.clause.Cond;
+import work.myfavs.framework.orm.meta.clause.SqlArray;
+
+public class PostgreSQLDialectTest {
+
+  private final IDialect dialect = new PostgreSQLDialect();
+
+  @Test
+  public void upsertBatch() {
+    String sql = dialect.upsertBatch(Snowfake.class, 2, null, true);
+    Assert.assertTrue(sql.endsWith(" ON CONFLICT (id) DO NOTHING"));
+  }
+
+  @Test
+  public void in() {
+    Cond any = dialect.in("id", Arrays.asList(1L, 2L, 3L));
+    Assert.assertEquals(" id = ANY(?)", any.getSqlString());
+    Assert.assertEquals("BIGINT", ((SqlArray) any.getParams().get(0)).getTypeName());
+
+    //元素类型不一致时补齐到 2 的幂
+    Assert.assertEquals(4, dialect.in("id", Arrays.asList(1L, 2, 3L)).getParams().size());
+  }
+
+}
@@ -0,0 +1,60 @@
+package work.myfavs.framework.orm.meta.dialect;
+
+import cn.hutool.core.util.StrUtil;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.entity.Identity;
+import work.myfavs.framework.orm.entity.Snowfake;
+import work.myfavs.framework.orm.meta.clause.Sql;
+import work.myfavs.framework.orm.meta.enumeration.UpdateStrategy;
+
+public class SqlServerDialectTest {
+
+  private final IDialect dialect = new SqlServerDialect();
+
+  @Test
+  public void maxParameters() {
+    Assert.assertEquals(2098, dialect.maxParameters());
+    Assert.assertEquals(2098, new SqlServer2012Dialect().maxParameters());
+  }
+
+  @Test
+  public void updateStrategy() {
+    Assert.assertEquals(UpdateStrategy.JDBC_BATCH, dialect.updateStrategy());
+    Assert.assertEquals(UpdateStrategy.JDBC_BATCH, new SqlServer2012Dialect().updateStrategy());
+  }
+
+  @Test
+  public void upsertBatch() {
+    String sql = dialect.upsertBatch(Snowfake.class, 2, new String[]{"name"}, false);
+    Assert.assertTrue(sql.startsWith("MERGE INTO tb_snowfake tgt USING (VALUES (?,"));
+    Assert.assertEquals(2, StrUtil.count(sql, "(?,"));
+    Assert.assertTrue(sql.contains(" ON tgt.id = src.id WHEN MATCHED THEN UPDATE SET name = src.name WHEN NOT MATCHED"));
+    Assert.assertTrue(sql.endsWith(");"));
+  }
+
+  @Test
+  public void upsertBatchIdentity() {
+    //自增主键只用于匹配，插入时由数据库生成
+    String sql = dialect.upsertBatch(Identity.class, 2, new String[]{"name"}, false);
+    Assert.assertTrue(sql.startsWith("MERGE INTO tb_identity tgt USING (VALUES (?,"));
+    Assert.assertTrue(sql.contains(") src (id,"));
+    Assert.assertTrue(sql.contains(" ON tgt.id = src.id WHEN MATCHED THEN UPDATE SET name = src.name"));
+    Assert.assertTrue(sql.contains(" WHEN NOT MATCHED THEN INSERT (created,"));
+    Assert.assertFalse(sql.contains("src.id,"));
+    Assert.assertTrue(new SqlServer2012Dialect().upsertBatch(Identity.class, 2, null, true).contains(" WHEN NOT MATCHED THEN INSERT (created,"));
+  }
+
+  @Test
+  public void selectSlice() {
+    //SQL Server 不支持行值比较，展开为 OR 条件
+    String sql = "SELECT * FROM tb_snowfake WHERE type = ? ORDER BY name";
+    Sql expanded = new SqlServer2012Dialect().selectSlice(sql, Collections.emptyList(), new String[]{"created", "id"}, false,
+        new Object[]{"2020-01-01", 10L}, 21);
+    Assert.assertTrue(expanded.getSqlString().contains(" WHERE ((created > ?) OR (created = ? AND id > ?)) ORDER BY created, id OFFSET 0 ROWS"));
+    Assert.assertEquals(Arrays.asList("2020-01-01", "2020-01-01", 10L, 21), expanded.getParams());
+  }
+
+}
@@ -0,0 +1,80 @@
+package work.myfavs.framework.orm.meta.handler.impls;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.MockResultSet;
+import work.myfavs.framework.orm.entity.enums.TypeEnum;
+import work.myfavs.framework.orm.meta.enumeration.CodeEnum;
+import work.myfavs.framework.orm.meta.handler.impls.EnumPropertyHandler.Mode;
+
+public class EnumPropertyHandlerTest {
+
+  enum Status implements CodeEnum {
+    ENABLED(1),
+    DISABLED(9);
+
+    private final int code;
+
+    Status(int code) {
+      this.code = code;
+    }
+
+    @Override
+    public int getCode() {
+      return code;
+    }
+  }
+
+  @Test
+  public void convertByName() throws SQLException {
+    EnumPropertyHandler handler = new EnumPropertyHandler();
+    Assert.assertEquals(TypeEnum.DRINK, handler.convert(MockResultSet.single("DRINK"), 1, TypeEnum.class));
+    Assert.assertNull(handler.convert(MockResultSet.single("NONE"), 1, TypeEnum.class));
+    Assert.assertNull(handler.convert(MockResultSet.single(null), 1, TypeEnum.class));
+  }
+
+  @Test
+  public void convertByCode() throws SQLException {
+    EnumPropertyHandler handler = new EnumPropertyHandler();
+    Assert.assertEquals(Status.DISABLED, handler.convert(MockResultSet.single(9), 1, Status.class));
+    Assert.assertNull(handler.convert(MockResultSet.single(2), 1, Status.class));
+    Assert.assertNull(handler.convert(MockResultSet.single(null), "status", Status.class));
+  }
+
+  @Test
+  public void convertByOrdinal() throws SQLException {
+    EnumPropertyHandler handler = new EnumPropertyHandler(Mode.ORDINAL);
+    Assert.assertEquals(TypeEnum.DRINK, handler.convert(MockResultSet.single(1), 1, TypeEnum.class));
+    Assert.assertEquals(Status.DISABLED, handler.convert(MockResultSet.single(1), 1, Status.class));
+    Assert.assertNull(handler.convert(MockResultSet.single(5), 1, TypeEnum.class));
+  }
+
+  @Test
+  public void addParameter() throws SQLException {
+    List<Object>      calls = new ArrayList<>();
+    PreparedStatement ps    = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+          calls.add(method.getName());
+          calls.addAll(Arrays.asList(args).subList(1, args.length));
+          return null;
+        });
+
+    new EnumPropertyHandler().addParameter(ps, 1, TypeEnum.DRINK);
+    new EnumPropertyHandler().addParameter(ps, 1, Status.DISABLED);
+    new EnumPropertyHandler(Mode.ORDINAL).addParameter(ps, 1, Status.DISABLED);
+    Assert.assertEquals(Arrays.asList("setString", "DRINK", "setInt", 9, "setInt", 1), calls);
+
+    calls.clear();
+    new EnumPropertyHandler(Mode.CODE).addParameter(ps, 1, null);
+    new EnumPropertyHandler(Mode.NAME).addParameter(ps, 1, null);
+    new EnumPropertyHandler().addParameter(ps, 1, null);
+    Assert.assertEquals(Arrays.asList("setNull", Types.INTEGER, "setNull", Types.VARCHAR, "setObject", null), calls);
+  }
+}
@@ -0,0 +1,33 @@
+package work.myfavs.framework.orm.meta.handler.impls;
+
+import java.sql.SQLException;
+import java.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.MockResultSet;
+import work.myfavs.framework.orm.util.PKGenerator;
+import work.myfavs.framework.orm.util.exception.DBException;
+
+public class UUIDPropertyHandlerTest {
+
+  @Test
+  public void convertBinary() throws SQLException {
+    UUID                uuid    = new PKGenerator(1L, 1L).nextUUIDv7();
+    UUIDPropertyHandler handler = new UUIDPropertyHandler(true);
+    byte[]              bytes   = UUIDPropertyHandler.toBytes(uuid);
+    Assert.assertEquals(16, bytes.length);
+    Assert.assertEquals(uuid, handler.convert(MockResultSet.single(bytes), 1, UUID.class));
+    Assert.assertNull(handler.convert(MockResultSet.single(null), "id", UUID.class));
+  }
+
+  @Test(expected = DBException.class)
+  public void convertBinaryOfWrongLength() throws SQLException {
+    new UUIDPropertyHandler(true).convert(MockResultSet.single(new byte[20]), 1, UUID.class);
+  }
+
+  @Test
+  public void convertString() throws SQLException {
+    UUID uuid = UUID.randomUUID();
+    Assert.assertEquals(uuid, new UUIDPropertyHandler().convert(MockResultSet.single(uuid.toString()), 1, UUID.class));
+  }
+}
@@ -0,0 +1,56 @@
+package work.myfavs.framework.orm.meta.pagination;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.entity.enums.TypeEnum;
+import work.myfavs.framework.orm.util.exception.DBException;
+
+public class CursorTest {
+
+  @Test
+  public void encode() {
+    Timestamp timestamp = new Timestamp(1600000000000L);
+    timestamp.setNanos(123456789);
+    Object[] values = new Object[]{1L, 2, "name,1", new BigDecimal("1.50"), new Date(1600000000000L), timestamp,
+        LocalDateTime.of(2020, 1, 1, 8, 30), UUID.randomUUID(), true};
+
+    String cursor = Cursor.encode(values);
+    Assert.assertFalse(cursor.contains("/") || cursor.contains("+") || cursor.contains("="));
+    Assert.assertArrayEquals(values, Cursor.decode(cursor));
+  }
+
+  @Test(expected = DBException.class)
+  public void decodeInvalid() {
+    Cursor.decode("not-a-cursor");
+  }
+
+  @Test(expected = DBException.class)
+  public void encodeNull() {
+    Cursor.encode(new Object[]{1L, null});
+  }
+
+  @Test
+  public void decodeBigDecimal() {
+    Assert.assertEquals(new BigDecimal("1E+100"), Cursor.decode(Cursor.encode(new Object[]{new BigDecimal("1E+100")}))[0]);
+    try {
+      Cursor.decode(Cursor.encode(new Object[]{new BigDecimal("1E+999999999")}));
+      Assert.fail();
+    } catch (DBException e) {
+      Assert.assertTrue(e.getMessage().contains("无效的游标"));
+    }
+  }
+
+  @Test
+  public void isSupported() {
+    Assert.assertTrue(Cursor.isSupported(long.class));
+    Assert.assertTrue(Cursor.isSupported(Timestamp.class));
+    Assert.assertFalse(Cursor.isSupported(LocalTime.class));
+    Assert.assertFalse(Cursor.isSupported(TypeEnum.class));
+  }
+}
@@ -0,0 +1,107 @@
+package work.myfavs.framework.orm.meta.schema;
+
+import java.sql.ResultSet;
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.MockResultSet;
+import work.myfavs.framework.orm.entity.Snowfake;
+import work.myfavs.framework.orm.meta.annotation.Column;
+import work.myfavs.framework.orm.meta.annotation.Creator;
+import work.myfavs.framework.orm.meta.annotation.PrimaryKey;
+import work.myfavs.framework.orm.util.exception.DBException;
+
+public class RowMapperTest {
+
+  @Test
+  public void newInstance() {
+    RowMapper<Snowfake> rowMapper = Metadata.getRowMapper(Snowfake.class);
+    Assert.assertNotNull(rowMapper.newInstance());
+    Assert.assertSame(rowMapper, Metadata.getRowMapper(Snowfake.class));
+  }
+
+  @Test
+  public void setValue() {
+    Attributes attributes = Metadata.get(Snowfake.class).getQueryAttributes();
+    Snowfake   snowfake   = Metadata.getRowMapper(Snowfake.class).newInstance();
+
+    attributes.getAttribute("id").setValue(snowfake, 1L);
+    attributes.getAttribute("name").setValue(snowfake, "name");
+    Assert.assertEquals(Long.valueOf(1L), snowfake.getId());
+    Assert.assertEquals("name", snowfake.getName());
+
+    //类型不一致时回退到反射并转换类型
+    attributes.getAttribute("id").setValue(snowfake, 2);
+    Assert.assertEquals(Long.valueOf(2L), snowfake.getId());
+
+    attributes.getAttribute("name").setValue(snowfake, null);
+    Assert.assertNull(snowfake.getName());
+  }
+
+  @Test
+  public void getAccessor() {
+    Snowfake snowfake = new Snowfake();
+    snowfake.setId(1L);
+    snowfake.setName("name");
+    Assert.assertEquals(1L, Metadata.getAccessor(Snowfake.class, "id").apply(snowfake));
+    Assert.assertEquals("name", Metadata.getAccessor(Snowfake.class, "name").apply(snowfake));
+  }
+
+  @Test
+  public void creator() throws Exception {
+    ClassMeta classMeta = Metadata.get(ImmutableView.class);
+    Assert.assertNotNull(classMeta.getCreator());
+    Assert.assertEquals("name", classMeta.getCreatorAttributes()[0].getFieldName());
+    Assert.assertEquals("id", classMeta.getCreatorAttributes()[1].getFieldName());
+
+    //第一列为 id，第二列为 name
+    ResultSet rs = MockResultSet.row(7L, "immutable");
+
+    Attributes  attributes = classMeta.getQueryAttributes();
+    Attribute[] attrs      = {attributes.getAttribute("id"), attributes.getAttribute("name")};
+    ImmutableView view = Metadata.getRowMapper(ImmutableView.class)
+        .bind(attrs, new int[]{1, 2})
+        .apply(rs);
+    Assert.assertEquals(7L, view.id);
+    Assert.assertEquals("immutable", view.name);
+
+    view = Metadata.getRowMapper(ImmutableView.class)
+        .bind(new Attribute[]{attributes.getAttribute("name")}, new int[]{2})
+        .apply(rs);
+    Assert.assertEquals(0L, view.id);
+    Assert.assertEquals("immutable", view.name);
+  }
+
+  @Test(expected = DBException.class)
+  public void creatorWithoutParameterNames() {
+    //测试代码编译时不保留参数名，两个 String 参数无法按字段顺序可靠地匹配
+    Metadata.get(UnnamedView.class);
+  }
+
+  public static class UnnamedView {
+
+    @Column
+    private final String code;
+    @Column
+    private final String name;
+
+    public UnnamedView(String code, String name) {
+      this.code = code;
+      this.name = name;
+    }
+  }
+
+  public static class ImmutableView {
+
+    @Column
+    @PrimaryKey
+    private final long   id;
+    @Column
+    private final String name;
+
+    @Creator({"name", "id"})
+    public ImmutableView(String name, long id) {
+      this.id = id;
+      this.name = name;
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package work.myfavs.framework.orm.util;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.entity.Snowfake;
+import work.myfavs.framework.orm.meta.schema.Attribute;
+import work.myfavs.framework.orm.meta.schema.ClassMeta;
+import work.myfavs.framework.orm.meta.schema.Metadata;
+
+public class DirtyTrackerTest {
+
+  private final DirtyTracker tracker   = new DirtyTracker();
+  private final ClassMeta    classMeta = Metadata.get(Snowfake.class);
+
+  @Test
+  public void getChangedAttributes() {
+    Snowfake snowfake = new Snowfake();
+    snowfake.setName("name");
+    snowfake.setCreated(new Date(0L));
+    Assert.assertNull(tracker.getChangedAttributes(classMeta, snowfake));
+
+    tracker.track(classMeta, snowfake);
+    Assert.assertTrue(tracker.getChangedAttributes(classMeta, snowfake).isEmpty());
+
+    snowfake.setName(null);
+    snowfake.setPrice(new BigDecimal(10));
+    snowfake.getCreated().setTime(1000L);
+    List<Attribute> changed = tracker.getChangedAttributes(classMeta, snowfake);
+    Assert.assertEquals(3, changed.size());
+    Assert.assertTrue(changed.contains(classMeta.getUpdateAttributes().getAttribute("name")));
+
+    tracker.track(classMeta, snowfake);
+    Assert.assertTrue(tracker.getChangedAttributes(classMeta, snowfake).isEmpty());
+
+    tracker.untrack(snowfake);
+    Assert.assertNull(tracker.getChangedAttributes(classMeta, snowfake));
+  }
+
+  @Test
+  public void rollback() {
+    Snowfake committed = new Snowfake();
+    Snowfake updated   = new Snowfake();
+    tracker.track(classMeta, committed);
+    tracker.track(classMeta, updated);
+    tracker.touch(updated);
+
+    //回滚后事务中刷新过快照的实体不再跟踪，下次更新所有字段
+    tracker.rollback();
+    Assert.assertNull(tracker.getChangedAttributes(classMeta, updated));
+    Assert.assertNotNull(tracker.getChangedAttributes(classMeta, committed));
+
+    tracker.track(classMeta, updated);
+    tracker.touch(updated);
+    tracker.commit();
+    tracker.rollback();
+    Assert.assertNotNull(tracker.getChangedAttributes(classMeta, updated));
+  }
+}
@@ -0,0 +1,84 @@
+package work.myfavs.framework.orm.util;
+
+import cn.hutool.core.lang.Snowflake;
+import cn.hutool.core.util.IdUtil;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 比较多线程突发分配雪花主键的耗时：hutool Snowflake（synchronized）、PKGenerator 逐个生成、PKGenerator 按块分配
+ * <p>
+ * 雪花主键每毫秒最多 4096 个，持续吞吐量受此限制；批量创建是突发负载，PKGenerator 可以借用后面的毫秒，
+ * 分配总数在 {@link PKGenerator#MAX_BORROW_MILLIS} 以内时不必等待时钟。每次迭代使用新的生成器，
+ * 各线程分配 {@value #PER_THREAD} 个主键，测量整次突发的耗时
+ * <p>
+ * 不随单元测试执行，运行 {@link #main(String[])}
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(2)
+@Threads(8)
+@State(Scope.Benchmark)
+public class PKGeneratorBenchmark {
+
+  private final static int PER_THREAD = 100_000;
+  private final static int BLOCK      = 100;
+
+  private Snowflake   snowflake;
+  private PKGenerator generator;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+
+    snowflake = IdUtil.createSnowflake(1L, 1L);
+    generator = new PKGenerator(1L, 1L);
+  }
+
+  @Benchmark
+  public void hutool(Blackhole blackhole) {
+
+    for (int i = 0; i < PER_THREAD; i++) {
+      blackhole.consume(snowflake.nextId());
+    }
+  }
+
+  @Benchmark
+  public void nextSnowFakeId(Blackhole blackhole) {
+
+    for (int i = 0; i < PER_THREAD; i++) {
+      blackhole.consume(generator.nextSnowFakeId());
+    }
+  }
+
+  @Benchmark
+  public void nextIds(Blackhole blackhole) {
+
+    for (int i = 0; i < PER_THREAD; i += BLOCK) {
+      blackhole.consume(generator.nextIds(BLOCK));
+    }
+  }
+
+  public static void main(String[] args)
+      throws RunnerException {
+
+    new Runner(new OptionsBuilder().include(PKGeneratorBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
@@ -1,12 +1,162 @@
 package work.myfavs.framework.orm.util;
 
+import cn.hutool.core.util.IdUtil;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
 import org.junit.Test;
+import work.myfavs.framework.orm.util.exception.DBException;
 
 public class PKGeneratorTest {
 
   @Test
   public void nextSnowFakeId() {
 
+    PKGenerator generator = new PKGenerator(1L, 1L);
+    long        previous  = generator.nextSnowFakeId();
+    for (int i = 0; i < 10000; i++) {
+      long id = generator.nextSnowFakeId();
+      Assert.assertTrue(id > previous);
+      previous = id;
+    }
+    //位布局与 hutool Snowflake 相同
+    Assert.assertEquals(1L, IdUtil.getSnowflake(1L, 1L).getWorkerId(previous));
+    Assert.assertEquals(1L, IdUtil.getSnowflake(1L, 1L).getDataCenterId(previous));
+    Assert.assertTrue(Math.abs(IdUtil.getSnowflake(1L, 1L).getGenerateDateTime(previous) - System.currentTimeMillis()) < 2000L);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void nextIds() {
+
+    PKGenerator generator = new PKGenerator(3L, 2L);
+    long[]      ids       = generator.nextIds(10000);
+    Assert.assertEquals(10000, ids.length);
+    for (int i = 1; i < ids.length; i++) {
+      Assert.assertTrue(ids[i] > ids[i - 1]);
+    }
+    Assert.assertTrue(generator.nextSnowFakeId() > ids[ids.length - 1]);
+    Assert.assertEquals(0, generator.nextIds(0).length);
+  }
+
+  @Test
+  public void nextIdsWithinBorrowLimit() {
+
+    //整块主键（包括最后一个）的时间戳都不超过借用上限
+    PKGenerator generator = new PKGenerator(3L, 2L);
+    for (int i = 0; i < 3; i++) {
+      long[] ids = generator.nextIds(1 << 20);
+      Assert.assertTrue(PKGenerator.snowFlakeTime(ids[ids.length - 1]) <= System.currentTimeMillis() + PKGenerator.MAX_BORROW_MILLIS);
+    }
+  }
+
+  @Test
+  public void independentTemplates() {
+
+    PKGenerator first  = new PKGenerator(1L, 1L);
+    PKGenerator second = new PKGenerator(2L, 3L);
+    Assert.assertEquals(1L, IdUtil.getSnowflake(1L, 1L).getWorkerId(first.nextSnowFakeId()));
+    Assert.assertEquals(2L, IdUtil.getSnowflake(1L, 1L).getWorkerId(second.nextSnowFakeId()));
+    Assert.assertEquals(3L, IdUtil.getSnowflake(1L, 1L).getDataCenterId(second.nextSnowFakeId()));
+  }
+
+  @Test
+  public void snowFlakeTime() {
+
+    long        now       = System.currentTimeMillis();
+    PKGenerator generator = new PKGenerator(5L, 7L);
+    long        id        = generator.nextSnowFakeId();
+    long        time      = PKGenerator.snowFlakeTime(id);
+    Assert.assertTrue(time >= now && time <= System.currentTimeMillis() + PKGenerator.MAX_BORROW_MILLIS);
+    Assert.assertTrue(id >= PKGenerator.minSnowFlakeId(time));
+    Assert.assertTrue(id <= PKGenerator.maxSnowFlakeId(time));
+    Assert.assertEquals(PKGenerator.maxSnowFlakeId(time) + 1, PKGenerator.minSnowFlakeId(time + 1));
+  }
+
+  @Test
+  public void nextUUIDv7() {
+
+    PKGenerator generator = new PKGenerator(1L, 1L);
+    UUID        previous  = generator.nextUUIDv7();
+    Assert.assertEquals(7, previous.version());
+    Assert.assertEquals(2, previous.variant());
+    Assert.assertTrue(Math.abs((previous.getMostSignificantBits() >>> 16) - System.currentTimeMillis()) < 2000L);
+    for (int i = 0; i < 10000; i++) {
+      UUID uuid = generator.nextUUIDv7();
+      Assert.assertTrue(uuid.toString().compareTo(previous.toString()) > 0);
+      previous = uuid;
+    }
+  }
+
+  @Test
+  public void nextSequenceIds() {
+
+    PKGenerator generator = new PKGenerator(1L, 1L);
+    AtomicLong  hi        = new AtomicLong();
+    long[]      ids       = generator.nextSequenceIds("tb_test_seq", 10, 25, hi::incrementAndGet);
+    Assert.assertEquals(3L, hi.get());
+    Assert.assertEquals(10L, ids[0]);
+    Assert.assertEquals(34L, ids[24]);
+    Assert.assertEquals(35L, generator.nextSequenceIds("tb_test_seq", 10, 1, hi::incrementAndGet)[0]);
+    Assert.assertEquals(10L, generator.nextSequenceIds("tb_other_seq", 10, 1, () -> 1L)[0]);
+  }
+
+  @Test(expected = DBException.class)
+  public void nextSequenceIdsWithDifferentAllocationSize() {
+
+    //同一序列使用不同的 allocationSize 时主键块会重叠
+    PKGenerator generator = new PKGenerator(1L, 1L);
+    generator.nextSequenceIds("tb_shared_seq", 50, 1, () -> 1L);
+    generator.nextSequenceIds("tb_shared_seq", 100, 1, () -> 2L);
+  }
+
+  @Test
+  public void concurrentSequenceIds()
+      throws InterruptedException {
+
+    PKGenerator     generator = new PKGenerator(1L, 1L);
+    AtomicLong      hi        = new AtomicLong();
+    Set<Long>       ids       = ConcurrentHashMap.newKeySet();
+    ExecutorService executor  = Executors.newFixedThreadPool(8);
+    for (int t = 0; t < 8; t++) {
+      executor.execute(() -> {
+        for (int i = 0; i < 1000; i++) {
+          for (long id : generator.nextSequenceIds("tb_test_seq", 50, 7, hi::incrementAndGet)) {
+            ids.add(id);
+          }
+        }
+      });
+    }
+    executor.shutdown();
+    Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    Assert.assertEquals(8 * 1000 * 7, ids.size());
+    Assert.assertTrue(hi.get() <= 8 * 1000 * 7 / 50 + 8);
+  }
+
+  @Test
+  public void concurrent()
+      throws InterruptedException {
+
+    PKGenerator     generator = new PKGenerator(1L, 1L);
+    Set<Long>       ids       = ConcurrentHashMap.newKeySet();
+    ExecutorService executor  = Executors.newFixedThreadPool(8);
+    for (int t = 0; t < 8; t++) {
+      executor.execute(() -> {
+        for (int i = 0; i < 1000; i++) {
+          ids.add(generator.nextSnowFakeId());
+          for (long id : generator.nextIds(10)) {
+            ids.add(id);
+          }
+        }
+      });
+    }
+    executor.shutdown();
+    Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    Assert.assertEquals(8 * 1000 * 11, ids.size());
+  }
+
+}
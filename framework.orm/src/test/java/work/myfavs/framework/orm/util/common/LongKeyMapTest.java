@@ -0,0 +1,39 @@
+package work.myfavs.framework.orm.util.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LongKeyMapTest {
+
+  @Test
+  public void put() {
+    LongKeyMap<String> map = new LongKeyMap<>(2);
+    for (long i = 0; i < 10000; i++) {
+      Assert.assertNull(map.put(i << 22, String.valueOf(i)));
+    }
+    Assert.assertEquals(10000, map.size());
+    Assert.assertEquals("123", map.get(123L << 22));
+    Assert.assertEquals("123", map.put(123L << 22, "changed"));
+    Assert.assertEquals("changed", map.get(123L << 22));
+    Assert.assertEquals(10000, map.size());
+    Assert.assertNull(map.get(-1L));
+    Assert.assertFalse(map.containsKey(1L));
+  }
+
+  @Test
+  public void keys() {
+    LongKeyMap<String> map = new LongKeyMap<>();
+    map.put(1L, "a");
+    map.put(2L, "b");
+    Assert.assertEquals(2, map.keys().length);
+    Assert.assertEquals(2, map.values().size());
+
+    long[] sum = new long[1];
+    map.forEach((key, value) -> sum[0] += key);
+    Assert.assertEquals(3L, sum[0]);
+
+    map.clear();
+    Assert.assertTrue(map.isEmpty());
+    Assert.assertNull(map.get(1L));
+  }
+}
@@ -0,0 +1,77 @@
+package work.myfavs.framework.orm.util.convert;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.BitSet;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.MockResultSet;
+import work.myfavs.framework.orm.meta.ColumnVector;
+import work.myfavs.framework.orm.util.exception.DBException;
+
+public class DBConvertTest {
+
+  @Test
+  public void toLongs() throws SQLException {
+    BitSet nulls  = new BitSet();
+    long[] values = DBConvert.toLongs(MockResultSet.of(new String[]{"id"}, new Object[]{1L}, new Object[]{null}, new Object[]{0L}), -1L, nulls);
+    Assert.assertArrayEquals(new long[]{1L, -1L, 0L}, values);
+    Assert.assertEquals(1, nulls.cardinality());
+    Assert.assertTrue(nulls.get(1));
+  }
+
+  @Test
+  public void toInts() throws SQLException {
+    //超过初始容量时扩容
+    int[] values = DBConvert.toInts(MockResultSet.of(new String[]{"id"}, rows(200)), 0, null);
+    Assert.assertEquals(200, values.length);
+    Assert.assertEquals(199, values[199]);
+  }
+
+  @Test
+  public void toColumns() throws SQLException {
+    Object[][] rows = new Object[150][];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = new Object[]{i, (long) i, i % 2 == 0 ? null : i * 0.5D};
+    }
+    ResultSet rs = MockResultSet.of(new String[]{"num", "id", "rate"}, new int[]{Types.INTEGER, Types.BIGINT, Types.DOUBLE}, rows);
+
+    Map<String, ColumnVector> columns = DBConvert.toColumns(rs);
+    Assert.assertArrayEquals(new Object[]{"num", "id", "rate"}, columns.keySet().toArray());
+    Assert.assertEquals(150, columns.get("num").getInts().length);
+    Assert.assertEquals(149L, columns.get("id").getLongs()[149]);
+    ColumnVector rate = columns.get("rate");
+    Assert.assertEquals(150, rate.getDoubles().length);
+    Assert.assertEquals(74.5D, rate.getDoubles()[149], 0D);
+    Assert.assertTrue(rate.isNull(148));
+    Assert.assertFalse(rate.isNull(149));
+    Assert.assertEquals(75, rate.getNulls().cardinality());
+    Assert.assertTrue(columns.get("id").getNulls().isEmpty());
+  }
+
+  @Test
+  public void toColumnsWithDecimal() throws SQLException {
+    String[] labels = {"price"};
+    int[]    types  = {Types.DECIMAL};
+    try {
+      DBConvert.toColumns(MockResultSet.of(labels, types, new Object[]{1.5D}));
+      Assert.fail();
+    } catch (DBException e) {
+      Assert.assertTrue(e.getMessage().contains("price"));
+    }
+
+    ColumnVector price = DBConvert.toColumns(MockResultSet.of(labels, types, new Object[]{1.5D}), true).get("price");
+    Assert.assertArrayEquals(new double[]{1.5D}, price.getDoubles(), 0D);
+  }
+
+  private static Object[][] rows(int count) {
+
+    Object[][] rows = new Object[count][];
+    for (int i = 0; i < count; i++) {
+      rows[i] = new Object[]{i};
+    }
+    return rows;
+  }
+}
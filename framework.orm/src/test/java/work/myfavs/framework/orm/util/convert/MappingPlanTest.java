@@ -0,0 +1,70 @@
+package work.myfavs.framework.orm.util.convert;
+
+import java.sql.SQLException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import work.myfavs.framework.orm.MockResultSet;
+import work.myfavs.framework.orm.entity.Snowfake;
+import work.myfavs.framework.orm.meta.schema.Attributes;
+import work.myfavs.framework.orm.meta.schema.Metadata;
+
+public class MappingPlanTest {
+
+  private final Attributes attributes = Metadata.get(Snowfake.class).getQueryAttributes();
+
+  @After
+  public void tearDown() {
+    MappingPlan.clear();
+  }
+
+  @Test
+  public void get() throws SQLException {
+    String      sql  = "SELECT id, name FROM tb_snowfake";
+    MappingPlan plan = MappingPlan.get(Snowfake.class, sql, attributes, MockResultSet.metaData("id", "name"));
+    Assert.assertSame(plan, MappingPlan.get(Snowfake.class, sql, attributes, MockResultSet.metaData("id", "name")));
+    Assert.assertEquals("id", plan.getAttributes()[0].getColumnName());
+    Assert.assertArrayEquals(new int[]{1, 2}, plan.getColumnIndexes());
+  }
+
+  @Test
+  public void getWithDifferentLabels() throws SQLException {
+    //同一 SQL 在另一个数据源或表结构变更后，列数相同但列名不同
+    String      sql    = "SELECT * FROM tb_snowfake";
+    MappingPlan cached = MappingPlan.get(Snowfake.class, sql, attributes, MockResultSet.metaData("id", "name"));
+    MappingPlan plan   = MappingPlan.get(Snowfake.class, sql, attributes, MockResultSet.metaData("name", "id"));
+    Assert.assertNotSame(cached, plan);
+    Assert.assertEquals("name", plan.getAttributes()[0].getColumnName());
+    Assert.assertEquals("id", plan.getAttributes()[1].getColumnName());
+    Assert.assertSame(plan, MappingPlan.get(Snowfake.class, sql, attributes, MockResultSet.metaData("name", "id")));
+  }
+
+  @Test
+  public void getWithDuplicateLabels() throws SQLException {
+    //SELECT a.*, b.id：重名的列映射第一个
+    MappingPlan plan = MappingPlan.get(Snowfake.class, "SELECT a.*, b.id FROM tb_snowfake a, tb_snowfake b", attributes,
+        MockResultSet.metaData("id", "name", "id"));
+    Assert.assertEquals(2, plan.getAttributes().length);
+    Assert.assertArrayEquals(new int[]{1, 2}, plan.getColumnIndexes());
+  }
+
+  @Test
+  public void maxCacheSize() throws SQLException {
+    for (int i = 0; i < MappingPlan.MAX_CACHE_SIZE + 10; i++) {
+      MappingPlan.get(Snowfake.class, "SELECT id FROM tb_snowfake WHERE id = " + i, attributes, MockResultSet.metaData("id"));
+    }
+    Assert.assertEquals(MappingPlan.MAX_CACHE_SIZE, MappingPlan.size());
+
+    //超出数量后不再缓存新的 SQL，但映射计划仍然正确
+    String      sql  = "SELECT name FROM tb_snowfake";
+    MappingPlan plan = MappingPlan.get(Snowfake.class, sql, attributes, MockResultSet.metaData("name"));
+    Assert.assertEquals("name", plan.getAttributes()[0].getColumnName());
+    Assert.assertNotSame(plan, MappingPlan.get(Snowfake.class, sql, attributes, MockResultSet.metaData("name")));
+    Assert.assertEquals(MappingPlan.MAX_CACHE_SIZE, MappingPlan.size());
+
+    //已缓存的 SQL 列名变化时仍然替换
+    sql  = "SELECT id FROM tb_snowfake WHERE id = 0";
+    plan = MappingPlan.get(Snowfake.class, sql, attributes, MockResultSet.metaData("name"));
+    Assert.assertSame(plan, MappingPlan.get(Snowfake.class, sql, attributes, MockResultSet.metaData("name")));
+  }
+}